@@ -0,0 +1,93 @@
+package com.bankingledger.accountservice.config;
+
+import com.bankingledger.accountservice.event.AccountCommand;
+import com.bankingledger.accountservice.event.NettingBatchCommand;
+import com.bankingledger.accountservice.event.TransferEvent;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@EnableKafka
+public class KafkaConsumerConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Bean
+    public ConsumerFactory<String, AccountCommand> accountCommandConsumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(consumerProps("account-service-saga", AccountCommand.class));
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, AccountCommand> accountCommandListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, AccountCommand> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        // applyCommand sadece DB hatalarını fırlatır; beklenerek tekrar denenir, sonra saga timeout'u komutu yeniden gönderir
+        factory.setCommonErrorHandler(new DefaultErrorHandler(new FixedBackOff(1000L, 9L)));
+        factory.setConcurrency(3);
+        factory.setConsumerFactory(accountCommandConsumerFactory());
+        return factory;
+    }
+
+    @Bean
+    public ConsumerFactory<String, NettingBatchCommand> nettingCommandConsumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(consumerProps("account-service-netting", NettingBatchCommand.class));
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, NettingBatchCommand> nettingCommandListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, NettingBatchCommand> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setCommonErrorHandler(new DefaultErrorHandler());
+        factory.setConsumerFactory(nettingCommandConsumerFactory());
+        return factory;
+    }
+
+    @Bean
+    public ConsumerFactory<String, TransferEvent> transferEventConsumerFactory() {
+        Map<String, Object> props = consumerProps("account-service-statement", TransferEvent.class);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 500);
+        return new DefaultKafkaConsumerFactory<>(props);
+    }
+
+    /**
+     * Ekstre projeksiyonu event'leri poll başına tek transaction ile uygular.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, TransferEvent> transferEventBatchListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, TransferEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setCommonErrorHandler(new DefaultErrorHandler());
+        factory.setBatchListener(true);
+        factory.setConcurrency(3);
+        factory.setConsumerFactory(transferEventConsumerFactory());
+        return factory;
+    }
+
+    private Map<String, Object> consumerProps(String groupId, Class<?> valueType) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, valueType.getName());
+        // Mesajlar transfer-service'teki sınıf adıyla yazılıyor, type header'ı yok sayılmalı
+        props.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+        props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        return props;
+    }
+}
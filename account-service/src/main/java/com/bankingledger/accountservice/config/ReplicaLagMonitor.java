@@ -0,0 +1,94 @@
+package com.bankingledger.accountservice.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Replica'nın replikasyon gecikmesini periyodik olarak ölçer.
+ *
+ * Gecikme her istekte sorgulanmaz; routing kararı son ölçülen değere göre verilir.
+ * Replica'ya ulaşılamazsa ölçüm başarısız sayılır ve tüm okumalar primary'ye düşer. Primary ile bağlantısı
+ * kopmuş (WAL almayan) replica gecikmesi ölçülemediği için stale sayılır.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    // receive LSN = replay LSN, primary ile bağlantısı kopmuş replica'da da doğrudur; bu yüzden WAL receiver'ın
+    // çalıştığı ayrıca kontrol edilir. Yetkisiz kullanıcı için status NULL görünür; satırın varlığı yeterlidir
+    // (tam kontrol için izleme kullanıcısına pg_read_all_stats verilmelidir).
+    private static final String LAG_QUERY = """
+            SELECT pg_is_in_recovery() AS in_recovery,
+                   EXISTS (SELECT 1 FROM pg_stat_wal_receiver
+                           WHERE status IS NULL OR status = 'streaming') AS streaming,
+                   CASE
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+                   END AS lag_ms
+            """;
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final long maxLagMillis;
+
+    private volatile boolean available;
+    private volatile boolean streaming;
+    private volatile long lagMillis = -1;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, long maxLagMillis, MeterRegistry meterRegistry) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.replicaJdbcTemplate.setQueryTimeout(1);
+        this.maxLagMillis = maxLagMillis;
+
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagMillis)
+                .description("Last measured replication lag in milliseconds, -1 if the replica is down")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.available", this, monitor -> monitor.available ? 1 : 0)
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.streaming", this, monitor -> monitor.streaming ? 1 : 0)
+                .description("1 if the replica is receiving WAL from the primary")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.probe-interval-ms:1000}")
+    public void probe() {
+        try {
+            replicaJdbcTemplate.query(LAG_QUERY, rs -> {
+                // Recovery'de değilse (replica URL primary'yi gösteriyorsa) gecikme yoktur
+                boolean inRecovery = rs.getBoolean("in_recovery");
+                boolean receiving = !inRecovery || rs.getBoolean("streaming");
+                if (streaming && !receiving) {
+                    log.warn("Replica is not receiving WAL from the primary, treating it as stale");
+                }
+                streaming = receiving;
+                lagMillis = inRecovery ? rs.getLong("lag_ms") : 0;
+            });
+            if (!available) {
+                log.info("Replica is reachable again, lag: {} ms", lagMillis);
+            }
+            available = true;
+        } catch (Exception e) {
+            if (available) {
+                log.warn("Replica probe failed, routing reads to primary: {}", e.getMessage());
+            }
+            available = false;
+            streaming = false;
+            lagMillis = -1;
+        }
+    }
+
+    /**
+     * Replica ayakta, primary'den WAL alıyor ve gecikmesi izin verilen sınırın altındaysa true.
+     */
+    public boolean isUsable() {
+        return available && streaming && lagMillis <= maxLagMillis;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+}
@@ -0,0 +1,43 @@
+package com.bankingledger.accountservice.consumer;
+
+import com.bankingledger.accountservice.event.AccountCommand;
+import com.bankingledger.accountservice.event.AccountCommandReply;
+import com.bankingledger.accountservice.service.AccountService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AccountCommandConsumer {
+
+    private final AccountService accountService;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Value("${saga.topics.replies}")
+    private String replyTopic;
+
+    /**
+     * Transfer saga komutlarını uygula ve sonucu cevap topic'ine yaz.
+     * Cevap, bakiye değişikliği commit edildikten sonra gönderilir. Aynı komut başka bir consumer'da
+     * eşzamanlı işlendiyse kaydedilmiş sonuç tekrar gönderilir.
+     */
+    @KafkaListener(topics = "${saga.topics.commands}", groupId = "account-service-saga",
+            containerFactory = "accountCommandListenerContainerFactory")
+    public void consumeCommand(AccountCommand command) {
+        log.debug("Received {} command for transaction: {}", command.getType(), command.getTransactionId());
+
+        AccountCommandReply reply;
+        try {
+            reply = accountService.applyCommand(command);
+        } catch (DuplicateKeyException e) {
+            reply = accountService.replayCommand(command);
+        }
+        kafkaTemplate.send(replyTopic, command.getTransactionId(), reply);
+    }
+}
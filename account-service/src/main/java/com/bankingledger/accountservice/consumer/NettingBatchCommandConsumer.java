@@ -0,0 +1,56 @@
+package com.bankingledger.accountservice.consumer;
+
+import com.bankingledger.accountservice.event.NettingBatchCommand;
+import com.bankingledger.accountservice.event.NettingBatchReply;
+import com.bankingledger.accountservice.service.AccountService;
+import com.bankingledger.accountservice.service.NettingBatchRejectedException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NettingBatchCommandConsumer {
+
+    private final AccountService accountService;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Value("${netting.topics.replies}")
+    private String replyTopic;
+
+    /**
+     * Netting batch'ini uygula. Batch bütün olarak ya uygulanır ya da hiç uygulanmaz;
+     * başarısız sonuç da kaydedilir ki tekrar gelen aynı batch farklı sonuç üretmesin. Ret cevabı
+     * uygulanamayan hesapları içerir. Batch eşzamanlı işlendiyse kaydedilmiş sonuç tekrar gönderilir.
+     */
+    @KafkaListener(topics = "${netting.topics.commands}", groupId = "account-service-netting",
+            containerFactory = "nettingCommandListenerContainerFactory")
+    public void consumeBatch(NettingBatchCommand command) {
+        log.debug("Received netting batch: {} with {} entries", command.getBatchId(), command.getEntries().size());
+
+        NettingBatchReply reply;
+        try {
+            reply = apply(command);
+        } catch (DuplicateKeyException e) {
+            reply = accountService.replayNettingBatch(command);
+        }
+        kafkaTemplate.send(replyTopic, command.getBatchId(), reply);
+    }
+
+    private NettingBatchReply apply(NettingBatchCommand command) {
+        try {
+            return accountService.applyNettingBatch(command);
+        } catch (NettingBatchRejectedException e) {
+            return accountService.rejectNettingBatch(command, e.getMessage(), e.getRejectedIbans());
+        } catch (IllegalArgumentException e) {
+            return accountService.rejectNettingBatch(command, e.getMessage(), List.of());
+        }
+    }
+}
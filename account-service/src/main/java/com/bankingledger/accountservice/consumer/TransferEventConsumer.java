@@ -0,0 +1,31 @@
+package com.bankingledger.accountservice.consumer;
+
+import com.bankingledger.accountservice.event.TransferEvent;
+import com.bankingledger.accountservice.service.StatementProjectionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TransferEventConsumer {
+
+    public static final String LISTENER_ID = "statementProjection";
+
+    private final StatementProjectionService projectionService;
+
+    /**
+     * transfer-events'i ekstre projeksiyonuna uygula. Batch bir bütün olarak uygulanır;
+     * hata durumunda DefaultErrorHandler batch'i tekrar dener, tekrar eden event'ler atlanır.
+     */
+    @KafkaListener(id = LISTENER_ID, topics = "transfer-events", groupId = "account-service-statement",
+            containerFactory = "transferEventBatchListenerContainerFactory")
+    public void consumeTransferEvents(List<TransferEvent> events) {
+        int projected = projectionService.applyBatch(events);
+        log.debug("Received {} transfer events, projected {}", events.size(), projected);
+    }
+}
@@ -2,12 +2,21 @@ package com.bankingledger.accountservice.controller;
 
 import com.bankingledger.accountservice.dto.AccountResponse;
 import com.bankingledger.accountservice.dto.CreateAccountRequest;
+import com.bankingledger.accountservice.dto.StatementResponse;
 import com.bankingledger.accountservice.service.AccountService;
+import com.bankingledger.accountservice.service.BulkAccountImportService;
+import com.bankingledger.accountservice.service.StatementProjectionRebuilder;
+import com.bankingledger.accountservice.service.StatementProjectionService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -16,6 +25,9 @@ import java.util.List;
 public class AccountController {
 
     private final AccountService accountService;
+    private final BulkAccountImportService bulkAccountImportService;
+    private final StatementProjectionService statementProjectionService;
+    private final StatementProjectionRebuilder statementProjectionRebuilder;
 
     @PostMapping
     public ResponseEntity<AccountResponse> createAccount(@RequestBody CreateAccountRequest request) {
@@ -23,6 +35,21 @@ public class AccountController {
                 .body(accountService.createAccount(request));
     }
 
+    /**
+     * Gövde belleğe alınmadan COPY ile yüklenir; rapor da satır satır yazılır.
+     */
+    @PostMapping(value = "/bulk", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public void bulkCreateAccounts(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                   InputStream body,
+                                   HttpServletResponse response) throws IOException {
+        BulkAccountImportService.Format format = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+                ? BulkAccountImportService.Format.NDJSON
+                : BulkAccountImportService.Format.CSV;
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        bulkAccountImportService.importAccounts(format, body, response.getOutputStream());
+    }
+
     @GetMapping("/{iban}")
     public ResponseEntity<AccountResponse> getAccount(@PathVariable String iban) {
         return ResponseEntity.ok(accountService.getAccount(iban));
@@ -37,4 +64,18 @@ public class AccountController {
     public ResponseEntity<List<AccountResponse>> getAllAccounts() {
         return ResponseEntity.ok(accountService.getAllAccounts());
     }
+
+    @GetMapping("/{iban}/statement")
+    public ResponseEntity<StatementResponse> getStatement(@PathVariable String iban,
+                                                          @RequestParam(defaultValue = "0") int page,
+                                                          @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(statementProjectionService.getStatement(iban, page, Math.min(size, 500)));
+    }
+
+    @PostMapping("/statements/rebuild")
+    public ResponseEntity<Void> rebuildStatements() {
+        return statementProjectionRebuilder.startRebuild()
+                ? ResponseEntity.accepted().build()
+                : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
 }
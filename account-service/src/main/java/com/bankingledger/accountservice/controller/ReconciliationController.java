@@ -0,0 +1,31 @@
+package com.bankingledger.accountservice.controller;
+
+import com.bankingledger.accountservice.dto.ReconciliationReport;
+import com.bankingledger.accountservice.entity.ReconciliationRun;
+import com.bankingledger.accountservice.service.LedgerReconciliationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/reconciliation")
+@RequiredArgsConstructor
+public class ReconciliationController {
+
+    private final LedgerReconciliationService reconciliationService;
+
+    @PostMapping("/runs")
+    public ResponseEntity<ReconciliationReport> startRun() {
+        ReconciliationRun run = reconciliationService.startOrResume();
+        if (run == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.accepted().body(reconciliationService.getReport(run.getId()));
+    }
+
+    @GetMapping("/runs/{id}")
+    public ResponseEntity<ReconciliationReport> getRun(@PathVariable Long id) {
+        return ResponseEntity.ok(reconciliationService.getReport(id));
+    }
+}
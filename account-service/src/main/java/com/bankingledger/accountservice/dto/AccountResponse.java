@@ -1,12 +1,12 @@
 package com.bankingledger.accountservice.dto;
 
 import com.bankingledger.accountservice.entity.Account;
+import com.bankingledger.common.money.Money;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
@@ -17,8 +17,7 @@ public class AccountResponse {
     private Long id;
     private String iban;
     private String accountHolder;
-    private BigDecimal balance;
-    private String currency;
+    private Money balance;
     private String status;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -29,7 +28,6 @@ public class AccountResponse {
                 .iban(account.getIban())
                 .accountHolder(account.getAccountHolder())
                 .balance(account.getBalance())
-                .currency(account.getCurrency())
                 .status(account.getStatus().toString())
                 .createdAt(account.getCreatedAt())
                 .updatedAt(account.getUpdatedAt())
@@ -0,0 +1,39 @@
+package com.bankingledger.accountservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconciliationReport {
+    private Long runId;
+    private String status;
+    private int bucketCount;
+    private int bucketsCompleted;
+    private long transfersScanned;
+    private long accountsChecked;
+    private long mismatchCount;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private List<Mismatch> mismatches;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Mismatch {
+        private String iban;
+        private BigDecimal expectedBalance;
+        private BigDecimal actualBalance;
+        private int inFlightTransfers;
+        private boolean openingBalanceKnown;
+    }
+}
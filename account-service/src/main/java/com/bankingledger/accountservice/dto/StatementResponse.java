@@ -0,0 +1,46 @@
+package com.bankingledger.accountservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatementResponse {
+    private String iban;
+    private BigDecimal balance;
+    private List<Entry> entries;
+    private List<MonthlySummary> monthlySummaries;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Entry {
+        private String transactionId;
+        private String counterpartyIban;
+        private String direction;
+        private BigDecimal amount;
+        private BigDecimal runningBalance;
+        private String description;
+        private LocalDateTime occurredAt;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class MonthlySummary {
+        private String month;
+        private BigDecimal totalDebits;
+        private BigDecimal totalCredits;
+        private long entryCount;
+    }
+}
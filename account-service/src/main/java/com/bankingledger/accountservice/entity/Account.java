@@ -1,12 +1,14 @@
 package com.bankingledger.accountservice.entity;
 
+import com.bankingledger.common.money.Money;
+import com.bankingledger.common.money.MoneyType;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CompositeType;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
@@ -27,11 +29,11 @@ public class Account {
     @Column(nullable = false)
     private String accountHolder;
 
-    @Column(nullable = false)
-    private BigDecimal balance;
-
-    @Column(nullable = false)
-    private String currency;
+    @Embedded
+    @CompositeType(MoneyType.class)
+    @AttributeOverride(name = "amount", column = @Column(name = "balance", nullable = false, precision = 38, scale = Money.STORAGE_SCALE))
+    @AttributeOverride(name = "currency", column = @Column(name = "currency", nullable = false))
+    private Money balance;
 
     @Column(nullable = false)
     @Enumerated(EnumType.STRING)
@@ -0,0 +1,46 @@
+package com.bankingledger.accountservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Uygulanmış saga komutlarının kaydı. Aynı komut tekrar gelirse bakiye tekrar
+ * değiştirilmez, kaydedilen sonuç yeniden cevaplanır.
+ */
+@Entity
+@Table(name = "processed_account_commands")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProcessedCommand {
+
+    @Id
+    @Column(name = "command_id")
+    private String commandId;
+
+    @Column(nullable = false)
+    private boolean success;
+
+    @Column(length = 500)
+    private String reason;
+
+    private String accountHolder;
+
+    // Reddedilen netting batch'inde uygulanamayan hesaplar (virgülle ayrılmış); tekrar gelen batch aynı cevabı alır
+    @Column(columnDefinition = "TEXT")
+    private String rejectedIbans;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime processedAt;
+
+    @PrePersist
+    public void prePersist() {
+        this.processedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,47 @@
+package com.bankingledger.accountservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bir reconciliation run'ında tamamlanmış IBAN hash bucket'ı. Yarıda kalan run devam
+ * ettirildiğinde checkpoint'i olan bucket'lar tekrar taranmaz.
+ */
+@Entity
+@Table(name = "reconciliation_checkpoints",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"run_id", "bucket"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconciliationCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Column(nullable = false)
+    private int bucket;
+
+    private long transfersScanned;
+
+    private long accountsChecked;
+
+    private long mismatchCount;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    public void prePersist() {
+        this.completedAt = LocalDateTime.now();
+    }
+}
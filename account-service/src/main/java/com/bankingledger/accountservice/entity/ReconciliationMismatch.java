@@ -0,0 +1,47 @@
+package com.bankingledger.accountservice.entity;
+
+import com.bankingledger.common.money.Money;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * accounts.balance ile transfers geçmişinden hesaplanan bakiye arasındaki fark.
+ * inFlightTransfers > 0 ise fark, sonucu henüz kesinleşmemiş saga/netting adımlarından kaynaklanıyor olabilir.
+ */
+@Entity
+@Table(name = "reconciliation_mismatches",
+        indexes = @Index(name = "idx_reconciliation_mismatches_run", columnList = "run_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconciliationMismatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Column(nullable = false)
+    private int bucket;
+
+    @Column(nullable = false)
+    private String iban;
+
+    @Column(nullable = false, precision = 38, scale = Money.STORAGE_SCALE)
+    private BigDecimal expectedBalance;
+
+    @Column(precision = 38, scale = Money.STORAGE_SCALE)
+    private BigDecimal actualBalance; // null: transfer geçmişi var ama hesap yok
+
+    private int inFlightTransfers;
+
+    private boolean openingBalanceKnown;
+}
@@ -0,0 +1,49 @@
+package com.bankingledger.accountservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "reconciliation_runs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconciliationRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private int bucketCount;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private RunStatus status;
+
+    private long transfersScanned;
+
+    private long accountsChecked;
+
+    private long mismatchCount;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    @PrePersist
+    public void prePersist() {
+        this.startedAt = LocalDateTime.now();
+    }
+
+    public enum RunStatus {
+        RUNNING, COMPLETED, FAILED
+    }
+}
@@ -0,0 +1,42 @@
+package com.bankingledger.accountservice.entity;
+
+import com.bankingledger.common.money.Money;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Ekstre projeksiyonunun IBAN başına yürüyen bakiyesi.
+ * openingBalance hesap açılışındaki bakiyedir; projeksiyon yeniden kurulurken balance buna döner.
+ */
+@Entity
+@Table(name = "statement_balances")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatementBalance {
+
+    @Id
+    private String iban;
+
+    @Column(nullable = false, precision = 38, scale = Money.STORAGE_SCALE)
+    private BigDecimal balance;
+
+    @Column(nullable = false, precision = 38, scale = Money.STORAGE_SCALE)
+    private BigDecimal openingBalance;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    public void touch() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
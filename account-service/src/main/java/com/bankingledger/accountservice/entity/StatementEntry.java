@@ -0,0 +1,63 @@
+package com.bankingledger.accountservice.entity;
+
+import com.bankingledger.common.money.Money;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Denormalize ekstre satırı: bir transfer kaynak IBAN için DEBIT, hedef IBAN için CREDIT satırı üretir.
+ */
+@Entity
+@Table(name = "statement_entries",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"iban", "transaction_id"}),
+        indexes = {
+                @Index(name = "idx_statement_entries_iban_id", columnList = "iban, id"),
+                @Index(name = "idx_statement_entries_transaction_id", columnList = "transaction_id")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatementEntry {
+
+    // IDENTITY JDBC batch insert'i engeller; rebuild sırasında satırlar toplu yazılır
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "statement_entries_seq")
+    @SequenceGenerator(name = "statement_entries_seq", sequenceName = "statement_entries_seq", allocationSize = 100)
+    private Long id;
+
+    @Column(nullable = false)
+    private String iban;
+
+    @Column(name = "transaction_id", nullable = false)
+    private String transactionId;
+
+    @Column(nullable = false)
+    private String counterpartyIban;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Direction direction;
+
+    @Column(nullable = false, precision = 38, scale = Money.STORAGE_SCALE)
+    private BigDecimal amount;
+
+    @Column(nullable = false, precision = 38, scale = Money.STORAGE_SCALE)
+    private BigDecimal runningBalance;
+
+    @Column(length = 500)
+    private String description;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+
+    public enum Direction {
+        DEBIT, CREDIT
+    }
+}
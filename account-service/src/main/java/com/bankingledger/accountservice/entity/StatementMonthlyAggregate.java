@@ -0,0 +1,39 @@
+package com.bankingledger.accountservice.entity;
+
+import com.bankingledger.common.money.Money;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Entity
+@Table(name = "statement_monthly_aggregates",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"iban", "month"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatementMonthlyAggregate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String iban;
+
+    @Column(nullable = false, length = 7)
+    private String month; // yyyy-MM
+
+    @Column(nullable = false, precision = 38, scale = Money.STORAGE_SCALE)
+    private BigDecimal totalDebits;
+
+    @Column(nullable = false, precision = 38, scale = Money.STORAGE_SCALE)
+    private BigDecimal totalCredits;
+
+    @Column(nullable = false)
+    private long entryCount;
+}
@@ -0,0 +1,26 @@
+package com.bankingledger.accountservice.event;
+
+import com.bankingledger.common.money.Money;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * transfer-service saga'sından gelen bakiye komutu.
+ * Komut (transactionId, type) çiftine göre idempotent uygulanır.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountCommand {
+    private String transactionId;
+    private CommandType type;
+    private String iban;
+    private Money amount;
+
+    public enum CommandType {
+        DEBIT, CREDIT, REFUND
+    }
+}
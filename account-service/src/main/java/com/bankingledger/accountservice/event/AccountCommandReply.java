@@ -0,0 +1,21 @@
+package com.bankingledger.accountservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bir {@link AccountCommand} sonucunu transfer saga'sına bildiren cevap.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountCommandReply {
+    private String transactionId;
+    private AccountCommand.CommandType type;
+    private boolean success;
+    private String reason;
+    private String accountHolder;
+}
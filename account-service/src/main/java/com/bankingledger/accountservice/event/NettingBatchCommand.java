@@ -0,0 +1,30 @@
+package com.bankingledger.accountservice.event;
+
+import com.bankingledger.common.money.Money;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Bir netting penceresinin hesap başına net pozisyonları.
+ * Tüm girişler tek transaction içinde, hesap başına tek UPDATE ile uygulanır.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NettingBatchCommand {
+    private String batchId;
+    private List<Entry> entries;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private String iban;
+        private Money delta; // negatif: borç, pozitif: alacak
+    }
+}
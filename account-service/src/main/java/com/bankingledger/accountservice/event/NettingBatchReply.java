@@ -0,0 +1,20 @@
+package com.bankingledger.accountservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NettingBatchReply {
+    private String batchId;
+    private boolean success;
+    private String reason;
+    // Başarısız batch'te uygulanamayan hesaplar; sadece bu hesaplara dokunan transferler başarısız olur
+    private List<String> rejectedIbans;
+}
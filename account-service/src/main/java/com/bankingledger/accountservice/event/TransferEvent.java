@@ -0,0 +1,26 @@
+package com.bankingledger.accountservice.event;
+
+import com.bankingledger.common.money.Money;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransferEvent {
+    private String transactionId;
+    private String fromIban;
+    private String toIban;
+    private Money amount;
+    private Money creditAmount; // hedef hesaba yatırılan tutar, çapraz kurda amount'tan farklıdır
+    private String status; // SUCCESS, FAILED
+    private String description;
+    private LocalDateTime timestamp;
+    private String recipientEmail;
+    private String recipientPhone;
+}
@@ -0,0 +1,54 @@
+package com.bankingledger.accountservice.repository;
+
+import com.bankingledger.common.money.Money;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Spring Data ile ifade edilemeyen, JDBC batch olarak gönderilen toplu bakiye güncellemeleri.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AccountBatchRepository {
+
+    private static final String APPLY_DELTA_SQL =
+            "UPDATE accounts SET balance = balance + ?, updated_at = now() " +
+            "WHERE iban = ? AND currency = ? AND balance + ? >= 0 AND status NOT IN ('BLOCKED', 'CLOSED')";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Her IBAN için tek satır günceller. Satırlar IBAN sırasıyla kilitlenir, böylece eşzamanlı
+     * batch'ler deadlock oluşturmaz. Bakiyeyi eksiye düşürecek, para birimi uymayan veya bulunamayan hesaplar için
+     * ilgili sonuç 0 döner; çağıran transaction'ı geri almalıdır.
+     */
+    public int[] applyDeltas(SortedMap<String, Money> deltasByIban) {
+        List<Map.Entry<String, Money>> entries = new ArrayList<>(deltasByIban.entrySet());
+        return jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Map.Entry<String, Money> entry = entries.get(i);
+                BigDecimal delta = entry.getValue().toBigDecimal();
+                ps.setBigDecimal(1, delta);
+                ps.setString(2, entry.getKey());
+                ps.setString(3, entry.getValue().currency());
+                ps.setBigDecimal(4, delta);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return entries.size();
+            }
+        });
+    }
+}
@@ -0,0 +1,237 @@
+package com.bankingledger.accountservice.repository;
+
+import com.bankingledger.common.money.Money;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Currency;
+import java.util.stream.Collectors;
+
+/**
+ * Toplu hesap açılışı: satırlar COPY FROM STDIN ile geçici staging tablosuna akıtılır, doğrulama ve
+ * tekrar kontrolü SQL ile küme bazında yapılır, geçerli satırlar tek INSERT ... ON CONFLICT ile eklenir.
+ *
+ * Tüm adımlar aynı bağlantıda çalışır (staging tablosu session'a özeldir). Hesaplar ve ekstre açılış
+ * bakiyeleri tek transaction'da yazılır; hata raporu commit'ten sonra server-side cursor ile okunur.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class AccountBulkImportRepository {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final int FETCH_SIZE = 10_000;
+
+    private static final String CREATE_STAGING_SQL = """
+            CREATE TEMP TABLE account_import (
+                row_no          BIGINT NOT NULL,
+                iban            TEXT,
+                account_holder  TEXT,
+                initial_balance TEXT,
+                currency        TEXT,
+                error           TEXT
+            ) ON COMMIT PRESERVE ROWS
+            """;
+
+    private static final String COPY_SQL =
+            "COPY account_import (row_no, iban, account_holder, initial_balance, currency, error) FROM STDIN";
+
+    // ISO 4217 para birimleri ve ondalık haneleri (bkz. Money.scaleOf); bakiye hane kontrolü bu listeyle yapılır
+    private static final String CURRENCY_SCALES = Currency.getAvailableCurrencies().stream()
+            .filter(currency -> currency.getDefaultFractionDigits() >= 0
+                    && currency.getDefaultFractionDigits() <= Money.STORAGE_SCALE)
+            .map(currency -> "('" + currency.getCurrencyCode() + "', " + currency.getDefaultFractionDigits() + ")")
+            .sorted()
+            .collect(Collectors.joining(", "));
+
+    private static final String VALIDATE_SQL = """
+            UPDATE account_import s SET error = CASE
+                WHEN i.iban IS NULL OR i.iban !~ '^[A-Z]{2}[0-9]{2}[A-Z0-9]{10,30}$' THEN 'Invalid IBAN'
+                WHEN i.account_holder IS NULL OR btrim(i.account_holder) = '' THEN 'Account holder is required'
+                WHEN length(i.account_holder) > 255 THEN 'Account holder is longer than 255 characters'
+                WHEN i.currency IS NULL OR c.scale IS NULL THEN 'Invalid currency'
+                WHEN i.initial_balance IS NOT NULL AND (i.initial_balance !~ '^[0-9]{1,36}(\\.[0-9]+)?$'
+                        OR length(split_part(i.initial_balance, '.', 2)) > c.scale)
+                    THEN 'Invalid initial balance: must be a non-negative amount with at most ' || c.scale || ' decimals'
+            END
+            FROM account_import i
+            LEFT JOIN (VALUES %s) AS c(code, scale) ON c.code = i.currency
+            WHERE s.row_no = i.row_no AND s.error IS NULL
+            """.formatted(CURRENCY_SCALES);
+
+    private static final String DUPLICATES_SQL = """
+            UPDATE account_import s SET error = 'Duplicate IBAN in file, first seen at row ' || d.first_row
+            FROM (
+                SELECT row_no, min(row_no) OVER (PARTITION BY iban) AS first_row
+                FROM account_import
+                WHERE error IS NULL
+            ) d
+            WHERE s.row_no = d.row_no AND d.row_no <> d.first_row
+            """;
+
+    /**
+     * Mevcut IBAN'lar ON CONFLICT ile atlanır ve staging'de hata olarak işaretlenir.
+     * Yeni hesapların ekstre açılış bakiyesi de aynı statement'ta yazılır (bkz. AccountService.createAccount).
+     */
+    private static final String INSERT_SQL = """
+            WITH inserted AS (
+                INSERT INTO accounts (iban, account_holder, balance, currency, status, created_at, updated_at)
+                SELECT iban, account_holder, COALESCE(initial_balance, '0')::numeric(38,4), currency,
+                       'ACTIVE', now(), now()
+                FROM account_import
+                WHERE error IS NULL
+                ORDER BY iban
+                ON CONFLICT (iban) DO NOTHING
+                RETURNING iban, balance
+            ), opening AS (
+                INSERT INTO statement_balances (iban, balance, opening_balance, updated_at)
+                SELECT iban, balance, balance, now() FROM inserted
+                ON CONFLICT (iban) DO NOTHING
+            )
+            UPDATE account_import s SET error = 'Account with IBAN ' || s.iban || ' already exists'
+            WHERE s.error IS NULL AND NOT EXISTS (SELECT 1 FROM inserted i WHERE i.iban = s.iban)
+            """;
+
+    private static final String COUNTS_SQL =
+            "SELECT count(*), count(*) FILTER (WHERE error IS NULL) FROM account_import";
+
+    private static final String ERRORS_SQL =
+            "SELECT row_no, iban, error FROM account_import WHERE error IS NOT NULL ORDER BY row_no";
+
+    private final DataSource dataSource;
+
+    public void importAccounts(RowSource rows, ReportWriter report) throws IOException {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                stage(connection, rows);
+                long[] counts = resolve(connection);
+                connection.commit();
+                log.info("Bulk import committed: {} rows, {} inserted", counts[0], counts[1]);
+
+                report.summary(counts[0], counts[1], counts[0] - counts[1]);
+                streamErrors(connection, report);
+                connection.commit();
+            } catch (SQLException | IOException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("DROP TABLE IF EXISTS account_import");
+                }
+                connection.commit();
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Bulk import failed: " + e.getMessage(), e);
+        }
+    }
+
+    private void stage(Connection connection, RowSource rows) throws SQLException, IOException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS account_import");
+            statement.execute(CREATE_STAGING_SQL);
+        }
+
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new PGCopyOutputStream(pgConnection, COPY_SQL, COPY_BUFFER_SIZE), StandardCharsets.UTF_8),
+                COPY_BUFFER_SIZE)) {
+            rows.writeTo(new StagingWriter(writer));
+        }
+
+        // Geçici tablolar autovacuum tarafından analiz edilmez; planner'a satır sayısını bildir
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE account_import");
+        }
+    }
+
+    private long[] resolve(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(VALIDATE_SQL);
+            statement.executeUpdate(DUPLICATES_SQL);
+            statement.executeUpdate(INSERT_SQL);
+            try (ResultSet rs = statement.executeQuery(COUNTS_SQL)) {
+                rs.next();
+                return new long[]{rs.getLong(1), rs.getLong(2)};
+            }
+        }
+    }
+
+    private void streamErrors(Connection connection, ReportWriter report) throws SQLException, IOException {
+        try (PreparedStatement statement = connection.prepareStatement(ERRORS_SQL)) {
+            statement.setFetchSize(FETCH_SIZE);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    report.error(rs.getLong(1), rs.getString(2), rs.getString(3));
+                }
+            }
+        }
+    }
+
+    public interface RowSource {
+        void writeTo(StagingWriter writer) throws IOException;
+    }
+
+    public interface ReportWriter {
+        void summary(long totalRows, long inserted, long rejected) throws IOException;
+
+        void error(long row, String iban, String error) throws IOException;
+    }
+
+    /**
+     * COPY text formatında satır yazar: alanlar TAB ile ayrılır, null {@code \N} olarak yazılır.
+     */
+    public static final class StagingWriter {
+
+        private final Writer writer;
+
+        StagingWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        public void row(long rowNo, String iban, String accountHolder, String initialBalance,
+                        String currency, String error) throws IOException {
+            writer.write(Long.toString(rowNo));
+            field(iban);
+            field(accountHolder);
+            field(initialBalance);
+            field(currency);
+            field(error);
+            writer.write('\n');
+        }
+
+        private void field(String value) throws IOException {
+            writer.write('\t');
+            if (value == null) {
+                writer.write("\\N");
+                return;
+            }
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '\\' -> writer.write("\\\\");
+                    case '\t' -> writer.write("\\t");
+                    case '\n' -> writer.write("\\n");
+                    case '\r' -> writer.write("\\r");
+                    default -> writer.write(c);
+                }
+            }
+        }
+    }
+}
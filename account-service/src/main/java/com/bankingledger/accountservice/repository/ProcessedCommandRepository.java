@@ -0,0 +1,33 @@
+package com.bankingledger.accountservice.repository;
+
+import com.bankingledger.accountservice.entity.ProcessedCommand;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ProcessedCommandRepository extends JpaRepository<ProcessedCommand, String> {
+
+    /**
+     * Komut kaydını sadece ekler; save() atanmış ID'li entity'yi merge ettiği için eşzamanlı bir tekrarı
+     * reddetmez. Aynı komutu işleyen başka bir transaction varsa onun bitmesi beklenir.
+     *
+     * @return 0 ise komut başka bir transaction tarafından kaydedilmiştir
+     */
+    @Modifying
+    @Query(value = "INSERT INTO processed_account_commands "
+            + "(command_id, success, reason, account_holder, rejected_ibans, processed_at) "
+            + "VALUES (:commandId, :success, CAST(:reason AS VARCHAR), CAST(:accountHolder AS VARCHAR), "
+            + "CAST(:rejectedIbans AS TEXT), :processedAt) "
+            + "ON CONFLICT (command_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("commandId") String commandId,
+                       @Param("success") boolean success,
+                       @Param("reason") String reason,
+                       @Param("accountHolder") String accountHolder,
+                       @Param("rejectedIbans") String rejectedIbans,
+                       @Param("processedAt") LocalDateTime processedAt);
+}
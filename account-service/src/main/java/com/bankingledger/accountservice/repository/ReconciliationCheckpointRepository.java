@@ -0,0 +1,12 @@
+package com.bankingledger.accountservice.repository;
+
+import com.bankingledger.accountservice.entity.ReconciliationCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ReconciliationCheckpointRepository extends JpaRepository<ReconciliationCheckpoint, Long> {
+    List<ReconciliationCheckpoint> findByRunId(Long runId);
+}
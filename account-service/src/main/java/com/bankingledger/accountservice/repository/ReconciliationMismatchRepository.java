@@ -0,0 +1,13 @@
+package com.bankingledger.accountservice.repository;
+
+import com.bankingledger.accountservice.entity.ReconciliationMismatch;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ReconciliationMismatchRepository extends JpaRepository<ReconciliationMismatch, Long> {
+    List<ReconciliationMismatch> findByRunIdOrderByIban(Long runId, Pageable pageable);
+}
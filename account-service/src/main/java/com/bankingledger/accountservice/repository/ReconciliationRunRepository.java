@@ -0,0 +1,13 @@
+package com.bankingledger.accountservice.repository;
+
+import com.bankingledger.accountservice.entity.ReconciliationRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface ReconciliationRunRepository extends JpaRepository<ReconciliationRun, Long> {
+    Optional<ReconciliationRun> findFirstByStatusInOrderByIdDesc(Collection<ReconciliationRun.RunStatus> statuses);
+}
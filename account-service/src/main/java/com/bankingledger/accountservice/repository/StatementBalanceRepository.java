@@ -0,0 +1,33 @@
+package com.bankingledger.accountservice.repository;
+
+import com.bankingledger.accountservice.entity.StatementBalance;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StatementBalanceRepository extends JpaRepository<StatementBalance, String> {
+
+    @Modifying
+    @Query(value = "INSERT INTO statement_balances (iban, balance, opening_balance, updated_at) " +
+            "VALUES (:iban, 0, 0, now()) ON CONFLICT (iban) DO NOTHING", nativeQuery = true)
+    void insertIfAbsent(@Param("iban") String iban);
+
+    /**
+     * Satırları IBAN sırasıyla kilitler; eşzamanlı batch'ler deadlock oluşturmaz.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from StatementBalance b where b.iban in :ibans order by b.iban")
+    List<StatementBalance> lockByIbans(@Param("ibans") Collection<String> ibans);
+
+    @Modifying
+    @Query("update StatementBalance b set b.balance = b.openingBalance")
+    int resetToOpeningBalances();
+}
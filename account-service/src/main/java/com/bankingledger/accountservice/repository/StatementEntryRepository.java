@@ -0,0 +1,20 @@
+package com.bankingledger.accountservice.repository;
+
+import com.bankingledger.accountservice.entity.StatementEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StatementEntryRepository extends JpaRepository<StatementEntry, Long> {
+
+    List<StatementEntry> findByIbanOrderByIdDesc(String iban, Pageable pageable);
+
+    @Query("select distinct e.transactionId from StatementEntry e where e.transactionId in :transactionIds")
+    List<String> findProjectedTransactionIds(@Param("transactionIds") Collection<String> transactionIds);
+}
@@ -0,0 +1,16 @@
+package com.bankingledger.accountservice.repository;
+
+import com.bankingledger.accountservice.entity.StatementMonthlyAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StatementMonthlyAggregateRepository extends JpaRepository<StatementMonthlyAggregate, Long> {
+
+    List<StatementMonthlyAggregate> findByIbanInAndMonthIn(Collection<String> ibans, Collection<String> months);
+
+    List<StatementMonthlyAggregate> findByIbanOrderByMonthDesc(String iban);
+}
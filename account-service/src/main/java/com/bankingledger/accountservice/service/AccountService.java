@@ -3,14 +3,30 @@ package com.bankingledger.accountservice.service;
 import com.bankingledger.accountservice.dto.AccountResponse;
 import com.bankingledger.accountservice.dto.CreateAccountRequest;
 import com.bankingledger.accountservice.entity.Account;
+import com.bankingledger.accountservice.entity.ProcessedCommand;
+import com.bankingledger.accountservice.entity.StatementBalance;
+import com.bankingledger.accountservice.event.AccountCommand;
+import com.bankingledger.accountservice.event.AccountCommandReply;
+import com.bankingledger.accountservice.event.NettingBatchCommand;
+import com.bankingledger.accountservice.event.NettingBatchReply;
+import com.bankingledger.accountservice.repository.AccountBatchRepository;
 import com.bankingledger.accountservice.repository.AccountRepository;
+import com.bankingledger.accountservice.repository.ProcessedCommandRepository;
+import com.bankingledger.accountservice.repository.StatementBalanceRepository;
+import com.bankingledger.common.money.Money;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 @Service
 @RequiredArgsConstructor
@@ -19,6 +35,9 @@ import java.util.List;
 public class AccountService {
 
     private final AccountRepository accountRepository;
+    private final ProcessedCommandRepository processedCommandRepository;
+    private final AccountBatchRepository accountBatchRepository;
+    private final StatementBalanceRepository statementBalanceRepository;
 
     public AccountResponse createAccount(CreateAccountRequest request) {
         log.info("Creating new account for IBAN: {}", request.getIban());
@@ -30,16 +49,25 @@ public class AccountService {
         Account account = Account.builder()
                 .iban(request.getIban())
                 .accountHolder(request.getAccountHolder())
-                .balance(request.getInitialBalance() != null ? request.getInitialBalance() : BigDecimal.ZERO)
-                .currency(request.getCurrency())
+                .balance(request.getInitialBalance() != null
+                        ? Money.of(request.getInitialBalance(), request.getCurrency())
+                        : Money.zero(request.getCurrency()))
                 .build();
 
         Account savedAccount = accountRepository.save(account);
         log.info("Account created successfully with ID: {}", savedAccount.getId());
 
+        // Ekstre projeksiyonu yürüyen bakiyeyi açılış bakiyesinden başlatır
+        statementBalanceRepository.save(StatementBalance.builder()
+                .iban(savedAccount.getIban())
+                .balance(savedAccount.getBalance().toBigDecimal())
+                .openingBalance(savedAccount.getBalance().toBigDecimal())
+                .build());
+
         return AccountResponse.fromEntity(savedAccount);
     }
 
+    @Transactional(readOnly = true)
     public AccountResponse getAccount(String iban) {
         log.debug("Fetching account for IBAN: {}", iban);
         Account account = accountRepository.findByIban(iban)
@@ -47,6 +75,7 @@ public class AccountService {
         return AccountResponse.fromEntity(account);
     }
 
+    @Transactional(readOnly = true)
     public AccountResponse getAccountById(Long id) {
         log.debug("Fetching account for ID: {}", id);
         Account account = accountRepository.findById(id)
@@ -54,6 +83,7 @@ public class AccountService {
         return AccountResponse.fromEntity(account);
     }
 
+    @Transactional(readOnly = true)
     public List<AccountResponse> getAllAccounts() {
         return accountRepository.findAll().stream()
                 .map(AccountResponse::fromEntity)
@@ -64,34 +94,231 @@ public class AccountService {
      * KRITIK: Hesaptan para çekme (Transfer için)
      * Bu metod transaction içinde çalışmalı
      */
-    public void debitAccount(String iban, BigDecimal amount) {
+    public Account debitAccount(String iban, Money amount) {
         log.info("Debiting amount {} from account {}", amount, iban);
+        requirePositive(amount);
 
-        Account account = accountRepository.findByIban(iban)
+        Account account = accountRepository.findByIbanForUpdate(iban)
                 .orElseThrow(() -> new RuntimeException("Account not found with IBAN: " + iban));
+        requireOpen(account);
 
-        if (account.getBalance().compareTo(amount) < 0) {
+        // Farklı para birimi IllegalArgumentException ile reddedilir
+        if (account.getBalance().isLessThan(amount)) {
             throw new IllegalArgumentException("Insufficient balance. Current balance: " + account.getBalance());
         }
 
-        account.setBalance(account.getBalance().subtract(amount));
-        accountRepository.save(account);
+        account.setBalance(account.getBalance().minus(amount));
+        Account savedAccount = accountRepository.save(account);
         log.info("Amount debited successfully from {}", iban);
+        return savedAccount;
     }
 
     /**
      * KRITIK: Hesaba para yatırma (Transfer için)
      * Bu metod transaction içinde çalışmalı
      */
-    public void creditAccount(String iban, BigDecimal amount) {
+    public Account creditAccount(String iban, Money amount) {
+        return credit(iban, amount, true);
+    }
+
+    /**
+     * Saga telafisi: çekilmiş tutarı kaynak hesaba geri yatırır. Hesap bu arada bloke veya kapatılmış olsa da
+     * uygulanır; aksi halde para iki hesapta da görünmez.
+     */
+    public Account refundAccount(String iban, Money amount) {
+        return credit(iban, amount, false);
+    }
+
+    private Account credit(String iban, Money amount, boolean requireOpen) {
         log.info("Crediting amount {} to account {}", amount, iban);
+        requirePositive(amount);
 
-        Account account = accountRepository.findByIban(iban)
+        Account account = accountRepository.findByIbanForUpdate(iban)
                 .orElseThrow(() -> new RuntimeException("Account not found with IBAN: " + iban));
+        if (requireOpen) {
+            requireOpen(account);
+        }
 
-        account.setBalance(account.getBalance().add(amount));
-        accountRepository.save(account);
+        account.setBalance(account.getBalance().plus(amount));
+        Account savedAccount = accountRepository.save(account);
         log.info("Amount credited successfully to {}", iban);
+        return savedAccount;
+    }
+
+    private static void requireOpen(Account account) {
+        if (account.getStatus() == Account.AccountStatus.BLOCKED
+                || account.getStatus() == Account.AccountStatus.CLOSED) {
+            throw new IllegalStateException("Account " + account.getIban() + " is " + account.getStatus());
+        }
+    }
+
+    /**
+     * Negatif tutarlı DEBIT hesaba para yatırır, CREDIT ise bakiye kontrolü olmadan para çeker.
+     */
+    private static void requirePositive(Money amount) {
+        if (amount == null || !amount.isPositive()) {
+            throw new IllegalArgumentException("Amount must be positive: " + amount);
+        }
+    }
+
+    /**
+     * KRITIK: Transfer saga komutunu uygula
+     *
+     * Bakiye değişikliği ve komut kaydı aynı transaction içinde yazılır; böylece aynı komut
+     * tekrar gelirse (Kafka redelivery veya saga timeout'u) bakiye ikinci kez değişmez. Kayıt sadece eklenir:
+     * aynı komutu eşzamanlı işleyen ikinci transaction primary key'e takılır, {@link DuplicateKeyException} ile
+     * bakiye değişikliği dahil geri alınır ve cevap {@link #replayCommand} ile kayıttan verilir.
+     * İş kuralı hataları (yetersiz bakiye, hesap yok, hesap bloke/kapalı) exception değil başarısız cevap olarak
+     * döner. Veritabanı hataları fırlatılır ve kaydedilmez.
+     */
+    public AccountCommandReply applyCommand(AccountCommand command) {
+        String commandId = command.getTransactionId() + ":" + command.getType();
+
+        var processed = processedCommandRepository.findById(commandId);
+        if (processed.isPresent()) {
+            log.info("Command {} already processed, replaying result", commandId);
+            return toReply(command, processed.get());
+        }
+
+        ProcessedCommand result;
+        try {
+            Account account = switch (command.getType()) {
+                case DEBIT -> debitAccount(command.getIban(), command.getAmount());
+                case CREDIT -> creditAccount(command.getIban(), command.getAmount());
+                // İade, zaten çekilmiş parayı geri koyar; hesap sonradan bloke edilmiş olsa da reddedilmez
+                case REFUND -> refundAccount(command.getIban(), command.getAmount());
+            };
+            result = ProcessedCommand.builder()
+                    .commandId(commandId)
+                    .success(true)
+                    .accountHolder(account.getAccountHolder())
+                    .build();
+        } catch (DataAccessException | TransactionException e) {
+            // Geçici DB/lock hatası kalıcı ret olarak kaydedilmez; Kafka komutu tekrar teslim eder
+            throw e;
+        } catch (RuntimeException e) {
+            log.warn("Command {} rejected: {}", commandId, e.getMessage());
+            result = ProcessedCommand.builder()
+                    .commandId(commandId)
+                    .success(false)
+                    .reason(e.getMessage())
+                    .build();
+        }
+
+        return toReply(command, record(result));
+    }
+
+    /**
+     * Eşzamanlı işlenip kaydedilmiş komutun sonucunu döner.
+     */
+    public AccountCommandReply replayCommand(AccountCommand command) {
+        String commandId = command.getTransactionId() + ":" + command.getType();
+        return toReply(command, processedCommandRepository.findById(commandId)
+                .orElseThrow(() -> new IllegalStateException("Command " + commandId + " is not recorded")));
+    }
+
+    /**
+     * KRITIK: Netting batch'ini uygula
+     *
+     * Hesap başına tek UPDATE ile net pozisyonlar JDBC batch olarak yazılır. Herhangi bir hesap
+     * eksiye düşecekse veya bulunamazsa {@link NettingBatchRejectedException} fırlatılır ve tüm batch geri alınır;
+     * exception uygulanamayan tüm IBAN'ları taşır.
+     */
+    public NettingBatchReply applyNettingBatch(NettingBatchCommand command) {
+        String commandId = command.getBatchId() + ":NET";
+
+        var processed = processedCommandRepository.findById(commandId);
+        if (processed.isPresent()) {
+            log.info("Netting batch {} already processed, replaying result", command.getBatchId());
+            return toNettingReply(command, processed.get());
+        }
+
+        SortedMap<String, Money> deltas = new TreeMap<>();
+        for (NettingBatchCommand.Entry entry : command.getEntries()) {
+            deltas.merge(entry.getIban(), entry.getDelta(), Money::plus);
+        }
+
+        int[] updated = accountBatchRepository.applyDeltas(deltas);
+        List<String> rejected = new ArrayList<>();
+        int i = 0;
+        for (String iban : deltas.keySet()) {
+            if (updated[i++] == 0) {
+                rejected.add(iban);
+            }
+        }
+        if (!rejected.isEmpty()) {
+            // Tüm reddedilen hesaplar tek seferde bildirilir; transfer-service kalan transferleri tekrar settle eder
+            throw new NettingBatchRejectedException("Netting batch rejected for accounts " + rejected
+                    + ": account not found, blocked/closed, currency mismatch or insufficient balance", rejected);
+        }
+
+        log.info("Netting batch {} applied with {} row updates", command.getBatchId(), deltas.size());
+        ProcessedCommand result = ProcessedCommand.builder()
+                .commandId(commandId)
+                .success(true)
+                .build();
+        return toNettingReply(command, record(result));
+    }
+
+    /**
+     * Eşzamanlı işlenip kaydedilmiş batch'in sonucunu döner.
+     */
+    public NettingBatchReply replayNettingBatch(NettingBatchCommand command) {
+        String commandId = command.getBatchId() + ":NET";
+        return toNettingReply(command, processedCommandRepository.findById(commandId)
+                .orElseThrow(() -> new IllegalStateException("Netting batch " + commandId + " is not recorded")));
+    }
+
+    /**
+     * Reddedilen batch sonucunu kaydeder; aynı batch tekrar geldiğinde yeniden denenmez.
+     *
+     * @param rejectedIbans batch'i reddettiren hesaplar; bilinmiyorsa boş (tüm batch başarısız sayılır)
+     */
+    public NettingBatchReply rejectNettingBatch(NettingBatchCommand command, String reason, List<String> rejectedIbans) {
+        log.warn("Netting batch {} rejected: {}", command.getBatchId(), reason);
+        ProcessedCommand result = ProcessedCommand.builder()
+                .commandId(command.getBatchId() + ":NET")
+                .success(false)
+                .reason(reason)
+                .rejectedIbans(rejectedIbans.isEmpty() ? null : String.join(",", rejectedIbans))
+                .build();
+        return toNettingReply(command, record(result));
+    }
+
+    /**
+     * Komut kaydını insert ile yazar (save() merge eder ve eşzamanlı tekrarı fark etmez). Kayıt zaten varsa
+     * transaction'ın geri alınması için {@link DuplicateKeyException} fırlatılır.
+     */
+    private ProcessedCommand record(ProcessedCommand result) {
+        LocalDateTime now = LocalDateTime.now();
+        int inserted = processedCommandRepository.insertIfAbsent(result.getCommandId(), result.isSuccess(),
+                result.getReason(), result.getAccountHolder(), result.getRejectedIbans(), now);
+        if (inserted == 0) {
+            throw new DuplicateKeyException("Command " + result.getCommandId() + " was processed concurrently");
+        }
+        result.setProcessedAt(now);
+        return result;
+    }
+
+    private NettingBatchReply toNettingReply(NettingBatchCommand command, ProcessedCommand processed) {
+        return NettingBatchReply.builder()
+                .batchId(command.getBatchId())
+                .success(processed.isSuccess())
+                .reason(processed.getReason())
+                .rejectedIbans(processed.getRejectedIbans() == null
+                        ? List.of()
+                        : List.of(processed.getRejectedIbans().split(",")))
+                .build();
+    }
+
+    private AccountCommandReply toReply(AccountCommand command, ProcessedCommand processed) {
+        return AccountCommandReply.builder()
+                .transactionId(command.getTransactionId())
+                .type(command.getType())
+                .success(processed.isSuccess())
+                .reason(processed.getReason())
+                .accountHolder(processed.getAccountHolder())
+                .build();
     }
 
     public void updateAccountStatus(String iban, Account.AccountStatus status) {
@@ -0,0 +1,226 @@
+package com.bankingledger.accountservice.service;
+
+import com.bankingledger.accountservice.repository.AccountBulkImportRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * CSV veya NDJSON gövdeyi satır satır okuyup {@link AccountBulkImportRepository} ile COPY üzerinden yükler
+ * ve satır bazlı hata raporunu JSON olarak yazar. Ne girdi ne rapor belleğe alınır.
+ *
+ * Satır numarası dosyadaki fiziksel satırdır (CSV'de başlık 1. satırdır). Satır ayrıştırılamazsa
+ * staging'e hata ile yazılır; asıl doğrulama SQL tarafında yapılır.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkAccountImportService {
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private final AccountBulkImportRepository bulkImportRepository;
+    private final ObjectMapper objectMapper;
+
+    public void importAccounts(Format format, InputStream body, OutputStream out) throws IOException {
+        log.info("Starting bulk account import ({})", format);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        AccountBulkImportRepository.RowSource rows = format == Format.CSV
+                ? writer -> stageCsv(reader, writer)
+                : writer -> stageNdjson(reader, writer);
+
+        // Hata durumunda yarım rapor geçerli JSON gibi kapatılmamalı ve response stream'i hata cevabı için açık kalmalı
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT)) {
+            bulkImportRepository.importAccounts(rows, new AccountBulkImportRepository.ReportWriter() {
+                @Override
+                public void summary(long totalRows, long inserted, long rejected) throws IOException {
+                    json.writeStartObject();
+                    json.writeNumberField("totalRows", totalRows);
+                    json.writeNumberField("inserted", inserted);
+                    json.writeNumberField("rejected", rejected);
+                    json.writeArrayFieldStart("errors");
+                }
+
+                @Override
+                public void error(long row, String iban, String error) throws IOException {
+                    json.writeStartObject();
+                    json.writeNumberField("row", row);
+                    json.writeStringField("iban", iban);
+                    json.writeStringField("error", error);
+                    json.writeEndObject();
+                }
+            });
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    private void stageCsv(BufferedReader reader, AccountBulkImportRepository.StagingWriter writer) throws IOException {
+        String header = reader.readLine();
+        if (header == null) {
+            return;
+        }
+        if (!header.isEmpty() && header.charAt(0) == '\uFEFF') {
+            header = header.substring(1);
+        }
+        CsvColumns columns = CsvColumns.of(parseCsvLine(header));
+
+        long rowNo = 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            rowNo++;
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields = parseCsvLine(line);
+            if (fields == null) {
+                writer.row(rowNo, null, null, null, null, "Malformed CSV line: unbalanced quotes");
+            } else if (fields.size() != columns.count) {
+                writer.row(rowNo, null, null, null, null,
+                        "Expected " + columns.count + " columns but found " + fields.size());
+            } else {
+                writer.row(rowNo,
+                        normalize(fields.get(columns.iban)),
+                        emptyToNull(fields.get(columns.accountHolder)),
+                        columns.initialBalance >= 0 ? emptyToNull(fields.get(columns.initialBalance).trim()) : null,
+                        normalize(fields.get(columns.currency)),
+                        null);
+            }
+        }
+    }
+
+    private void stageNdjson(BufferedReader reader, AccountBulkImportRepository.StagingWriter writer) throws IOException {
+        ObjectReader lineReader = objectMapper.reader().with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        long rowNo = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            rowNo++;
+            if (line.isBlank()) {
+                continue;
+            }
+            JsonNode node;
+            try {
+                node = lineReader.readTree(line);
+            } catch (JsonProcessingException e) {
+                writer.row(rowNo, null, null, null, null, "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            if (!node.isObject()) {
+                writer.row(rowNo, null, null, null, null, "Expected a JSON object");
+                continue;
+            }
+            JsonNode balance = node.get("initialBalance");
+            writer.row(rowNo,
+                    normalize(text(node.get("iban"))),
+                    emptyToNull(text(node.get("accountHolder"))),
+                    balance != null && balance.isNumber()
+                            ? balance.decimalValue().toPlainString()
+                            : emptyToNull(text(balance)),
+                    normalize(text(node.get("currency"))),
+                    null);
+        }
+    }
+
+    /**
+     * RFC 4180 alanlarını ayrıştırır (tırnak içinde virgül ve "" desteklenir; alan içinde satır sonu desteklenmez).
+     *
+     * @return tırnaklar kapanmamışsa null
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String text(JsonNode node) {
+        return node == null || node.isNull() ? null : node.asText();
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isBlank()
+                ? null
+                : value.replace(" ", "").toUpperCase(Locale.ROOT);
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    /**
+     * Başlık satırındaki kolon sırası; hem snake_case hem camelCase isimler kabul edilir.
+     */
+    private record CsvColumns(int count, int iban, int accountHolder, int initialBalance, int currency) {
+
+        static CsvColumns of(List<String> header) {
+            if (header == null) {
+                throw new IllegalArgumentException("Malformed CSV header");
+            }
+            int iban = -1;
+            int accountHolder = -1;
+            int initialBalance = -1;
+            int currency = -1;
+            for (int i = 0; i < header.size(); i++) {
+                switch (header.get(i).trim().toLowerCase(Locale.ROOT).replace("_", "")) {
+                    case "iban" -> iban = i;
+                    case "accountholder" -> accountHolder = i;
+                    case "initialbalance" -> initialBalance = i;
+                    case "currency" -> currency = i;
+                    default -> { }
+                }
+            }
+            if (iban < 0 || accountHolder < 0 || currency < 0) {
+                throw new IllegalArgumentException(
+                        "CSV header must contain iban, account_holder and currency columns (initial_balance is optional)");
+            }
+            return new CsvColumns(header.size(), iban, accountHolder, initialBalance, currency);
+        }
+    }
+}
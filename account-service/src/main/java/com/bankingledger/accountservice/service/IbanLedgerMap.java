@@ -0,0 +1,114 @@
+package com.bankingledger.accountservice.service;
+
+/**
+ * Reconciliation için IBAN başına net akış (10^-4 birim), belirsiz transfer sayısı ve
+ * "hesabı görüldü" işaretini tutan open addressing map.
+ *
+ * Milyonlarca IBAN için Long/Integer boxing ve Map.Entry nesnesi üretmez. Thread-safe değildir;
+ * her bucket kendi örneğini kullanır.
+ */
+final class IbanLedgerMap {
+
+    interface Visitor {
+        void accept(String iban, long netMinor, int inFlight);
+    }
+
+    private String[] keys;
+    private long[] net;
+    private int[] inFlight;
+    private boolean[] visited;
+    private int size;
+    private int mask;
+
+    IbanLedgerMap(int expectedKeys) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedKeys * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    void add(String iban, long deltaMinor, int inFlightTransfers) {
+        int slot = insert(iban);
+        net[slot] = Math.addExact(net[slot], deltaMinor);
+        inFlight[slot] += inFlightTransfers;
+    }
+
+    /**
+     * IBAN'ı görüldü olarak işaretler ve slot'unu döner; IBAN'ın hiç transferi yoksa -1.
+     */
+    int visit(String iban) {
+        int slot = find(iban);
+        if (keys[slot] == null) {
+            return -1;
+        }
+        visited[slot] = true;
+        return slot;
+    }
+
+    long netAt(int slot) {
+        return net[slot];
+    }
+
+    int inFlightAt(int slot) {
+        return inFlight[slot];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Transferi olup accounts tablosunda karşılığı bulunmayan IBAN'lar.
+     */
+    void forEachUnvisited(Visitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null && !visited[i]) {
+                visitor.accept(keys[i], net[i], inFlight[i]);
+            }
+        }
+    }
+
+    private int insert(String iban) {
+        int slot = find(iban);
+        if (keys[slot] == null) {
+            keys[slot] = iban;
+            if (++size * 2 > keys.length) {
+                grow();
+                slot = find(iban);
+            }
+        }
+        return slot;
+    }
+
+    private int find(String iban) {
+        int h = iban.hashCode();
+        int slot = (h ^ (h >>> 16)) & mask;
+        while (keys[slot] != null && !keys[slot].equals(iban)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void allocate(int capacity) {
+        keys = new String[capacity];
+        net = new long[capacity];
+        inFlight = new int[capacity];
+        visited = new boolean[capacity];
+        mask = capacity - 1;
+    }
+
+    private void grow() {
+        String[] oldKeys = keys;
+        long[] oldNet = net;
+        int[] oldInFlight = inFlight;
+        boolean[] oldVisited = visited;
+        allocate(oldKeys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                net[slot] = oldNet[i];
+                inFlight[slot] = oldInFlight[i];
+                visited[slot] = oldVisited[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,391 @@
+package com.bankingledger.accountservice.service;
+
+import com.bankingledger.accountservice.dto.ReconciliationReport;
+import com.bankingledger.accountservice.entity.ReconciliationCheckpoint;
+import com.bankingledger.accountservice.entity.ReconciliationMismatch;
+import com.bankingledger.accountservice.entity.ReconciliationRun;
+import com.bankingledger.accountservice.repository.ReconciliationCheckpointRepository;
+import com.bankingledger.accountservice.repository.ReconciliationMismatchRepository;
+import com.bankingledger.accountservice.repository.ReconciliationRunRepository;
+import com.bankingledger.common.money.Money;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * accounts.balance ile transfers geçmişini karşılaştıran paralel, streaming reconciliation.
+ *
+ * transfers tablosu run başında tek sefer taranır: bacaklar veritabanında IBAN'a göre toplanır ve
+ * sonuç hashtext(iban) ile {@code buckets} parçaya bölünmüş primitive map'lere akıtılır. Bu taramanın
+ * REPEATABLE READ snapshot'ı export edilir; her bucket bir fork-join görevinde aynı snapshot'ı import edip
+ * kendi hesaplarını server-side cursor ile okur, böylece toplamlar ve bakiyeler tutarlıdır.
+ *
+ * Retention süresini aşıp arşivlenen partition'ların akışları transfer_archive_totals'tan eklenir;
+ * beklenen bakiye = açılış bakiyesi + arşivlenmiş net akış + aktif partition'lardaki net akış.
+ *
+ * Tamamlanan her bucket farkları ile birlikte checkpoint olarak yazılır; yarıda kalan run
+ * tekrar başlatıldığında sadece eksik bucket'lar için toplam tutulur ve hesaplar taranır.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerReconciliationService {
+
+    private static final int FETCH_SIZE = 10_000;
+    private static final int MAX_REPORTED_MISMATCHES = 1000;
+
+    /**
+     * Borç bacağı amount, alacak bacağı (çapraz kurda) credit_amount ile sayılır.
+     * Kesinleşmiş bacaklar net akışa, sonucu belirsiz bacaklar in_flight sayacına yazılır:
+     * SUCCESS: iki bacak da uygulanmış; DEBITED/COMPENSATING: borç uygulanmış, alacak/iade belirsiz;
+     * PENDING: borç belirsiz; SETTLING: netting batch'i belirsiz.
+     * Her transfer tek seq scan ile iki bacağa açılır; arşiv toplamları ayrı satırlar olarak eklenir.
+     * Tutarlar para biriminin ondalık hanesinden bağımsız olarak kolon ölçeğinde (10^-4, bkz.
+     * {@link Money#STORAGE_SCALE}) tam sayıya çevrilir.
+     */
+    private static final String LEDGER_SQL = """
+            SELECT iban, mod(hashtext(iban) & 2147483647, ?) AS bucket,
+                   sum(net_minor)::bigint AS net_minor, sum(in_flight)::int AS in_flight, sum(legs)::bigint AS legs
+            FROM (
+                SELECT leg.iban, leg.net_minor, leg.in_flight, 1 AS legs
+                FROM transfers t
+                CROSS JOIN LATERAL (VALUES
+                    (t.from_iban,
+                     CASE WHEN t.status IN ('SUCCESS', 'DEBITED', 'COMPENSATING') THEN -(t.amount * 10000)::bigint ELSE 0 END,
+                     CASE WHEN t.status IN ('COMPENSATING', 'PENDING', 'SETTLING') THEN 1 ELSE 0 END),
+                    (t.to_iban,
+                     CASE WHEN t.status = 'SUCCESS' THEN (COALESCE(t.credit_amount, t.amount) * 10000)::bigint ELSE 0 END,
+                     CASE WHEN t.status IN ('DEBITED', 'SETTLING') THEN 1 ELSE 0 END)
+                ) AS leg(iban, net_minor, in_flight)
+                WHERE t.status IN ('SUCCESS', 'DEBITED', 'COMPENSATING', 'PENDING', 'SETTLING')
+                UNION ALL
+                SELECT iban, (COALESCE(net_amount, net_minor / 100.0) * 10000)::bigint, 0, 0 FROM transfer_archive_totals
+            ) legs
+            GROUP BY iban
+            """;
+
+    private static final String ACCOUNTS_SQL = """
+            SELECT a.iban, (a.balance * 10000)::bigint AS balance_minor,
+                   (COALESCE(s.opening_balance, 0) * 10000)::bigint AS opening_minor,
+                   s.iban IS NOT NULL AS opening_known
+            FROM accounts a
+            LEFT JOIN statement_balances s ON s.iban = a.iban
+            WHERE mod(hashtext(a.iban) & 2147483647, ?) = ?
+            """;
+
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+    private final ReconciliationRunRepository runRepository;
+    private final ReconciliationCheckpointRepository checkpointRepository;
+    private final ReconciliationMismatchRepository mismatchRepository;
+
+    @Value("${reconciliation.buckets:16}")
+    private int bucketCount;
+
+    @Value("${reconciliation.parallelism:8}")
+    private int parallelism;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * Yarıda kalmış son run'ı devam ettirir, yoksa yeni run başlatır. Run arka planda çalışır.
+     *
+     * @return başlatılan/devam ettirilen run, başka bir run zaten çalışıyorsa null
+     */
+    public ReconciliationRun startOrResume() {
+        if (!running.compareAndSet(false, true)) {
+            return null;
+        }
+
+        ReconciliationRun run;
+        try {
+            run = runRepository
+                    .findFirstByStatusInOrderByIdDesc(EnumSet.of(ReconciliationRun.RunStatus.RUNNING,
+                            ReconciliationRun.RunStatus.FAILED))
+                    .orElseGet(() -> runRepository.save(ReconciliationRun.builder()
+                            .bucketCount(bucketCount)
+                            .status(ReconciliationRun.RunStatus.RUNNING)
+                            .build()));
+            run.setStatus(ReconciliationRun.RunStatus.RUNNING);
+            run = runRepository.save(run);
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+
+        ReconciliationRun started = run;
+        Thread.ofPlatform().name("ledger-reconciliation-" + run.getId()).start(() -> {
+            try {
+                execute(started);
+            } finally {
+                running.set(false);
+            }
+        });
+        return run;
+    }
+
+    public ReconciliationReport getReport(Long runId) {
+        ReconciliationRun run = runRepository.findById(runId)
+                .orElseThrow(() -> new RuntimeException("Reconciliation run not found with ID: " + runId));
+        List<ReconciliationCheckpoint> checkpoints = checkpointRepository.findByRunId(runId);
+
+        // Run devam ederken sayaçlar checkpoint'lerden toplanır
+        long transfers = 0;
+        long accounts = 0;
+        long mismatches = 0;
+        for (ReconciliationCheckpoint checkpoint : checkpoints) {
+            transfers += checkpoint.getTransfersScanned();
+            accounts += checkpoint.getAccountsChecked();
+            mismatches += checkpoint.getMismatchCount();
+        }
+
+        return ReconciliationReport.builder()
+                .runId(run.getId())
+                .status(run.getStatus().toString())
+                .bucketCount(run.getBucketCount())
+                .bucketsCompleted(checkpoints.size())
+                .transfersScanned(transfers)
+                .accountsChecked(accounts)
+                .mismatchCount(mismatches)
+                .startedAt(run.getStartedAt())
+                .finishedAt(run.getFinishedAt())
+                .mismatches(mismatchRepository
+                        .findByRunIdOrderByIban(runId, PageRequest.of(0, MAX_REPORTED_MISMATCHES))
+                        .stream()
+                        .map(m -> ReconciliationReport.Mismatch.builder()
+                                .iban(m.getIban())
+                                .expectedBalance(m.getExpectedBalance())
+                                .actualBalance(m.getActualBalance())
+                                .inFlightTransfers(m.getInFlightTransfers())
+                                .openingBalanceKnown(m.isOpeningBalanceKnown())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    private void execute(ReconciliationRun run) {
+        long started = System.currentTimeMillis();
+        int buckets = run.getBucketCount();
+        Set<Integer> done = new HashSet<>();
+        for (ReconciliationCheckpoint checkpoint : checkpointRepository.findByRunId(run.getId())) {
+            done.add(checkpoint.getBucket());
+        }
+
+        boolean failed = false;
+        // Snapshot bu transaction açık kaldığı sürece import edilebilir; bucket'lar bitene kadar kapatılmaz
+        try (Connection snapshotConnection = dataSource.getConnection()) {
+            beginSnapshot(snapshotConnection);
+            try {
+                String snapshotId = exportSnapshot(snapshotConnection);
+                BucketLedger[] ledgers = loadLedgers(snapshotConnection, buckets, done);
+
+                List<Callable<ReconciliationCheckpoint>> tasks = new ArrayList<>();
+                for (int bucket = 0; bucket < buckets; bucket++) {
+                    if (!done.contains(bucket)) {
+                        int b = bucket;
+                        tasks.add(() -> reconcileBucket(run.getId(), buckets, b, snapshotId, ledgers[b]));
+                    }
+                }
+                log.info("Reconciliation run {} started: {} of {} buckets remaining, parallelism {}",
+                        run.getId(), tasks.size(), buckets, parallelism);
+
+                ForkJoinPool pool = new ForkJoinPool(parallelism);
+                try {
+                    for (Future<ReconciliationCheckpoint> future : pool.invokeAll(tasks)) {
+                        try {
+                            future.get();
+                        } catch (Exception e) {
+                            failed = true;
+                            log.error("Reconciliation bucket failed in run {}", run.getId(), e);
+                        }
+                    }
+                } finally {
+                    pool.shutdown();
+                }
+            } finally {
+                snapshotConnection.rollback();
+            }
+        } catch (SQLException e) {
+            failed = true;
+            log.error("Reconciliation run {} failed while aggregating transfers", run.getId(), e);
+        }
+
+        long transfers = 0;
+        long accounts = 0;
+        long mismatches = 0;
+        for (ReconciliationCheckpoint checkpoint : checkpointRepository.findByRunId(run.getId())) {
+            transfers += checkpoint.getTransfersScanned();
+            accounts += checkpoint.getAccountsChecked();
+            mismatches += checkpoint.getMismatchCount();
+        }
+        run.setTransfersScanned(transfers);
+        run.setAccountsChecked(accounts);
+        run.setMismatchCount(mismatches);
+        run.setStatus(failed ? ReconciliationRun.RunStatus.FAILED : ReconciliationRun.RunStatus.COMPLETED);
+        run.setFinishedAt(failed ? null : LocalDateTime.now());
+        runRepository.save(run);
+
+        log.info("Reconciliation run {} {}: {} transfers, {} accounts, {} mismatches in {} ms",
+                run.getId(), run.getStatus(), transfers, accounts, mismatches, System.currentTimeMillis() - started);
+    }
+
+    /**
+     * transfers ve arşiv toplamlarını tek sorguda IBAN'a göre toplar; sadece tamamlanmamış bucket'ların
+     * satırları bellekte tutulur.
+     */
+    private BucketLedger[] loadLedgers(Connection connection, int buckets, Set<Integer> done) throws SQLException {
+        BucketLedger[] ledgers = new BucketLedger[buckets];
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            if (!done.contains(bucket)) {
+                ledgers[bucket] = new BucketLedger(new IbanLedgerMap(1 << 16));
+            }
+        }
+
+        try (PreparedStatement ps = connection.prepareStatement(LEDGER_SQL)) {
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setInt(1, buckets);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    BucketLedger ledger = ledgers[rs.getInt(2)];
+                    if (ledger == null) {
+                        continue;
+                    }
+                    ledger.legs += rs.getLong(5);
+                    long net = rs.getLong(3);
+                    int inFlight = rs.getInt(4);
+                    // Bakiyeye etkisi olmayan bacaklar (ör. bekleyen transferin alacak tarafı) map'e girmez
+                    if (net != 0 || inFlight != 0) {
+                        ledger.map().add(rs.getString(1), net, inFlight);
+                    }
+                }
+            }
+        }
+        return ledgers;
+    }
+
+    private ReconciliationCheckpoint reconcileBucket(Long runId, int buckets, int bucket, String snapshotId,
+                                                     BucketLedger bucketLedger) throws SQLException {
+        IbanLedgerMap ledger = bucketLedger.map();
+        List<ReconciliationMismatch> mismatches = new ArrayList<>();
+        long accountsChecked = 0;
+
+        try (Connection connection = dataSource.getConnection()) {
+            beginSnapshot(connection);
+            try {
+                try (Statement statement = connection.createStatement()) {
+                    // SET TRANSACTION SNAPSHOT parametre almaz; id pg_export_snapshot()'tan gelir
+                    statement.execute("SET TRANSACTION SNAPSHOT '" + snapshotId + "'");
+                }
+
+                try (PreparedStatement ps = connection.prepareStatement(ACCOUNTS_SQL)) {
+                    ps.setFetchSize(FETCH_SIZE);
+                    ps.setInt(1, buckets);
+                    ps.setInt(2, bucket);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            accountsChecked++;
+                            String iban = rs.getString(1);
+                            long actual = rs.getLong(2);
+                            long opening = rs.getLong(3);
+                            boolean openingKnown = rs.getBoolean(4);
+
+                            int slot = ledger.visit(iban);
+                            long expected = opening + (slot < 0 ? 0 : ledger.netAt(slot));
+                            if (expected != actual) {
+                                mismatches.add(mismatch(runId, bucket, iban, expected, actual,
+                                        slot < 0 ? 0 : ledger.inFlightAt(slot), openingKnown));
+                            }
+                        }
+                    }
+                }
+            } finally {
+                connection.rollback();
+            }
+        }
+
+        ledger.forEachUnvisited((iban, net, inFlight) ->
+                mismatches.add(mismatch(runId, bucket, iban, net, null, inFlight, false)));
+
+        ReconciliationCheckpoint checkpoint = ReconciliationCheckpoint.builder()
+                .runId(runId)
+                .bucket(bucket)
+                .transfersScanned(bucketLedger.legs)
+                .accountsChecked(accountsChecked)
+                .mismatchCount(mismatches.size())
+                .build();
+
+        // Farklar ve checkpoint aynı transaction'da yazılır; devam ettirilen run aynı farkları tekrar yazmaz
+        transactionTemplate.executeWithoutResult(status -> {
+            mismatchRepository.saveAll(mismatches);
+            checkpointRepository.save(checkpoint);
+        });
+
+        log.debug("Reconciliation bucket {}/{} done: {} transfer legs, {} accounts, {} mismatches",
+                bucket, buckets, bucketLedger.legs, accountsChecked, mismatches.size());
+        return checkpoint;
+    }
+
+    private static void beginSnapshot(Connection connection) throws SQLException {
+        connection.setAutoCommit(false);
+        connection.setReadOnly(true);
+        connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+    }
+
+    private static String exportSnapshot(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT pg_export_snapshot()")) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+
+    private static ReconciliationMismatch mismatch(Long runId, int bucket, String iban, long expectedMinor,
+                                                   Long actualMinor, int inFlight, boolean openingKnown) {
+        return ReconciliationMismatch.builder()
+                .runId(runId)
+                .bucket(bucket)
+                .iban(iban)
+                .expectedBalance(BigDecimal.valueOf(expectedMinor, Money.STORAGE_SCALE))
+                .actualBalance(actualMinor != null ? BigDecimal.valueOf(actualMinor, Money.STORAGE_SCALE) : null)
+                .inFlightTransfers(inFlight)
+                .openingBalanceKnown(openingKnown)
+                .build();
+    }
+
+    /**
+     * Bir bucket'ın IBAN toplamları ve checkpoint'e yazılan aktif transfer bacağı sayısı.
+     */
+    private static final class BucketLedger {
+        private final IbanLedgerMap map;
+        private long legs;
+
+        private BucketLedger(IbanLedgerMap map) {
+            this.map = map;
+        }
+
+        private IbanLedgerMap map() {
+            return map;
+        }
+    }
+}
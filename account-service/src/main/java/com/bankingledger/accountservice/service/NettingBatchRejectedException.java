@@ -0,0 +1,21 @@
+package com.bankingledger.accountservice.service;
+
+import java.util.List;
+
+/**
+ * Netting batch'i bazı hesaplara uygulanamadığı için bütün olarak geri alındı. Reddedilen IBAN'lar cevaba
+ * yazılır; transfer-service sadece bu hesaplara dokunan transferleri başarısız sayar, diğerlerini tekrar settle eder.
+ */
+public class NettingBatchRejectedException extends IllegalArgumentException {
+
+    private final List<String> rejectedIbans;
+
+    public NettingBatchRejectedException(String message, List<String> rejectedIbans) {
+        super(message);
+        this.rejectedIbans = rejectedIbans;
+    }
+
+    public List<String> getRejectedIbans() {
+        return rejectedIbans;
+    }
+}
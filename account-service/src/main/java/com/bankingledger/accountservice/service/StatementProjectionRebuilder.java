@@ -0,0 +1,227 @@
+package com.bankingledger.accountservice.service;
+
+import com.bankingledger.accountservice.consumer.TransferEventConsumer;
+import com.bankingledger.accountservice.event.TransferEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.ConsumerGroupDescription;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ekstre projeksiyonunu transfer-events topic'inden baştan kurar.
+ *
+ * Canlı listener durdurulur, projeksiyon sıfırlanır ve her partition kendi thread'inde,
+ * rebuild başlangıcındaki son offset'e kadar büyük batch'lerle okunur. Canlı listener
+ * tekrar başladığında rebuild'in zaten uyguladığı event'ler idempotent olarak atlanır.
+ *
+ * Projeksiyon sıfırlanmadan önce iki koşul kontrol edilir, sağlanmazsa rebuild başlamaz:
+ * topic'in süresiz saklandığı ve hiç kayıt silinmediği (aksi halde eski geçmiş kaybolur ve bakiyeler
+ * yanlış kurulur) ve projeksiyon grubunda bu instance dışında aktif consumer kalmadığı (diğer
+ * instance'ların listener'ları önce durdurulmalıdır).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StatementProjectionRebuilder {
+
+    private static final String TOPIC = "transfer-events";
+    private static final String LIVE_GROUP_ID = "account-service-statement";
+    private static final long ADMIN_TIMEOUT_SECONDS = 30;
+
+    private final ConsumerFactory<String, TransferEvent> transferEventConsumerFactory;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final KafkaAdmin kafkaAdmin;
+    private final StatementProjectionService projectionService;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * Ön kontrolleri yapar ve rebuild'i arka planda başlatır. Zaten çalışıyorsa veya ön kontroller
+     * sağlanmıyorsa false döner.
+     */
+    public boolean startRebuild() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        MessageListenerContainer liveListener;
+        try {
+            liveListener = stopLiveConsumers();
+        } catch (Exception e) {
+            log.warn("Statement projection rebuild rejected: {}", e.getMessage());
+            running.set(false);
+            return false;
+        }
+
+        Thread.ofPlatform().name("statement-rebuild").start(() -> {
+            try {
+                rebuild();
+            } catch (Exception e) {
+                log.error("Statement projection rebuild failed", e);
+            } finally {
+                if (liveListener != null) {
+                    liveListener.start();
+                }
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Topic geçmişini doğrular ve canlı listener'ı durdurur. stop() çalışan batch'in bitmesini bekler;
+     * pause()'dan farklı olarak consumer gruptan da ayrılır. Grupta başka instance'ların consumer'ları
+     * kalmışsa listener tekrar başlatılır ve rebuild reddedilir.
+     *
+     * @return durdurulan listener; rebuild bitince tekrar başlatılır
+     */
+    private MessageListenerContainer stopLiveConsumers() throws Exception {
+        try (AdminClient admin = AdminClient.create(kafkaAdmin.getConfigurationProperties())) {
+            checkFullHistoryRetained(admin);
+
+            MessageListenerContainer liveListener = listenerRegistry.getListenerContainer(TransferEventConsumer.LISTENER_ID);
+            if (liveListener != null) {
+                liveListener.stop();
+            }
+            try {
+                ConsumerGroupDescription group = admin.describeConsumerGroups(List.of(LIVE_GROUP_ID))
+                        .describedGroups().get(LIVE_GROUP_ID)
+                        .get(ADMIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                if (!group.members().isEmpty()) {
+                    throw new IllegalStateException(group.members().size() + " consumers of group " + LIVE_GROUP_ID
+                            + " are still active; stop statement projection listeners on all instances first");
+                }
+            } catch (Exception e) {
+                if (liveListener != null) {
+                    liveListener.start();
+                }
+                throw e;
+            }
+            return liveListener;
+        }
+    }
+
+    /**
+     * Replay sadece topic başından beri hiçbir kayıt silinmediyse ve silinmeyecekse doğru bakiye üretir.
+     */
+    private void checkFullHistoryRetained(AdminClient admin) throws Exception {
+        ConfigResource resource = new ConfigResource(ConfigResource.Type.TOPIC, TOPIC);
+        Config config = admin.describeConfigs(List.of(resource)).all()
+                .get(ADMIN_TIMEOUT_SECONDS, TimeUnit.SECONDS).get(resource);
+        String retentionMs = config.get(TopicConfig.RETENTION_MS_CONFIG).value();
+        String retentionBytes = config.get(TopicConfig.RETENTION_BYTES_CONFIG).value();
+        String cleanupPolicy = config.get(TopicConfig.CLEANUP_POLICY_CONFIG).value();
+        if (!"-1".equals(retentionMs) || !"-1".equals(retentionBytes)
+                || !TopicConfig.CLEANUP_POLICY_DELETE.equals(cleanupPolicy)) {
+            throw new IllegalStateException(TOPIC + " does not retain full history (retention.ms=" + retentionMs
+                    + ", retention.bytes=" + retentionBytes + ", cleanup.policy=" + cleanupPolicy + ")");
+        }
+
+        try (Consumer<String, TransferEvent> metadataConsumer = createConsumer("retention-check")) {
+            List<TopicPartition> partitions = partitions(metadataConsumer);
+            for (Map.Entry<TopicPartition, Long> start : metadataConsumer.beginningOffsets(partitions).entrySet()) {
+                if (start.getValue() > 0) {
+                    throw new IllegalStateException("Records before offset " + start.getValue() + " of "
+                            + start.getKey() + " were already deleted");
+                }
+            }
+        }
+    }
+
+    private void rebuild() throws Exception {
+        long started = System.currentTimeMillis();
+        projectionService.resetProjection();
+
+        List<TopicPartition> partitions;
+        try (Consumer<String, TransferEvent> metadataConsumer = createConsumer("metadata")) {
+            partitions = partitions(metadataConsumer);
+        }
+
+        AtomicLong replayed = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(partitions.size());
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (TopicPartition partition : partitions) {
+                futures.add(executor.submit(() -> replayPartition(partition, replayed)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        log.info("Statement projection rebuilt from {} partitions: {} events in {} ms",
+                partitions.size(), replayed.get(), System.currentTimeMillis() - started);
+    }
+
+    private static List<TopicPartition> partitions(Consumer<String, TransferEvent> consumer) {
+        List<TopicPartition> partitions = new ArrayList<>();
+        for (PartitionInfo info : consumer.partitionsFor(TOPIC)) {
+            partitions.add(new TopicPartition(TOPIC, info.partition()));
+        }
+        return partitions;
+    }
+
+    private void replayPartition(TopicPartition partition, AtomicLong replayed) {
+        try (Consumer<String, TransferEvent> consumer = createConsumer(String.valueOf(partition.partition()))) {
+            consumer.assign(List.of(partition));
+            consumer.seekToBeginning(List.of(partition));
+            long endOffset = consumer.endOffsets(List.of(partition)).get(partition);
+
+            while (consumer.position(partition) < endOffset) {
+                ConsumerRecords<String, TransferEvent> records = consumer.poll(Duration.ofSeconds(1));
+                List<TransferEvent> batch = new ArrayList<>(records.count());
+                for (ConsumerRecord<String, TransferEvent> record : records) {
+                    if (record.offset() < endOffset && record.value() != null) {
+                        batch.add(record.value());
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    projectionService.applyBatch(batch);
+                    replayed.addAndGet(batch.size());
+                }
+            }
+            log.debug("Replayed partition {} up to offset {}", partition, endOffset);
+        }
+    }
+
+    private Consumer<String, TransferEvent> createConsumer(String clientIdSuffix) {
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, "5000");
+        overrides.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, "1048576");
+        overrides.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, "100");
+        return transferEventConsumerFactory.createConsumer(
+                "account-service-statement-rebuild", "statement-rebuild-", clientIdSuffix, overrides);
+    }
+}
@@ -0,0 +1,202 @@
+package com.bankingledger.accountservice.service;
+
+import com.bankingledger.accountservice.dto.StatementResponse;
+import com.bankingledger.accountservice.entity.StatementBalance;
+import com.bankingledger.accountservice.entity.StatementEntry;
+import com.bankingledger.accountservice.entity.StatementMonthlyAggregate;
+import com.bankingledger.accountservice.event.TransferEvent;
+import com.bankingledger.accountservice.repository.StatementBalanceRepository;
+import com.bankingledger.accountservice.repository.StatementEntryRepository;
+import com.bankingledger.accountservice.repository.StatementMonthlyAggregateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * transfer-events topic'inden beslenen ekstre read model'i (CQRS).
+ *
+ * Her başarılı transfer için kaynak IBAN'a DEBIT, hedef IBAN'a CREDIT satırı yazılır,
+ * yürüyen bakiye ve aylık toplamlar artımlı güncellenir. İşlem transactionId'ye göre
+ * idempotenttir: aynı event tekrar gelirse (redelivery, rebuild) yok sayılır.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StatementProjectionService {
+
+    private static final String SUCCESS = "SUCCESS";
+
+    private final StatementEntryRepository entryRepository;
+    private final StatementBalanceRepository balanceRepository;
+    private final StatementMonthlyAggregateRepository aggregateRepository;
+
+    /**
+     * Bir event batch'ini tek transaction içinde projekte eder.
+     * Etkilenen IBAN'ların bakiye satırları IBAN sırasıyla kilitlenir; böylece aynı IBAN'a
+     * farklı partition'lardan gelen batch'ler sıralanır ve birbirini kilitlemez.
+     *
+     * @return projekte edilen yeni transfer sayısı
+     */
+    @Transactional
+    public int applyBatch(List<TransferEvent> events) {
+        Map<String, TransferEvent> pending = new LinkedHashMap<>();
+        for (TransferEvent event : events) {
+            if (SUCCESS.equals(event.getStatus())) {
+                pending.putIfAbsent(event.getTransactionId(), event);
+            }
+        }
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        entryRepository.findProjectedTransactionIds(pending.keySet()).forEach(pending::remove);
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        SortedSet<String> ibans = new TreeSet<>();
+        Set<String> months = new HashSet<>();
+        for (TransferEvent event : pending.values()) {
+            ibans.add(event.getFromIban());
+            ibans.add(event.getToIban());
+            months.add(monthOf(occurredAt(event)));
+        }
+
+        ibans.forEach(balanceRepository::insertIfAbsent);
+        Map<String, StatementBalance> balances = new HashMap<>();
+        for (StatementBalance balance : balanceRepository.lockByIbans(ibans)) {
+            balances.put(balance.getIban(), balance);
+        }
+
+        Map<String, StatementMonthlyAggregate> aggregates = new HashMap<>();
+        for (StatementMonthlyAggregate aggregate : aggregateRepository.findByIbanInAndMonthIn(ibans, months)) {
+            aggregates.put(aggregate.getIban() + "|" + aggregate.getMonth(), aggregate);
+        }
+
+        List<StatementEntry> entries = new ArrayList<>(pending.size() * 2);
+        for (TransferEvent event : pending.values()) {
+            LocalDateTime occurredAt = occurredAt(event);
+            entries.add(project(event, event.getFromIban(), event.getToIban(),
+                    StatementEntry.Direction.DEBIT, occurredAt, balances, aggregates));
+            entries.add(project(event, event.getToIban(), event.getFromIban(),
+                    StatementEntry.Direction.CREDIT, occurredAt, balances, aggregates));
+        }
+
+        entryRepository.saveAll(entries);
+        aggregateRepository.saveAll(aggregates.values());
+        balanceRepository.saveAll(balances.values());
+
+        log.debug("Projected {} transfers into {} statement entries", pending.size(), entries.size());
+        return pending.size();
+    }
+
+    private StatementEntry project(TransferEvent event, String iban, String counterparty,
+                                   StatementEntry.Direction direction, LocalDateTime occurredAt,
+                                   Map<String, StatementBalance> balances,
+                                   Map<String, StatementMonthlyAggregate> aggregates) {
+        // Çapraz kurda alacak bacağı hedef hesabın para birimindeki tutarla yazılır
+        BigDecimal amount = direction == StatementEntry.Direction.CREDIT && event.getCreditAmount() != null
+                ? event.getCreditAmount().toBigDecimal()
+                : event.getAmount().toBigDecimal();
+        StatementBalance balance = balances.get(iban);
+        balance.setBalance(direction == StatementEntry.Direction.DEBIT
+                ? balance.getBalance().subtract(amount)
+                : balance.getBalance().add(amount));
+
+        String month = monthOf(occurredAt);
+        StatementMonthlyAggregate aggregate = aggregates.computeIfAbsent(iban + "|" + month,
+                key -> StatementMonthlyAggregate.builder()
+                        .iban(iban)
+                        .month(month)
+                        .totalDebits(BigDecimal.ZERO)
+                        .totalCredits(BigDecimal.ZERO)
+                        .build());
+        if (direction == StatementEntry.Direction.DEBIT) {
+            aggregate.setTotalDebits(aggregate.getTotalDebits().add(amount));
+        } else {
+            aggregate.setTotalCredits(aggregate.getTotalCredits().add(amount));
+        }
+        aggregate.setEntryCount(aggregate.getEntryCount() + 1);
+
+        return StatementEntry.builder()
+                .iban(iban)
+                .transactionId(event.getTransactionId())
+                .counterpartyIban(counterparty)
+                .direction(direction)
+                .amount(amount)
+                .runningBalance(balance.getBalance())
+                .description(event.getDescription())
+                .occurredAt(occurredAt)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public StatementResponse getStatement(String iban, int page, int size) {
+        StatementBalance balance = balanceRepository.findById(iban)
+                .orElseThrow(() -> new RuntimeException("Statement not found for IBAN: " + iban));
+
+        List<StatementResponse.Entry> entries = entryRepository
+                .findByIbanOrderByIdDesc(iban, PageRequest.of(page, size)).stream()
+                .map(entry -> StatementResponse.Entry.builder()
+                        .transactionId(entry.getTransactionId())
+                        .counterpartyIban(entry.getCounterpartyIban())
+                        .direction(entry.getDirection().toString())
+                        .amount(entry.getAmount())
+                        .runningBalance(entry.getRunningBalance())
+                        .description(entry.getDescription())
+                        .occurredAt(entry.getOccurredAt())
+                        .build())
+                .toList();
+
+        List<StatementResponse.MonthlySummary> summaries = aggregateRepository
+                .findByIbanOrderByMonthDesc(iban).stream()
+                .map(aggregate -> StatementResponse.MonthlySummary.builder()
+                        .month(aggregate.getMonth())
+                        .totalDebits(aggregate.getTotalDebits())
+                        .totalCredits(aggregate.getTotalCredits())
+                        .entryCount(aggregate.getEntryCount())
+                        .build())
+                .toList();
+
+        return StatementResponse.builder()
+                .iban(iban)
+                .balance(balance.getBalance())
+                .entries(entries)
+                .monthlySummaries(summaries)
+                .build();
+    }
+
+    /**
+     * Rebuild öncesi projeksiyonu temizler; bakiyeler açılış bakiyesine döner.
+     */
+    @Transactional
+    public void resetProjection() {
+        entryRepository.deleteAllInBatch();
+        aggregateRepository.deleteAllInBatch();
+        int balances = balanceRepository.resetToOpeningBalances();
+        log.info("Statement projection reset, {} balances restored to opening balance", balances);
+    }
+
+    private static LocalDateTime occurredAt(TransferEvent event) {
+        return event.getTimestamp() != null ? event.getTimestamp() : LocalDateTime.now();
+    }
+
+    private static String monthOf(LocalDateTime dateTime) {
+        return YearMonth.from(dateTime).toString();
+    }
+}
@@ -0,0 +1,13 @@
+-- Tablolar Hibernate (ddl-auto: update) ile oluşturulur; bu script sadece mevcut kolonları değiştirir ve
+-- Hibernate'ten önce çalıştığı için yeni kurulumda tablolar henüz yoktur.
+-- Tutar kolonları ISO 4217'deki en fazla ondalık haneyi (4) tutar; para biriminin kendi hanesi Money'dedir.
+-- Tip zaten NUMERIC(38,4) ise PostgreSQL tabloyu yeniden yazmaz.
+ALTER TABLE IF EXISTS accounts ALTER COLUMN balance TYPE NUMERIC(38,4);
+ALTER TABLE IF EXISTS statement_entries ALTER COLUMN amount TYPE NUMERIC(38,4);
+ALTER TABLE IF EXISTS statement_entries ALTER COLUMN running_balance TYPE NUMERIC(38,4);
+ALTER TABLE IF EXISTS statement_balances ALTER COLUMN balance TYPE NUMERIC(38,4);
+ALTER TABLE IF EXISTS statement_balances ALTER COLUMN opening_balance TYPE NUMERIC(38,4);
+ALTER TABLE IF EXISTS statement_monthly_aggregates ALTER COLUMN total_debits TYPE NUMERIC(38,4);
+ALTER TABLE IF EXISTS statement_monthly_aggregates ALTER COLUMN total_credits TYPE NUMERIC(38,4);
+ALTER TABLE IF EXISTS reconciliation_mismatches ALTER COLUMN expected_balance TYPE NUMERIC(38,4);
+ALTER TABLE IF EXISTS reconciliation_mismatches ALTER COLUMN actual_balance TYPE NUMERIC(38,4);
@@ -0,0 +1,20 @@
+package com.bankingledger.apigateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * /overview/{iban} aggregation ayarları. Servis adresleri lb:// route'larıyla aynı Eureka servis adlarını kullanır.
+ */
+@Component
+@ConfigurationProperties(prefix = "overview")
+@Data
+public class OverviewProperties {
+
+    private String accountServiceUrl = "http://account-service/account-service";
+    private String transferServiceUrl = "http://transfer-service/transfer-service";
+    // Her backend çağrısı için ayrı süre; aşan çağrı iptal edilir ve cevap degraded döner
+    private long deadlineMs = 500;
+    private int transferLimit = 10;
+}
@@ -0,0 +1,28 @@
+package com.bankingledger.apigateway.controller;
+
+import com.bankingledger.apigateway.dto.AccountOverview;
+import com.bankingledger.apigateway.service.OverviewService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Gateway'in route dışında kendisinin cevapladığı aggregation endpoint'i; mobil ana ekranın
+ * üç ardışık çağrısının yerini alır.
+ */
+@RestController
+@RequiredArgsConstructor
+public class OverviewController {
+
+    private final OverviewService overviewService;
+
+    @GetMapping("/overview/{iban}")
+    public Mono<ResponseEntity<AccountOverview>> getOverview(@PathVariable String iban,
+                                                             @RequestHeader(value = "X-Request-ID", required = false) String requestId) {
+        return overviewService.getOverview(iban, requestId).map(ResponseEntity::ok);
+    }
+}
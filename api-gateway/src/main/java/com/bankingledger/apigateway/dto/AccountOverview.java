@@ -0,0 +1,26 @@
+package com.bankingledger.apigateway.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Mobil ana ekran için hesap, son giden ve son gelen transferler.
+ * Backend cevapları olduğu gibi aktarılır; zamanında dönmeyen parça null olur ve unavailable'da listelenir.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountOverview {
+    private String iban;
+    private JsonNode account;
+    private List<JsonNode> outgoingTransfers;
+    private List<JsonNode> incomingTransfers;
+    private boolean degraded;
+    private List<String> unavailable;
+}
@@ -0,0 +1,104 @@
+package com.bankingledger.apigateway.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tek bir servis instance'ının gözlenen gecikmesi, açık istek sayısı ve ejection durumu.
+ *
+ * Gecikme peak-EWMA ile tutulur: yavaş bir cevap ortalamayı hemen yukarı çeker, hızlı cevaplar
+ * zamanla ({@code decayNanos}) aşağı indirir. İstek almayan instance'ın maliyeti de zamanla düşer;
+ * böylece bir kez yavaşlamış instance kalıcı olarak dışlanmaz, ara ara denenir.
+ *
+ * Hatalı cevabın süresi ölçüme katılmaz: hızlı dönen hatalar (ör. bağlantı reddi, anında 503) instance'ı
+ * en hızlı gibi gösterirdi. Bunun yerine gecikme en az {@code decayNanos}'a çekilir; instance ejection
+ * eşiğine gelmeden de trafikten uzaklaşır ve ceza zamanla sönümlenir.
+ */
+final class InstanceLatencyStats {
+
+    // Hiç ölçüm yokken veya uzun süre boşta kaldıktan sonra maliyetin sıfıra inmesini engeller
+    private static final double LATENCY_FLOOR_NANOS = 1_000_000;
+    private static final int MAX_EJECTION_SHIFT = 10;
+
+    private final LatencyStatsRegistry.Settings settings;
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    // Aşağıdaki alanlar this ile korunur
+    private double ewmaNanos;
+    private long stampNanos;
+    private int consecutiveFailures;
+    private int ejections;
+    private long ejectedUntilNanos;
+
+    InstanceLatencyStats(LatencyStatsRegistry.Settings settings, long nowNanos) {
+        this.settings = settings;
+        this.ewmaNanos = settings.initialLatencyNanos();
+        this.stampNanos = nowNanos;
+    }
+
+    void onStart() {
+        outstanding.incrementAndGet();
+    }
+
+    /**
+     * @param latencyNanos ölçülemediyse negatif; sadece açık istek sayısı ve hata durumu güncellenir
+     * @param failed       true ise gecikme yerine hata cezası uygulanır
+     * @return bu cevapla instance ejection'a girdiyse ejection süresi (nanosaniye), aksi halde 0
+     */
+    synchronized long onComplete(long latencyNanos, boolean failed, long nowNanos) {
+        outstanding.updateAndGet(value -> Math.max(0, value - 1));
+        if (failed) {
+            penalize(nowNanos);
+        } else if (latencyNanos >= 0) {
+            observe(latencyNanos, nowNanos);
+        }
+
+        if (!failed) {
+            consecutiveFailures = 0;
+            if (nowNanos - ejectedUntilNanos > 0) {
+                ejections = 0;
+            }
+            return 0;
+        }
+
+        if (++consecutiveFailures < settings.failureThreshold()) {
+            return 0;
+        }
+        consecutiveFailures = 0;
+        ejections = Math.min(ejections + 1, MAX_EJECTION_SHIFT);
+        long ejection = Math.min(settings.baseEjectionNanos() << (ejections - 1), settings.maxEjectionNanos());
+        ejectedUntilNanos = nowNanos + ejection;
+        return ejection;
+    }
+
+    synchronized boolean isEjected(long nowNanos) {
+        return ejectedUntilNanos - nowNanos > 0;
+    }
+
+    /**
+     * Seçim maliyeti: zamanla sönümlenmiş gecikme x (açık istek + 1).
+     */
+    synchronized double cost(long nowNanos) {
+        double decayed = ewmaNanos * Math.exp(-Math.max(nowNanos - stampNanos, 0) / (double) settings.decayNanos());
+        return Math.max(decayed, LATENCY_FLOOR_NANOS) * (outstanding.get() + 1);
+    }
+
+    int outstanding() {
+        return outstanding.get();
+    }
+
+    private void penalize(long nowNanos) {
+        stampNanos = nowNanos;
+        ewmaNanos = Math.max(ewmaNanos, settings.decayNanos());
+    }
+
+    private void observe(long sampleNanos, long nowNanos) {
+        long elapsed = Math.max(nowNanos - stampNanos, 0);
+        stampNanos = nowNanos;
+        if (sampleNanos > ewmaNanos) {
+            ewmaNanos = sampleNanos;
+        } else {
+            double weight = Math.exp(-elapsed / (double) settings.decayNanos());
+            ewmaNanos = ewmaNanos * weight + sampleNanos * (1 - weight);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.bankingledger.apigateway.service;
+
+import com.bankingledger.apigateway.config.OverviewProperties;
+import com.bankingledger.apigateway.dto.AccountOverview;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Hesap, son giden ve son gelen transferleri account-service ve transfer-service'ten paralel çeker.
+ *
+ * Her çağrının kendi deadline'ı vardır; süreyi aşan veya hata alan parça boş bırakılır ve cevap degraded
+ * işaretlenir. Toplam süre en yavaş çağrının deadline'ı ile sınırlıdır. Hesap 4xx dönerse (ör. bulunamadı)
+ * kısmi veri anlamsız olduğundan aynı status ile hata döner.
+ */
+@Service
+@Slf4j
+public class OverviewService {
+
+    static final String ACCOUNT = "account";
+    static final String OUTGOING_TRANSFERS = "outgoingTransfers";
+    static final String INCOMING_TRANSFERS = "incomingTransfers";
+
+    private final OverviewProperties properties;
+    private final WebClient accountClient;
+    private final WebClient transferClient;
+
+    public OverviewService(OverviewProperties properties, WebClient.Builder loadBalancedWebClientBuilder) {
+        this.properties = properties;
+        this.accountClient = loadBalancedWebClientBuilder.clone().baseUrl(properties.getAccountServiceUrl()).build();
+        this.transferClient = loadBalancedWebClientBuilder.clone().baseUrl(properties.getTransferServiceUrl()).build();
+    }
+
+    public Mono<AccountOverview> getOverview(String iban, String requestId) {
+        Mono<JsonNode> account = accountClient.get()
+                .uri("/api/v1/accounts/{iban}", iban)
+                .headers(headers -> propagate(headers, requestId))
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .onErrorResume(WebClientResponseException.class, e -> Mono.error(e.getStatusCode().is4xxClientError()
+                        ? new ResponseStatusException(e.getStatusCode(), "Account lookup failed for " + iban, e)
+                        : e));
+
+        return Mono.zip(
+                        withDeadline(ACCOUNT, iban, account),
+                        withDeadline(OUTGOING_TRANSFERS, iban, recentTransfers(iban, "outgoing", requestId)),
+                        withDeadline(INCOMING_TRANSFERS, iban, recentTransfers(iban, "incoming", requestId)))
+                .map(parts -> {
+                    List<String> unavailable = new ArrayList<>();
+                    if (parts.getT1().isEmpty()) {
+                        unavailable.add(ACCOUNT);
+                    }
+                    if (parts.getT2().isEmpty()) {
+                        unavailable.add(OUTGOING_TRANSFERS);
+                    }
+                    if (parts.getT3().isEmpty()) {
+                        unavailable.add(INCOMING_TRANSFERS);
+                    }
+                    return AccountOverview.builder()
+                            .iban(iban)
+                            .account(parts.getT1().orElse(null))
+                            .outgoingTransfers(parts.getT2().orElse(null))
+                            .incomingTransfers(parts.getT3().orElse(null))
+                            .degraded(!unavailable.isEmpty())
+                            .unavailable(unavailable)
+                            .build();
+                });
+    }
+
+    private Mono<List<JsonNode>> recentTransfers(String iban, String direction, String requestId) {
+        return transferClient.get()
+                .uri(uri -> uri.path("/api/v1/transfers/account/{iban}/{direction}")
+                        .queryParam("limit", properties.getTransferLimit())
+                        .build(iban, direction))
+                .headers(headers -> propagate(headers, requestId))
+                .retrieve()
+                .bodyToFlux(JsonNode.class)
+                .collectList();
+    }
+
+    /**
+     * Deadline aşılırsa çağrı iptal edilir (bağlantı bırakılır); hata veya timeout boş parça olarak döner.
+     * {@link ResponseStatusException} aggregation'ı sonlandırmak için olduğu gibi iletilir.
+     */
+    private <T> Mono<Optional<T>> withDeadline(String part, String iban, Mono<T> call) {
+        return call.timeout(Duration.ofMillis(properties.getDeadlineMs()))
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .onErrorResume(e -> !(e instanceof ResponseStatusException), e -> {
+                    if (e instanceof TimeoutException) {
+                        log.warn("Overview part {} for {} exceeded deadline of {} ms", part, iban, properties.getDeadlineMs());
+                    } else {
+                        log.warn("Overview part {} for {} failed: {}", part, iban, e.getMessage());
+                    }
+                    return Mono.just(Optional.empty());
+                });
+    }
+
+    private static void propagate(HttpHeaders headers, String requestId) {
+        if (requestId != null) {
+            headers.set("X-Request-ID", requestId);
+        }
+    }
+}
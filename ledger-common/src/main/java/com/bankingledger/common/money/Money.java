@@ -0,0 +1,242 @@
+package com.bankingledger.common.money;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * Minor unit (kuruş/cent) cinsinden long ile tutulan değişmez para tutarı.
+ *
+ * Ondalık hane sayısı para biriminin ISO 4217 değeridir ({@link Currency#getDefaultFractionDigits()}):
+ * TRY ve USD 2, JPY 0, KWD 3 haneli. Aritmetik taşmada ArithmeticException, farklı para birimleri arasında
+ * ve bilinmeyen para biriminde IllegalArgumentException fırlatır.
+ *
+ * Veritabanında tutar ve currency kolonları ile eşlenir (bkz. {@link MoneyType}); tutar kolonları
+ * {@link #STORAGE_SCALE} ondalık hanelidir. JSON'da "500.00 TRY" veya "500 JPY" şeklinde tek bir string
+ * olarak yazılır.
+ */
+@JsonSerialize(using = Money.Serializer.class)
+@JsonDeserialize(using = Money.Deserializer.class)
+public record Money(long minorUnits, String currency) implements Comparable<Money> {
+
+    /**
+     * NUMERIC tutar kolonlarının ölçeği; ISO 4217'deki en fazla ondalık hane sayısı.
+     */
+    public static final int STORAGE_SCALE = 4;
+
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000};
+
+    public Money {
+        Objects.requireNonNull(currency, "currency");
+    }
+
+    public static Money ofMinor(long minorUnits, String currency) {
+        return new Money(minorUnits, currency);
+    }
+
+    public static Money zero(String currency) {
+        return new Money(0, currency);
+    }
+
+    /**
+     * @throws IllegalArgumentException tutar para biriminin ondalık hanesinden fazla hane içeriyorsa
+     */
+    public static Money of(BigDecimal amount, String currency) {
+        return new Money(toMinorUnits(amount, scaleOf(currency)), currency);
+    }
+
+    /**
+     * "500.00 TRY" biçimindeki metni okur.
+     */
+    public static Money parse(String text) {
+        int space = text.lastIndexOf(' ');
+        if (space <= 0 || space == text.length() - 1) {
+            throw new IllegalArgumentException("Invalid money: " + text);
+        }
+        String currency = text.substring(space + 1);
+        return new Money(parseMinorUnits(text.substring(0, space).trim(), scaleOf(currency)), currency);
+    }
+
+    /**
+     * Para biriminin ondalık hane sayısı.
+     *
+     * @throws IllegalArgumentException para birimi bilinmiyorsa veya ondalık hanesi tanımlı değilse (ör. XAU)
+     */
+    public static int scaleOf(String currency) {
+        int digits;
+        try {
+            digits = Currency.getInstance(currency).getDefaultFractionDigits();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown currency: " + currency, e);
+        }
+        if (digits < 0 || digits > STORAGE_SCALE) {
+            throw new IllegalArgumentException("Unsupported currency: " + currency);
+        }
+        return digits;
+    }
+
+    public int scale() {
+        return scaleOf(currency);
+    }
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money minus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(minorUnits), currency);
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    public boolean isLessThan(Money other) {
+        return compareTo(other) < 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, scale());
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return formatMinorUnits(minorUnits, scale()) + " " + currency;
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " vs " + other.currency);
+        }
+    }
+
+    static String formatMinorUnits(long minorUnits, int scale) {
+        long factor = POWERS_OF_TEN[scale];
+        long units = minorUnits / factor;
+        long fraction = Math.abs(minorUnits % factor);
+        StringBuilder sb = new StringBuilder(24);
+        if (minorUnits < 0 && units == 0) {
+            sb.append('-');
+        }
+        sb.append(units);
+        if (scale > 0) {
+            sb.append('.');
+            for (long pad = factor / 10; pad > 1 && fraction < pad; pad /= 10) {
+                sb.append('0');
+            }
+            sb.append(fraction);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * "-1234.5" gibi düz ondalık metni BigDecimal oluşturmadan minor unit'e çevirir;
+     * üslü gösterim gibi nadir biçimler BigDecimal ile okunur.
+     */
+    static long parseMinorUnits(String text, int scale) {
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            i++;
+        }
+
+        long units = 0;
+        int digits = 0;
+        while (i < length && isDigit(text.charAt(i))) {
+            units = Math.addExact(Math.multiplyExact(units, 10), text.charAt(i++) - '0');
+            digits++;
+        }
+
+        long fraction = 0;
+        int fractionDigits = 0;
+        if (i < length && text.charAt(i) == '.') {
+            i++;
+            while (i < length && isDigit(text.charAt(i))) {
+                int digit = text.charAt(i++) - '0';
+                if (fractionDigits < scale) {
+                    fraction = fraction * 10 + digit;
+                } else if (digit != 0) {
+                    throw new IllegalArgumentException("Invalid amount: " + text);
+                }
+                fractionDigits++;
+            }
+        }
+
+        if (i != length || digits + fractionDigits == 0) {
+            try {
+                return toMinorUnits(new BigDecimal(text), scale);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid amount: " + text, e);
+            }
+        }
+
+        for (int d = Math.min(fractionDigits, scale); d < scale; d++) {
+            fraction *= 10;
+        }
+        long minorUnits = Math.addExact(Math.multiplyExact(units, POWERS_OF_TEN[scale]), fraction);
+        return negative ? -minorUnits : minorUnits;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static long toMinorUnits(BigDecimal amount, int scale) {
+        try {
+            return amount.setScale(scale, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid amount: " + amount.toPlainString(), e);
+        }
+    }
+
+    public static class Serializer extends JsonSerializer<Money> {
+        @Override
+        public void serialize(Money value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeString(value.toString());
+        }
+    }
+
+    public static class Deserializer extends JsonDeserializer<Money> {
+        @Override
+        public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() != JsonToken.VALUE_STRING) {
+                return (Money) ctxt.handleUnexpectedToken(Money.class, p);
+            }
+            try {
+                return Money.parse(p.getText());
+            } catch (IllegalArgumentException | ArithmeticException e) {
+                return (Money) ctxt.handleWeirdStringValue(Money.class, p.getText(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.bankingledger.common.money;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.spi.ValueAccess;
+import org.hibernate.usertype.CompositeUserType;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * {@link Money}'yi NUMERIC tutar ve currency kolonlarına eşler. Ondalık hane para birimine bağlı olduğundan
+ * tek kolonluk bir AttributeConverter ile yapılamaz.
+ *
+ * Entity'de {@code @CompositeType(MoneyType.class)} ile kullanılır; kolonlar "amount" ve "currency"
+ * alanlarına {@code @AttributeOverride} ile verilir. İki kolon da null ise tutar null'dır.
+ */
+public class MoneyType implements CompositeUserType<Money> {
+
+    /**
+     * Kolonların eşlendiği alanlar; Hibernate alanları alfabetik sırayla indeksler (amount 0, currency 1).
+     */
+    public static class MoneyMapping {
+        BigDecimal amount;
+        String currency;
+    }
+
+    @Override
+    public Object getPropertyValue(Money component, int property) {
+        return switch (property) {
+            case 0 -> component.toBigDecimal();
+            case 1 -> component.currency();
+            default -> throw new IllegalArgumentException("Unknown Money property index: " + property);
+        };
+    }
+
+    @Override
+    public Money instantiate(ValueAccess values, SessionFactoryImplementor sessionFactory) {
+        BigDecimal amount = values.getValue(0, BigDecimal.class);
+        String currency = values.getValue(1, String.class);
+        if (amount == null && currency == null) {
+            return null;
+        }
+        return Money.of(amount, currency);
+    }
+
+    @Override
+    public Class<?> embeddable() {
+        return MoneyMapping.class;
+    }
+
+    @Override
+    public Class<Money> returnedClass() {
+        return Money.class;
+    }
+
+    @Override
+    public boolean equals(Money x, Money y) {
+        return Objects.equals(x, y);
+    }
+
+    @Override
+    public int hashCode(Money x) {
+        return Objects.hashCode(x);
+    }
+
+    @Override
+    public Money deepCopy(Money value) {
+        return value;
+    }
+
+    @Override
+    public boolean isMutable() {
+        return false;
+    }
+
+    @Override
+    public Serializable disassemble(Money value) {
+        return value != null ? value.toString() : null;
+    }
+
+    @Override
+    public Money assemble(Serializable cached, Object owner) {
+        return cached != null ? Money.parse((String) cached) : null;
+    }
+
+    @Override
+    public Money replace(Money detached, Money managed, Object owner) {
+        return detached;
+    }
+}
@@ -0,0 +1,62 @@
+package com.bankingledger.common.money;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    @Test
+    void scaleFollowsCurrency() {
+        assertThat(Money.scaleOf("TRY")).isEqualTo(2);
+        assertThat(Money.scaleOf("JPY")).isZero();
+        assertThat(Money.scaleOf("KWD")).isEqualTo(3);
+    }
+
+    @Test
+    void parsesAndFormatsInCurrencyScale() {
+        assertThat(Money.parse("500.5 TRY")).isEqualTo(Money.ofMinor(50_050, "TRY"));
+        assertThat(Money.parse("1500 JPY")).isEqualTo(Money.ofMinor(1_500, "JPY"));
+        assertThat(Money.parse("1.005 KWD")).isEqualTo(Money.ofMinor(1_005, "KWD"));
+
+        assertThat(Money.ofMinor(50_005, "TRY")).hasToString("500.05 TRY");
+        assertThat(Money.ofMinor(1_500, "JPY")).hasToString("1500 JPY");
+        assertThat(Money.ofMinor(1_005, "KWD")).hasToString("1.005 KWD");
+        assertThat(Money.ofMinor(-5, "KWD")).hasToString("-0.005 KWD");
+    }
+
+    @Test
+    void rejectsMoreDigitsThanCurrencyAllows() {
+        assertThatThrownBy(() -> Money.parse("10.5 JPY")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Money.of(new BigDecimal("1.001"), "TRY"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(Money.of(new BigDecimal("10.5000"), "TRY")).isEqualTo(Money.ofMinor(1_050, "TRY"));
+    }
+
+    @Test
+    void rejectsUnknownCurrency() {
+        assertThatThrownBy(() -> Money.parse("10.00 ABC")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Money.scaleOf("XAU")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void toBigDecimalUsesCurrencyScale() {
+        assertThat(Money.ofMinor(1_005, "KWD").toBigDecimal()).isEqualTo(new BigDecimal("1.005"));
+        assertThat(Money.ofMinor(1_500, "JPY").toBigDecimal()).isEqualTo(new BigDecimal("1500"));
+    }
+
+    @Test
+    void roundTripsThroughJson() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        Money amount = Money.ofMinor(1_005, "KWD");
+
+        String json = mapper.writeValueAsString(amount);
+
+        assertThat(json).isEqualTo("\"1.005 KWD\"");
+        assertThat(mapper.readValue(json, Money.class)).isEqualTo(amount);
+    }
+}
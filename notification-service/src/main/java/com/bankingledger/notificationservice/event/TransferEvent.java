@@ -1,11 +1,11 @@
 package com.bankingledger.notificationservice.event;
 
+import com.bankingledger.common.money.Money;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
@@ -16,7 +16,8 @@ public class TransferEvent {
     private String transactionId;
     private String fromIban;
     private String toIban;
-    private BigDecimal amount;
+    private Money amount;
+    private Money creditAmount; // hedef hesaba yatırılan tutar, çapraz kurda amount'tan farklıdır
     private String status; // SUCCESS, FAILED
     private String description;
     private LocalDateTime timestamp;
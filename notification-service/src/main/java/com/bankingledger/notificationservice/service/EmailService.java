@@ -46,19 +46,18 @@ public class EmailService {
                 - İşlem ID: %s
                 - Gönderici IBAN: %s
                 - Alıcı IBAN: %s
-                - Tutar: %s %s
+                - Tutar: %s
                 - Tarih: %s
                 - Açıklama: %s
                 
                 İyi günler,
                 Banking Ledger Sistemi
                 """.formatted(
-                event.getAmount(),
+                event.getCreditAmount() != null ? event.getCreditAmount() : event.getAmount(),
                 event.getTransactionId(),
                 maskIban(event.getFromIban()),
                 maskIban(event.getToIban()),
                 event.getAmount(),
-                "TRY",
                 event.getTimestamp(),
                 event.getDescription()
         );
@@ -74,7 +73,7 @@ public class EmailService {
                 - İşlem ID: %s
                 - Gönderici IBAN: %s
                 - Alıcı IBAN: %s
-                - Tutar: %s %s
+                - Tutar: %s
                 - Tarih: %s
                 - Hata: %s
                 
@@ -87,7 +86,6 @@ public class EmailService {
                 maskIban(event.getFromIban()),
                 maskIban(event.getToIban()),
                 event.getAmount(),
-                "TRY",
                 event.getTimestamp(),
                 event.getDescription()
         );
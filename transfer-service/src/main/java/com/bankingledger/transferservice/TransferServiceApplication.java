@@ -2,12 +2,17 @@ package com.bankingledger.transferservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// R2DBC sadece reactive profilinde ReactiveStackConfig ile kurulur; JPA transaction manager'ı ile çakışmaz
+@SpringBootApplication(exclude = {R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class})
 @EnableDiscoveryClient
 @EnableFeignClients
+@EnableScheduling
 public class TransferServiceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,139 @@
+package com.bankingledger.transferservice.client;
+
+import com.bankingledger.transferservice.config.AccountLookupProperties;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.DoubleStream;
+
+/**
+ * Blocking ve reactive hesap sorgularının ortak koruma ayarları: circuit breaker, bulkhead, deadline,
+ * hedge gecikmesi ve metrikler.
+ *
+ * Hedge gecikmesi tekil HTTP çağrılarının gözlenen yüzdelik gecikmesidir (account.lookup.call timer'ı);
+ * en fazla saniyede bir yeniden hesaplanır ve [min-delay-ms, deadline/2] aralığında tutulur.
+ */
+@Component
+public class AccountLookupResilience {
+
+    static final String INSTANCE = "account-service";
+    private static final long REFRESH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final AccountLookupProperties properties;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Timer callTimer;
+    private final Timer lookupTimer;
+    private final Counter hedges;
+    private final Counter hedgeWins;
+    private final Counter deadlineExceeded;
+
+    private volatile long hedgeDelayNanos;
+    private volatile long hedgeDelayRefreshedAt;
+
+    public AccountLookupResilience(AccountLookupProperties properties,
+                                   CircuitBreakerRegistry circuitBreakerRegistry,
+                                   BulkheadRegistry bulkheadRegistry,
+                                   MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(INSTANCE);
+        this.bulkhead = bulkheadRegistry.bulkhead(INSTANCE);
+        this.hedgeDelayNanos = TimeUnit.MILLISECONDS.toNanos(properties.getHedge().getInitialDelayMs());
+        this.hedgeDelayRefreshedAt = System.nanoTime();
+
+        this.callTimer = Timer.builder("account.lookup.call")
+                .description("Latency of a single HTTP call to account-service, hedges included")
+                .publishPercentiles(percentiles(properties.getHedge().getPercentile()))
+                .register(meterRegistry);
+        this.lookupTimer = Timer.builder("account.lookup")
+                .description("Latency of an account lookup as seen by the transfer, including hedging")
+                .publishPercentiles(0.5, 0.95, 0.99, 0.999)
+                .register(meterRegistry);
+        this.hedges = Counter.builder("account.lookup.hedges")
+                .description("Hedge requests sent because the first call exceeded the hedge delay")
+                .register(meterRegistry);
+        this.hedgeWins = Counter.builder("account.lookup.hedge.wins")
+                .description("Lookups answered by the hedge request")
+                .register(meterRegistry);
+        this.deadlineExceeded = Counter.builder("account.lookup.deadline.exceeded")
+                .register(meterRegistry);
+        Gauge.builder("account.lookup.hedge.delay", this, resilience -> resilience.hedgeDelayNanos / 1_000_000.0)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    CircuitBreaker circuitBreaker() {
+        return circuitBreaker;
+    }
+
+    Bulkhead bulkhead() {
+        return bulkhead;
+    }
+
+    Timer callTimer() {
+        return callTimer;
+    }
+
+    Timer lookupTimer() {
+        return lookupTimer;
+    }
+
+    long deadlineNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(properties.getDeadlineMs());
+    }
+
+    boolean hedgingEnabled() {
+        return properties.getHedge().isEnabled();
+    }
+
+    void onHedge() {
+        hedges.increment();
+    }
+
+    void onHedgeWin() {
+        hedgeWins.increment();
+    }
+
+    void onDeadlineExceeded() {
+        deadlineExceeded.increment();
+    }
+
+    long hedgeDelayNanos() {
+        long now = System.nanoTime();
+        if (now - hedgeDelayRefreshedAt >= REFRESH_INTERVAL_NANOS) {
+            hedgeDelayRefreshedAt = now;
+            hedgeDelayNanos = computeHedgeDelay();
+        }
+        return hedgeDelayNanos;
+    }
+
+    private long computeHedgeDelay() {
+        AccountLookupProperties.Hedge hedge = properties.getHedge();
+        long delay = TimeUnit.MILLISECONDS.toNanos(hedge.getInitialDelayMs());
+        if (callTimer.count() >= hedge.getMinSamples()) {
+            for (ValueAtPercentile value : callTimer.takeSnapshot().percentileValues()) {
+                if (value.percentile() == hedge.getPercentile() && value.value() > 0) {
+                    delay = (long) value.value(TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+        long min = TimeUnit.MILLISECONDS.toNanos(hedge.getMinDelayMs());
+        return Math.max(min, Math.min(delay, deadlineNanos() / 2));
+    }
+
+    private static double[] percentiles(double hedgePercentile) {
+        return DoubleStream.of(0.5, hedgePercentile, 0.99, 0.999)
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+}
@@ -0,0 +1,12 @@
+package com.bankingledger.transferservice.client;
+
+/**
+ * account-service'e geçici olarak ulaşılamadı (deadline, 5xx, bağlantı hatası, açık circuit, dolu bulkhead).
+ * Hesap bulunamadı gibi iş kuralı hatalarından farklı olarak aynı istek tekrar denenebilir.
+ */
+public class AccountServiceUnavailableException extends RuntimeException {
+
+    public AccountServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,154 @@
+package com.bankingledger.transferservice.client;
+
+import com.bankingledger.transferservice.dto.AccountResponse;
+import feign.FeignException;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link AccountServiceClient} çağrılarını deadline, hedging, circuit breaker ve bulkhead ile sarar.
+ *
+ * İlk çağrı hedge gecikmesi içinde dönmezse ikinci bir çağrı gönderilir ve önce başarılı olan kullanılır.
+ * İkinci çağrı da load balancer'dan geçer; ilk instance'ta açık bir istek olduğu için
+ * latency-aware load balancer büyük olasılıkla başka bir instance seçer.
+ * Çağrılar virtual thread'lerde yürür; eşzamanlı sorgu sayısını bulkhead sınırlar.
+ */
+@Component
+@Slf4j
+public class HedgedAccountServiceClient {
+
+    private final AccountServiceClient accountServiceClient;
+    private final AccountLookupResilience resilience;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public HedgedAccountServiceClient(AccountServiceClient accountServiceClient, AccountLookupResilience resilience) {
+        this.accountServiceClient = accountServiceClient;
+        this.resilience = resilience;
+    }
+
+    /**
+     * @throws AccountServiceUnavailableException deadline aşılırsa, account-service 5xx veya bağlantı hatası
+     *                                            dönerse, circuit açıksa ya da eşzamanlı sorgu sınırı doluysa
+     */
+    public AccountResponse getAccount(String iban) {
+        Bulkhead bulkhead = resilience.bulkhead();
+        CircuitBreaker circuitBreaker = resilience.circuitBreaker();
+        try {
+            return resilience.lookupTimer().record(() ->
+                    Bulkhead.decorateSupplier(bulkhead,
+                            CircuitBreaker.decorateSupplier(circuitBreaker, () -> hedgedLookup(iban))).get());
+        } catch (CallNotPermittedException | BulkheadFullException
+                 | FeignException.FeignServerException | RetryableException e) {
+            throw new AccountServiceUnavailableException(
+                    "Account service unavailable for " + iban + ": " + e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private AccountResponse hedgedLookup(String iban) {
+        long deadline = System.nanoTime() + resilience.deadlineNanos();
+        CompletableFuture<AccountResponse> primary = call(iban);
+        if (!resilience.hedgingEnabled()) {
+            return await(primary, deadline, iban, primary);
+        }
+
+        try {
+            return primary.get(Math.min(resilience.hedgeDelayNanos(), remaining(deadline)), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // ilk çağrı yavaş; aşağıda hedge gönderilir
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while looking up account " + iban, e);
+        }
+
+        if (remaining(deadline) <= 0) {
+            return await(primary, deadline, iban, primary);
+        }
+
+        resilience.onHedge();
+        CompletableFuture<AccountResponse> hedge = call(iban);
+        return await(firstSuccess(primary, hedge, resilience::onHedgeWin), deadline, iban, primary, hedge);
+    }
+
+    private CompletableFuture<AccountResponse> call(String iban) {
+        Timer timer = resilience.callTimer();
+        return CompletableFuture.supplyAsync(() -> timer.record(() -> accountServiceClient.getAccount(iban)), executor);
+    }
+
+    /**
+     * İki çağrıdan önce başarılı olanla tamamlanır; ikisi de hata alırsa son hatayla.
+     */
+    private static CompletableFuture<AccountResponse> firstSuccess(CompletableFuture<AccountResponse> primary,
+                                                                   CompletableFuture<AccountResponse> hedge,
+                                                                   Runnable onHedgeWin) {
+        CompletableFuture<AccountResponse> result = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (CompletableFuture<AccountResponse> future : List.of(primary, hedge)) {
+            future.whenComplete((value, error) -> {
+                if (error == null) {
+                    if (result.complete(value) && future == hedge) {
+                        onHedgeWin.run();
+                    }
+                } else if (failures.incrementAndGet() == 2) {
+                    result.completeExceptionally(error);
+                }
+            });
+        }
+        return result;
+    }
+
+    @SafeVarargs
+    private AccountResponse await(CompletableFuture<AccountResponse> future, long deadline, String iban,
+                                  CompletableFuture<AccountResponse>... calls) {
+        try {
+            return future.get(Math.max(remaining(deadline), 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            for (CompletableFuture<AccountResponse> call : calls) {
+                call.cancel(true);
+            }
+            resilience.onDeadlineExceeded();
+            log.warn("Account lookup for {} exceeded deadline of {} ms", iban,
+                    TimeUnit.NANOSECONDS.toMillis(resilience.deadlineNanos()));
+            throw new AccountServiceUnavailableException("Account lookup deadline exceeded for " + iban, e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while looking up account " + iban, e);
+        }
+    }
+
+    private static long remaining(long deadline) {
+        return deadline - System.nanoTime();
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                ? e.getCause().getCause()
+                : e.getCause();
+        return cause instanceof RuntimeException runtime ? runtime : new RuntimeException(cause);
+    }
+}
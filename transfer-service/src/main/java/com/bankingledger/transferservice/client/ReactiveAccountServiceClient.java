@@ -0,0 +1,81 @@
+package com.bankingledger.transferservice.client;
+
+import com.bankingledger.transferservice.dto.AccountResponse;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link AccountServiceClient}'ın non-blocking karşılığı; reactive profilinde kullanılır.
+ * Eureka üzerinden load-balanced WebClient ile çağırır. Deadline, hedging, circuit breaker ve bulkhead
+ * {@link HedgedAccountServiceClient} ile aynı ayar ve metrikleri kullanır.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveAccountServiceClient {
+
+    private final WebClient webClient;
+    private final AccountLookupResilience resilience;
+
+    public ReactiveAccountServiceClient(WebClient.Builder loadBalancedWebClientBuilder,
+                                        AccountLookupResilience resilience,
+                                        @Value("${accounts.base-url:http://account-service/account-service}") String baseUrl) {
+        this.webClient = loadBalancedWebClientBuilder.baseUrl(baseUrl).build();
+        this.resilience = resilience;
+    }
+
+    public Mono<AccountResponse> getAccount(String iban) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start();
+            return hedgedLookup(iban)
+                    .timeout(Duration.ofNanos(resilience.deadlineNanos()))
+                    .onErrorMap(TimeoutException.class, e -> {
+                        resilience.onDeadlineExceeded();
+                        return new RuntimeException("Account lookup deadline exceeded for " + iban, e);
+                    })
+                    .transformDeferred(CircuitBreakerOperator.of(resilience.circuitBreaker()))
+                    .transformDeferred(BulkheadOperator.of(resilience.bulkhead()))
+                    .doFinally(signal -> sample.stop(resilience.lookupTimer()));
+        });
+    }
+
+    /**
+     * İlk çağrı hedge gecikmesi içinde dönmezse ikinci çağrı gönderilir; ilk çağrı iptal edilmez ve
+     * önce değer üreten kullanılır. İlk çağrı hızlı hata alırsa hedge gönderilmez.
+     */
+    private Mono<AccountResponse> hedgedLookup(String iban) {
+        if (!resilience.hedgingEnabled()) {
+            return call(iban);
+        }
+        Mono<AccountResponse> primary = call(iban).cache();
+        return primary.timeout(Duration.ofNanos(resilience.hedgeDelayNanos()), Mono.defer(() -> {
+            resilience.onHedge();
+            Mono<AccountResponse> hedge = call(iban).doOnNext(response -> resilience.onHedgeWin());
+            return Mono.firstWithValue(primary, hedge)
+                    .onErrorMap(NoSuchElementException.class, e -> e.getSuppressed().length > 0
+                            ? e.getSuppressed()[e.getSuppressed().length - 1]
+                            : e);
+        }));
+    }
+
+    private Mono<AccountResponse> call(String iban) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start();
+            return webClient.get()
+                    .uri("/api/v1/accounts/{iban}", iban)
+                    .retrieve()
+                    .bodyToMono(AccountResponse.class)
+                    .doOnSuccess(response -> sample.stop(resilience.callTimer()))
+                    .doOnError(e -> sample.stop(resilience.callTimer()));
+        });
+    }
+}
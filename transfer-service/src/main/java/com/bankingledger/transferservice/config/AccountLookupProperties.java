@@ -0,0 +1,30 @@
+package com.bankingledger.transferservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * account-service hesap sorguları için deadline ve hedging ayarları.
+ * Circuit breaker ve bulkhead ayarları resilience4j.*.instances.account-service altındadır.
+ */
+@Component
+@ConfigurationProperties(prefix = "accounts.lookup")
+@Data
+public class AccountLookupProperties {
+
+    // Hedge dahil tek bir hesap sorgusunun toplam süresi
+    private long deadlineMs = 2000;
+    private Hedge hedge = new Hedge();
+
+    @Data
+    public static class Hedge {
+        private boolean enabled = true;
+        // İlk çağrı gözlenen bu yüzdelik gecikmeyi aşarsa ikinci çağrı gönderilir
+        private double percentile = 0.95;
+        private long minDelayMs = 20;
+        // Yeterli ölçüm birikene kadar kullanılan gecikme
+        private long initialDelayMs = 250;
+        private long minSamples = 50;
+    }
+}
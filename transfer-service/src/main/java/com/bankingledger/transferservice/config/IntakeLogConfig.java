@@ -0,0 +1,26 @@
+package com.bankingledger.transferservice.config;
+
+import com.bankingledger.transferservice.intake.IntakeLog;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * intake.enabled=true iken servlet modunda transfer istekleri önce yerel intake log'a yazılır.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "intake.enabled", havingValue = "true")
+public class IntakeLogConfig {
+
+    @Bean(destroyMethod = "close")
+    public IntakeLog intakeLog(IntakeLogProperties properties) throws IOException {
+        return IntakeLog.open(Path.of(properties.getDir()), properties.getSegmentBytes(),
+                TimeUnit.MICROSECONDS.toNanos(properties.getFlushDelayMicros()));
+    }
+}
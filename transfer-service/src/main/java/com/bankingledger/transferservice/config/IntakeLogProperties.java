@@ -0,0 +1,27 @@
+package com.bankingledger.transferservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Transfer intake log ayarları (bkz. {@link com.bankingledger.transferservice.intake.IntakeLog}).
+ */
+@Component
+@ConfigurationProperties(prefix = "intake")
+@Data
+public class IntakeLogProperties {
+
+    // true ise POST /transfers istekleri log'a yazılıp ACCEPTED ile cevaplanır; DB'ye arka planda uygulanır
+    private boolean enabled = false;
+    private String dir = "/var/lib/transfer-service/intake";
+    private int segmentBytes = 64 * 1024 * 1024;
+    // İlk bekleyen yazmadan sonra fsync öncesi diğer yazmaların toplanması için beklenen süre
+    private long flushDelayMicros = 200;
+    // Bu süre içinde diske yazılamayan istek hata ile cevaplanır
+    private long ackTimeoutMs = 1000;
+    // Applier her bu kadar kayıtta bir checkpoint yazar
+    private int checkpointInterval = 100;
+    // DB'ye yazılamadığında aynı kaydın tekrar denenmesi için beklenen süre
+    private long retryBackoffMs = 1000;
+}
@@ -0,0 +1,107 @@
+package com.bankingledger.transferservice.config;
+
+import com.bankingledger.transferservice.event.AccountCommandReply;
+import com.bankingledger.transferservice.event.FxRateTableEvent;
+import com.bankingledger.transferservice.event.NettingBatchReply;
+import com.bankingledger.transferservice.event.VelocityStateUpdate;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@EnableKafka
+public class KafkaConsumerConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Bean
+    public ConsumerFactory<String, AccountCommandReply> accountReplyConsumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(consumerProps("transfer-service-saga", AccountCommandReply.class));
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, AccountCommandReply> accountReplyListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, AccountCommandReply> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setCommonErrorHandler(new DefaultErrorHandler());
+        factory.setConcurrency(3);
+        factory.setConsumerFactory(accountReplyConsumerFactory());
+        return factory;
+    }
+
+    @Bean
+    public ConsumerFactory<String, NettingBatchReply> nettingReplyConsumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(consumerProps("transfer-service-netting", NettingBatchReply.class));
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, NettingBatchReply> nettingReplyListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, NettingBatchReply> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setCommonErrorHandler(new DefaultErrorHandler());
+        factory.setConsumerFactory(nettingReplyConsumerFactory());
+        return factory;
+    }
+
+    @Bean
+    public ConsumerFactory<String, VelocityStateUpdate> velocityStateConsumerFactory() {
+        // Listener partition'ları elle atar; group.id yoktur
+        return new DefaultKafkaConsumerFactory<>(consumerProps(null, VelocityStateUpdate.class));
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, VelocityStateUpdate> velocityStateListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, VelocityStateUpdate> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setCommonErrorHandler(new DefaultErrorHandler());
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setConsumerFactory(velocityStateConsumerFactory());
+        return factory;
+    }
+
+    @Bean
+    public ConsumerFactory<String, FxRateTableEvent> fxRateConsumerFactory() {
+        // Listener partition'ı elle atar; group.id yoktur
+        return new DefaultKafkaConsumerFactory<>(consumerProps(null, FxRateTableEvent.class));
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, FxRateTableEvent> fxRateListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, FxRateTableEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setCommonErrorHandler(new DefaultErrorHandler());
+        // group.id olmadan offset commit edilemez; listener acknowledge etmediğinden commit yapılmaz
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setConsumerFactory(fxRateConsumerFactory());
+        return factory;
+    }
+
+    private Map<String, Object> consumerProps(String groupId, Class<?> valueType) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        if (groupId != null) {
+            props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        }
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, valueType.getName());
+        // Cevaplar account-service'teki sınıf adıyla yazılıyor, type header'ı yok sayılmalı
+        props.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+        props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        return props;
+    }
+}
@@ -0,0 +1,48 @@
+package com.bankingledger.transferservice.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+/**
+ * Sadece key başına son değeri gerektiren durum topic'leri; compaction topic boyutunu sabit tutar.
+ * transfer-events ise ekstre projeksiyonu baştan kurulabilsin diye süresiz saklanır.
+ */
+@Configuration
+public class KafkaTopicConfig {
+
+    @Bean
+    public NewTopic velocityStateTopic(VelocityLimitProperties properties) {
+        // VelocityStateConsumer partition'ları elle atar; sayı değişirse listener da güncellenmelidir
+        return TopicBuilder.name(properties.getTopic())
+                .partitions(3)
+                .replicas(1)
+                .compact()
+                .build();
+    }
+
+    /**
+     * Topic zaten varsa ayarı değiştirilmez; mevcut kurulumda kafka-configs ile retention.ms=-1 yapılmalıdır.
+     */
+    @Bean
+    public NewTopic transferEventsTopic() {
+        return TopicBuilder.name("transfer-events")
+                .partitions(3)
+                .replicas(1)
+                .config(TopicConfig.RETENTION_MS_CONFIG, "-1")
+                .config(TopicConfig.RETENTION_BYTES_CONFIG, "-1")
+                .build();
+    }
+
+    @Bean
+    public NewTopic fxRatesTopic(@Value("${fx.topic}") String topic) {
+        return TopicBuilder.name(topic)
+                .partitions(1)
+                .replicas(1)
+                .compact()
+                .build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.bankingledger.transferservice.config;
+
+import com.bankingledger.transferservice.loadbalancer.LatencyAwareLoadBalancerConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * account-service (Feign ve reactive WebClient) çağrıları için gecikmeye duyarlı load balancing.
+ * loadbalancer.latency-aware.enabled=false iken Spring Cloud'un round-robin'i kullanılır.
+ */
+@Configuration
+@ConditionalOnProperty(name = "loadbalancer.latency-aware.enabled", havingValue = "true", matchIfMissing = true)
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+}
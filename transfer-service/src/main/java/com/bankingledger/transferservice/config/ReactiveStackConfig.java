@@ -0,0 +1,91 @@
+package com.bankingledger.transferservice.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.kafka.core.reactive.ReactiveKafkaProducerTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.kafka.sender.SenderOptions;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * reactive profilinde istek yolunun non-blocking altyapısı: R2DBC connection pool,
+ * load-balanced WebClient ve reactor-kafka producer.
+ *
+ * Kafka consumer'ları, saga/netting taramaları ve partition yönetimi her iki modda da JPA ile çalışır;
+ * bu yüzden R2DBC pool'u küçük tutulur ve transaction manager tanımlanmaz (reactive yol tek statement yazar).
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveStackConfig {
+
+    @Value("${spring.r2dbc.url}")
+    private String r2dbcUrl;
+
+    @Value("${spring.r2dbc.username}")
+    private String r2dbcUsername;
+
+    @Value("${spring.r2dbc.password}")
+    private String r2dbcPassword;
+
+    @Value("${spring.r2dbc.pool.initial-size:4}")
+    private int poolInitialSize;
+
+    @Value("${spring.r2dbc.pool.max-size:16}")
+    private int poolMaxSize;
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool connectionFactory() {
+        ConnectionFactory connectionFactory = ConnectionFactories.get(ConnectionFactoryOptions.parse(r2dbcUrl)
+                .mutate()
+                .option(ConnectionFactoryOptions.USER, r2dbcUsername)
+                .option(ConnectionFactoryOptions.PASSWORD, r2dbcPassword)
+                .build());
+
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .name("transfer-service-r2dbc")
+                .initialSize(poolInitialSize)
+                .maxSize(poolMaxSize)
+                .maxIdleTime(Duration.ofMinutes(5))
+                .build());
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    @Bean
+    @LoadBalanced
+    public WebClient.Builder loadBalancedWebClientBuilder() {
+        return WebClient.builder();
+    }
+
+    @Bean
+    public ReactiveKafkaProducerTemplate<String, Object> reactiveKafkaTemplate() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
+        return new ReactiveKafkaProducerTemplate<>(SenderOptions.create(configProps));
+    }
+}
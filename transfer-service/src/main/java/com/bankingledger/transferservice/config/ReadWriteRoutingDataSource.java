@@ -0,0 +1,58 @@
+package com.bankingledger.transferservice.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * {@code @Transactional(readOnly = true)} işleri replica'ya, diğer her şeyi primary'ye yönlendirir.
+ *
+ * Bağlantı transaction başlarken değil ilk SQL'de alınmalıdır; bu yüzden bu DataSource
+ * bir LazyConnectionDataSourceProxy arkasında kullanılır.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter replicaHits;
+    private final Counter staleFallbacks;
+    private final Counter downFallbacks;
+
+    public ReadWriteRoutingDataSource(ReplicaLagMonitor lagMonitor, MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.replicaHits = Counter.builder("datasource.routing.reads")
+                .tag("route", "replica")
+                .register(meterRegistry);
+        this.staleFallbacks = Counter.builder("datasource.routing.reads")
+                .tag("route", "primary")
+                .tag("reason", "stale")
+                .register(meterRegistry);
+        this.downFallbacks = Counter.builder("datasource.routing.reads")
+                .tag("route", "primary")
+                .tag("reason", "down")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Route.PRIMARY;
+        }
+
+        if (lagMonitor.isUsable()) {
+            replicaHits.increment();
+            return Route.REPLICA;
+        }
+
+        if (lagMonitor.isAvailable()) {
+            staleFallbacks.increment();
+        } else {
+            downFallbacks.increment();
+        }
+        return Route.PRIMARY;
+    }
+}
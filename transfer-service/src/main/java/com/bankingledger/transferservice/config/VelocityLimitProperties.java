@@ -0,0 +1,36 @@
+package com.bankingledger.transferservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Kaynak IBAN başına velocity limitleri. Limit 0 veya boş ise o boyut sınırsızdır.
+ * Tutar limitleri {@code limitCurrency} cinsindendir; başka para birimindeki transferler kur tablosuyla çevrilir.
+ */
+@Component
+@ConfigurationProperties(prefix = "velocity")
+@Data
+public class VelocityLimitProperties {
+
+    private boolean enabled = true;
+    private String topic = "velocity-state";
+    private long syncIntervalMs = 1000;
+    private String defaultTier = "standard";
+    private String limitCurrency = "TRY";
+    private Map<String, Tier> tiers = new HashMap<>();
+    // IBAN -> tier adı; listede olmayan IBAN'lar defaultTier'dadır
+    private Map<String, String> ibanTiers = new HashMap<>();
+
+    @Data
+    public static class Tier {
+        private long maxCountPerMinute;
+        private BigDecimal maxAmountPerMinute;
+        private long maxCountPerHour;
+        private BigDecimal maxAmountPerHour;
+    }
+}
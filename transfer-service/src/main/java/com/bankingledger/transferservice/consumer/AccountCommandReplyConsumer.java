@@ -0,0 +1,28 @@
+package com.bankingledger.transferservice.consumer;
+
+import com.bankingledger.transferservice.event.AccountCommandReply;
+import com.bankingledger.transferservice.service.TransferSagaOrchestrator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AccountCommandReplyConsumer {
+
+    private final TransferSagaOrchestrator sagaOrchestrator;
+
+    /**
+     * account-service cevaplarını dinle ve ilgili saga'yı bir sonraki adıma taşı.
+     * Hata durumunda exception fırlatılır, DefaultErrorHandler mesajı tekrar dener.
+     */
+    @KafkaListener(topics = "${saga.topics.replies}", groupId = "transfer-service-saga",
+            containerFactory = "accountReplyListenerContainerFactory")
+    public void consumeReply(AccountCommandReply reply) {
+        log.debug("Received {} reply for transaction: {} success: {}",
+                reply.getType(), reply.getTransactionId(), reply.isSuccess());
+        sagaOrchestrator.onReply(reply);
+    }
+}
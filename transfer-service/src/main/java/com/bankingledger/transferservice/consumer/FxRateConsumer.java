@@ -0,0 +1,28 @@
+package com.bankingledger.transferservice.consumer;
+
+import com.bankingledger.transferservice.event.FxRateTableEvent;
+import com.bankingledger.transferservice.service.FxRateService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.PartitionOffset;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FxRateConsumer {
+
+    private final FxRateService fxRateService;
+
+    // Her instance tüm kur tablosunu alır: tek partition'lı topic (bkz. KafkaTopicConfig) group'suz elle atanır ve
+    // her açılışta baştan okunur. Instance başına group.id her restart'ta broker'da yeni bir group bırakıyordu
+    @KafkaListener(topicPartitions = @TopicPartition(topic = "${fx.topic}",
+            partitionOffsets = @PartitionOffset(partition = "0", initialOffset = "0")),
+            containerFactory = "fxRateListenerContainerFactory")
+    public void consumeRateTable(FxRateTableEvent event) {
+        log.debug("Received FX rate table version: {}", event.getVersion());
+        fxRateService.onRateTable(event);
+    }
+}
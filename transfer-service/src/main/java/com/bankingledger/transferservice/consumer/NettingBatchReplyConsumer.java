@@ -0,0 +1,23 @@
+package com.bankingledger.transferservice.consumer;
+
+import com.bankingledger.transferservice.event.NettingBatchReply;
+import com.bankingledger.transferservice.service.NettingEngine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NettingBatchReplyConsumer {
+
+    private final NettingEngine nettingEngine;
+
+    @KafkaListener(topics = "${netting.topics.replies}", groupId = "transfer-service-netting",
+            containerFactory = "nettingReplyListenerContainerFactory")
+    public void consumeReply(NettingBatchReply reply) {
+        log.debug("Received netting reply for batch: {} success: {}", reply.getBatchId(), reply.isSuccess());
+        nettingEngine.onBatchReply(reply);
+    }
+}
@@ -0,0 +1,25 @@
+package com.bankingledger.transferservice.consumer;
+
+import com.bankingledger.transferservice.event.VelocityStateUpdate;
+import com.bankingledger.transferservice.service.VelocityLimiter;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.PartitionOffset;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class VelocityStateConsumer {
+
+    private final VelocityLimiter velocityLimiter;
+
+    // Her instance compacted topic'in tüm partition'larını (bkz. KafkaTopicConfig) group'suz elle atar ve baştan okur
+    @KafkaListener(topicPartitions = @TopicPartition(topic = "${velocity.topic}", partitions = "0-2",
+            partitionOffsets = @PartitionOffset(partition = "*", initialOffset = "0")),
+            containerFactory = "velocityStateListenerContainerFactory", autoStartup = "${velocity.enabled:true}")
+    public void consumeState(ConsumerRecord<String, VelocityStateUpdate> record) {
+        velocityLimiter.onRemoteUpdate(record.key(), record.value());
+    }
+}
@@ -0,0 +1,113 @@
+package com.bankingledger.transferservice.controller;
+
+import com.bankingledger.transferservice.dto.FxRateTableResponse;
+import com.bankingledger.transferservice.dto.NettingWindowReport;
+import com.bankingledger.transferservice.dto.StatementExportRequest;
+import com.bankingledger.transferservice.dto.StatementExportResponse;
+import com.bankingledger.transferservice.dto.TransferRequest;
+import com.bankingledger.transferservice.dto.TransferResponse;
+import com.bankingledger.transferservice.service.FxRateService;
+import com.bankingledger.transferservice.service.NettingEngine;
+import com.bankingledger.transferservice.service.StatementExportService;
+import com.bankingledger.transferservice.service.ReactiveTransferService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * reactive profilinde {@link TransferController} yerine çalışır; endpoint'ler ve response'lar aynıdır.
+ */
+@RestController
+@RequestMapping("/api/v1/transfers")
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveTransferController {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private final ReactiveTransferService transferService;
+    private final NettingEngine nettingEngine;
+    private final FxRateService fxRateService;
+    private final StatementExportService statementExportService;
+
+    @PostMapping
+    public Mono<ResponseEntity<TransferResponse>> executeTransfer(@RequestBody TransferRequest request) {
+        return transferService.executeTransfer(request)
+                .map(response -> ResponseEntity.status(HttpStatus.ACCEPTED).body(response));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<TransferResponse>> getTransfer(@PathVariable Long id) {
+        return transferService.getTransferById(id).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/transaction/{transactionId}")
+    public Mono<ResponseEntity<TransferResponse>> getTransferByTransaction(@PathVariable String transactionId) {
+        return transferService.getTransferByTransactionId(transactionId).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/account/{iban}/outgoing")
+    public Flux<TransferResponse> getOutgoingTransfers(@PathVariable String iban,
+                                                       @RequestParam(defaultValue = "20") int limit) {
+        return transferService.getOutgoingTransfers(iban, limit);
+    }
+
+    @GetMapping("/account/{iban}/incoming")
+    public Flux<TransferResponse> getIncomingTransfers(@PathVariable String iban,
+                                                       @RequestParam(defaultValue = "20") int limit) {
+        return transferService.getIncomingTransfers(iban, limit);
+    }
+
+    // Export işi JPA ile yönetilir; bu çağrılar boundedElastic'te çalışır
+    @PostMapping("/exports")
+    public Mono<ResponseEntity<StatementExportResponse>> startExport(@RequestBody StatementExportRequest request) {
+        return Mono.fromCallable(() -> statementExportService.start(request))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(response -> ResponseEntity.accepted().body(response));
+    }
+
+    @GetMapping("/exports/{id}")
+    public Mono<ResponseEntity<StatementExportResponse>> getExport(@PathVariable Long id) {
+        return Mono.fromCallable(() -> statementExportService.getExport(id))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * WebFlux dosya Resource'larını zero-copy (sendfile) ile yazar; Range istekleri 206 ile cevaplanır.
+     */
+    @GetMapping("/exports/{id}/file")
+    public Mono<ResponseEntity<Resource>> downloadExport(@PathVariable Long id) {
+        return Mono.fromCallable(() -> statementExportService.getFile(id)
+                        .map(file -> ResponseEntity.ok()
+                                .contentType(TEXT_CSV)
+                                .header(HttpHeaders.CONTENT_DISPOSITION,
+                                        ContentDisposition.attachment().filename(file.downloadName()).build().toString())
+                                .body((Resource) new FileSystemResource(file.path())))
+                        .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build()))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @GetMapping("/netting/reports")
+    public ResponseEntity<List<NettingWindowReport>> getNettingReports() {
+        return ResponseEntity.ok(nettingEngine.getReports());
+    }
+
+    @GetMapping("/fx/rates")
+    public ResponseEntity<FxRateTableResponse> getFxRates() {
+        return ResponseEntity.ok(fxRateService.getCurrentTable());
+    }
+}
@@ -1,24 +1,69 @@
 package com.bankingledger.transferservice.controller;
 
+import com.bankingledger.transferservice.dto.FxRateTableResponse;
+import com.bankingledger.transferservice.dto.NettingWindowReport;
+import com.bankingledger.transferservice.dto.StatementExportRequest;
+import com.bankingledger.transferservice.dto.StatementExportResponse;
 import com.bankingledger.transferservice.dto.TransferRequest;
 import com.bankingledger.transferservice.dto.TransferResponse;
+import com.bankingledger.transferservice.intake.TransferIntakeService;
+import com.bankingledger.transferservice.service.FxRateService;
+import com.bankingledger.transferservice.service.IdempotencyService;
+import com.bankingledger.transferservice.service.NettingEngine;
+import com.bankingledger.transferservice.service.StatementExportService;
 import com.bankingledger.transferservice.service.TransferService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
 @RestController
 @RequestMapping("/api/v1/transfers")
+@Profile("!reactive") // reactive profilinde ReactiveTransferController kullanılır
 @RequiredArgsConstructor
 public class TransferController {
 
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     private final TransferService transferService;
+    private final NettingEngine nettingEngine;
+    private final FxRateService fxRateService;
+    private final StatementExportService statementExportService;
+    private final IdempotencyService idempotencyService;
+    // intake.enabled=true ise mevcut
+    private final ObjectProvider<TransferIntakeService> intakeService;
 
+    /**
+     * Intake log açıksa istek diske kalıcı yazılınca ACCEPTED durumuyla döner; sonuç transactionId ile sorgulanır.
+     *
+     * Idempotency-Key gönderilirse aynı anahtarla yapılan tekrarlar yeni transfer oluşturmaz, ilk cevabı
+     * Idempotent-Replayed: true header'ı ile alır.
+     */
     @PostMapping
-    public ResponseEntity<TransferResponse> executeTransfer(@RequestBody TransferRequest request) {
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(transferService.executeTransfer(request));
+    public ResponseEntity<TransferResponse> executeTransfer(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @RequestBody TransferRequest request) {
+        if (idempotencyKey == null) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(submit(request));
+        }
+        IdempotencyService.Result result = idempotencyService.execute(idempotencyKey, request,
+                transactionId -> submit(request, transactionId), this::findTransfer);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(IDEMPOTENT_REPLAYED, String.valueOf(result.replayed()))
+                .body(result.response());
     }
 
     @GetMapping("/{id}")
@@ -28,6 +73,84 @@ public class TransferController {
 
     @GetMapping("/transaction/{transactionId}")
     public ResponseEntity<TransferResponse> getTransferByTransaction(@PathVariable String transactionId) {
+        TransferIntakeService intake = intakeService.getIfAvailable();
+        if (intake != null) {
+            var accepted = intake.findPending(transactionId);
+            if (accepted.isPresent()) {
+                return ResponseEntity.ok(accepted.get());
+            }
+        }
         return ResponseEntity.ok(transferService.getTransferByTransactionId(transactionId));
     }
+
+    /**
+     * Hesaptan çıkan en yeni transferler (created_at azalan); limit en fazla 100.
+     */
+    @GetMapping("/account/{iban}/outgoing")
+    public ResponseEntity<List<TransferResponse>> getOutgoingTransfers(@PathVariable String iban,
+                                                                       @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(transferService.getOutgoingTransfers(iban, limit));
+    }
+
+    @GetMapping("/account/{iban}/incoming")
+    public ResponseEntity<List<TransferResponse>> getIncomingTransfers(@PathVariable String iban,
+                                                                       @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(transferService.getIncomingTransfers(iban, limit));
+    }
+
+    @PostMapping("/exports")
+    public ResponseEntity<StatementExportResponse> startExport(@RequestBody StatementExportRequest request) {
+        return ResponseEntity.accepted().body(statementExportService.start(request));
+    }
+
+    @GetMapping("/exports/{id}")
+    public ResponseEntity<StatementExportResponse> getExport(@PathVariable Long id) {
+        return ResponseEntity.ok(statementExportService.getExport(id));
+    }
+
+    /**
+     * Dosya Resource olarak döner: Spring Range header'ını destekler (206) ve dosyayı sabit boyutlu
+     * tamponla kopyalar, dosya heap'e alınmaz. Export tamamlanmamışsa 409.
+     */
+    @GetMapping("/exports/{id}/file")
+    public ResponseEntity<Resource> downloadExport(@PathVariable Long id) {
+        return statementExportService.getFile(id)
+                .map(file -> ResponseEntity.ok()
+                        .contentType(TEXT_CSV)
+                        .header(HttpHeaders.CONTENT_DISPOSITION,
+                                ContentDisposition.attachment().filename(file.downloadName()).build().toString())
+                        .body((Resource) new FileSystemResource(file.path())))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    @GetMapping("/netting/reports")
+    public ResponseEntity<List<NettingWindowReport>> getNettingReports() {
+        return ResponseEntity.ok(nettingEngine.getReports());
+    }
+
+    @GetMapping("/fx/rates")
+    public ResponseEntity<FxRateTableResponse> getFxRates() {
+        return ResponseEntity.ok(fxRateService.getCurrentTable());
+    }
+
+    private TransferResponse submit(TransferRequest request) {
+        TransferIntakeService intake = intakeService.getIfAvailable();
+        return intake != null ? intake.accept(request) : transferService.executeTransfer(request);
+    }
+
+    private TransferResponse submit(TransferRequest request, String transactionId) {
+        TransferIntakeService intake = intakeService.getIfAvailable();
+        return intake != null
+                ? intake.accept(request, transactionId)
+                : transferService.executeTransfer(request, transactionId);
+    }
+
+    /**
+     * Henüz uygulanmamış kabul edilmiş transfer de bulunur; veritabanı primary'den okunur.
+     */
+    private Optional<TransferResponse> findTransfer(String transactionId) {
+        TransferIntakeService intake = intakeService.getIfAvailable();
+        Optional<TransferResponse> accepted = intake != null ? intake.findPending(transactionId) : Optional.empty();
+        return accepted.isPresent() ? accepted : transferService.findTransfer(transactionId);
+    }
 }
@@ -1,12 +1,11 @@
 package com.bankingledger.transferservice.dto;
 
+import com.bankingledger.common.money.Money;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
-
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -15,7 +14,6 @@ public class AccountResponse {
     private Long id;
     private String iban;
     private String accountHolder;
-    private BigDecimal balance;
-    private String currency;
+    private Money balance;
     private String status;
 }
@@ -0,0 +1,21 @@
+package com.bankingledger.transferservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FxRateTableResponse {
+    private long version;
+    private String source;
+    private LocalDateTime loadedAt;
+    private Map<String, BigDecimal> rates;
+}
@@ -0,0 +1,23 @@
+package com.bankingledger.transferservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NettingWindowReport {
+    private String batchId;
+    private LocalDateTime windowStart;
+    private LocalDateTime windowEnd;
+    private int transferCount;
+    private int accountsTouched;
+    private int grossRowUpdates;   // netting olmadan: transfer başına bir borç + bir alacak
+    private int netRowUpdates;     // net pozisyonu sıfır olmayan hesap sayısı
+    private double compressionRatio;
+}
@@ -0,0 +1,18 @@
+package com.bankingledger.transferservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatementExportRequest {
+    private String iban;
+    private LocalDate from; // dahil; boşsa ilk transferden itibaren
+    private LocalDate to;   // dahil; boşsa bugüne kadar
+}
@@ -0,0 +1,30 @@
+package com.bankingledger.transferservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatementExportResponse {
+    private Long id;
+    private String iban;
+    private LocalDate from;
+    private LocalDate to;
+    private String status;
+    private Long totalRows;
+    private long rowsWritten;
+    private long bytesWritten;
+    private Double progress; // 0-100, totalRows bilinmiyorsa null
+    private String downloadPath; // sadece COMPLETED iken
+    private String failureReason;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -1,12 +1,11 @@
 package com.bankingledger.transferservice.dto;
 
+import com.bankingledger.common.money.Money;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
-
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -14,7 +13,7 @@ import java.math.BigDecimal;
 public class TransferRequest {
     private String fromIban;
     private String toIban;
-    private BigDecimal amount;
-    private String currency;
+    private Money amount;
     private String description;
+    private boolean deferred; // true ise transfer netting penceresine alınır
 }
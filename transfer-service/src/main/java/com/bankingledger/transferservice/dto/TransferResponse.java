@@ -1,5 +1,6 @@
 package com.bankingledger.transferservice.dto;
 
+import com.bankingledger.common.money.Money;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -16,8 +17,10 @@ public class TransferResponse {
     private Long id;
     private String fromIban;
     private String toIban;
-    private BigDecimal amount;
-    private String currency;
+    private Money amount;
+    private Money creditAmount;
+    private Long fxRateVersion;
+    private BigDecimal fxRate;
     private String status;
     private String transactionId;
     private String description;
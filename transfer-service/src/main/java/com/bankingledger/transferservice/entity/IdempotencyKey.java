@@ -0,0 +1,49 @@
+package com.bankingledger.transferservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency-Key ile gönderilmiş bir transfer isteği. İlk istek IN_PROGRESS olarak rezerve eder,
+ * tamamlanınca cevap JSON olarak saklanır; aynı anahtarla gelen tekrarlar bu cevapla karşılanır.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyKey {
+
+    @Id
+    @Column(name = "idempotency_key")
+    private String idempotencyKey;
+
+    // İstek gövdesinin SHA-256'sı; aynı anahtar farklı istekle kullanılırsa reddedilir
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(nullable = false, length = 32)
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    private String transactionId;
+
+    @Column(columnDefinition = "TEXT")
+    private String response;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    public enum Status {
+        IN_PROGRESS, COMPLETED
+    }
+}
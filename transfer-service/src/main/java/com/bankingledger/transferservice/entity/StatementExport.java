@@ -0,0 +1,72 @@
+package com.bankingledger.transferservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * IBAN bazlı transfer geçmişi export işi. Dosya exports.dir altında {@code statement-<id>.csv} olarak tutulur.
+ */
+@Entity
+@Table(name = "statement_exports")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatementExport {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String iban;
+
+    // created_at aralığı [fromDate, toDate]; boşsa sınırsız
+    private LocalDate fromDate;
+
+    private LocalDate toDate;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ExportStatus status;
+
+    // İş başlarken aynı snapshot'ta sayılır; ilerleme rowsWritten / totalRows
+    private Long totalRows;
+
+    private long rowsWritten;
+
+    private long bytesWritten;
+
+    @Column(length = 500)
+    private String failureReason;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    // İşi tutan instance bunu periyodik yeniler; eskiyen QUEUED/RUNNING iş sahipsiz kalmıştır ve tekrar kuyruğa alınır
+    private LocalDateTime heartbeatAt;
+
+    @PrePersist
+    public void prePersist() {
+        this.createdAt = LocalDateTime.now();
+        this.heartbeatAt = this.createdAt;
+    }
+
+    public String fileName() {
+        return "statement-" + id + ".csv";
+    }
+
+    public enum ExportStatus {
+        QUEUED, RUNNING, COMPLETED, FAILED, EXPIRED
+    }
+}
@@ -0,0 +1,55 @@
+package com.bankingledger.transferservice.entity;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Transfer transactionId üretimi.
+ *
+ * ID'ler UUIDv7 formatındadır: ilk 48 bit oluşturulma anının epoch milisaniyesidir.
+ * Böylece transactionId ile yapılan aramalar transfers tablosunun sadece ilgili aylık
+ * partition'ında yapılabilir. Eski (v4) ID'lerde zaman bilgisi yoktur.
+ */
+public final class TransactionIds {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private TransactionIds() {
+    }
+
+    public static String newId() {
+        long millis = System.currentTimeMillis();
+        long msb = (millis << 16) | 0x7000L | (RANDOM.nextInt() & 0x0FFFL);
+        long lsb = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb).toString();
+    }
+
+    /**
+     * UUIDv7 bir transactionId'nin içindeki oluşturulma zamanı; diğer formatlar için boş.
+     */
+    public static Optional<LocalDateTime> timestampOf(String transactionId) {
+        try {
+            UUID uuid = UUID.fromString(transactionId);
+            if (uuid.version() != 7) {
+                return Optional.empty();
+            }
+            long millis = uuid.getMostSignificantBits() >>> 16;
+            return Optional.of(LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Transfer kaydının created_at değeri: ID'nin zaman damgası, yoksa şu an. Sonradan (ör. süresi dolmuş bir
+     * Idempotency-Key rezervasyonu devralınınca) kullanılan eski bir ID'nin kaydı da ID ile bulunduğu partition
+     * penceresine yazılır.
+     */
+    public static LocalDateTime createdAtOf(String transactionId) {
+        return timestampOf(transactionId).orElseGet(LocalDateTime::now);
+    }
+}
@@ -1,24 +1,31 @@
 package com.bankingledger.transferservice.entity;
 
+import com.bankingledger.common.money.Money;
+import com.bankingledger.common.money.MoneyType;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CompositeType;
+import org.springframework.data.domain.Persistable;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "transfers")
+@IdClass(TransferId.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class Transfer {
+public class Transfer implements Persistable<Long> {
 
+    // Hibernate composite ID'de IDENTITY üretimini desteklemez; BIGSERIAL'in sequence'i doğrudan kullanılır
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transfers_id_seq")
+    @SequenceGenerator(name = "transfers_id_seq", sequenceName = "transfers_id_seq", allocationSize = 1)
     private Long id;
 
     @Column(nullable = false)
@@ -27,11 +34,25 @@ public class Transfer {
     @Column(nullable = false)
     private String toIban;
 
-    @Column(nullable = false)
-    private BigDecimal amount;
+    @Embedded
+    @CompositeType(MoneyType.class)
+    @AttributeOverride(name = "amount", column = @Column(name = "amount", nullable = false, precision = 38, scale = Money.STORAGE_SCALE))
+    @AttributeOverride(name = "currency", column = @Column(name = "currency", nullable = false))
+    private Money amount;
 
-    @Column(nullable = false)
-    private String currency;
+    // Hedef hesaba yatırılan tutar; hedef hesap farklı para birimindeyse amount'un kur ile çevrilmiş hali
+    @Embedded
+    @CompositeType(MoneyType.class)
+    @AttributeOverride(name = "amount", column = @Column(name = "credit_amount", precision = 38, scale = Money.STORAGE_SCALE))
+    @AttributeOverride(name = "currency", column = @Column(name = "credit_currency"))
+    private Money creditAmount;
+
+    // Çevrimde kullanılan kur tablosu versiyonu ve kur; denetim için transferle birlikte saklanır
+    @Column(name = "fx_rate_version")
+    private Long fxRateVersion;
+
+    @Column(name = "fx_rate", precision = 38, scale = 8)
+    private BigDecimal fxRate;
 
     @Column(nullable = false)
     @Enumerated(EnumType.STRING)
@@ -40,18 +61,32 @@ public class Transfer {
     @Column(length = 500)
     private String description;
 
-    @Column(name = "transaction_id", unique = true, nullable = false)
+    @Column(length = 500)
+    private String failureReason;
+
+    @Column(name = "settlement_batch_id")
+    private String settlementBatchId;
+
+    // transfers partitioned olduğundan unique kısıt partition key'siz tanımlanamaz;
+    // transactionId UUIDv7 olarak üretilir (bkz. TransactionIds)
+    @Column(name = "transaction_id", nullable = false)
     private String transactionId;
 
+    // Partition key; PK'nın parçası olduğundan entity güncellemeleri WHERE id = ? AND created_at = ? ile yazılır
+    @Id
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    // Servis created_at'i transactionId'nin zaman damgasından atar (bkz. TransactionIds.createdAtOf); ID ile
+    // yapılan aramalar bu zamana göre tek partition tarar
     @PrePersist
     public void prePersist() {
-        this.createdAt = LocalDateTime.now();
+        if (this.createdAt == null) {
+            this.createdAt = LocalDateTime.now();
+        }
         this.updatedAt = LocalDateTime.now();
     }
 
@@ -60,7 +95,16 @@ public class Transfer {
         this.updatedAt = LocalDateTime.now();
     }
 
+    /**
+     * created_at kayıttan önce atandığından Spring Data yeni transferi ID'nin tamamına bakarak ayırt edemez
+     * (merge eder); sequence'ten ID almamış transfer yenidir.
+     */
+    @Override
+    public boolean isNew() {
+        return id == null;
+    }
+
     public enum TransferStatus {
-        PENDING, SUCCESS, FAILED, ROLLED_BACK
+        PENDING, DEBITED, COMPENSATING, NETTING, SETTLING, SUCCESS, FAILED, ROLLED_BACK
     }
 }
@@ -0,0 +1,22 @@
+package com.bankingledger.transferservice.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * transfers tablosunun primary key'i (id, created_at). created_at partition key olduğundan ID ile yapılan
+ * güncelleme ve okumalar sadece ilgili partition'ı tarar.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferId implements Serializable {
+
+    private Long id;
+
+    private LocalDateTime createdAt;
+}
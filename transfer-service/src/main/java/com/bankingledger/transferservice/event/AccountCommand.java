@@ -0,0 +1,26 @@
+package com.bankingledger.transferservice.event;
+
+import com.bankingledger.common.money.Money;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Transfer saga'sının account-service'e gönderdiği bakiye komutu.
+ * account-service bu komutu (transactionId, type) çiftine göre idempotent uygular.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountCommand {
+    private String transactionId;
+    private CommandType type;
+    private String iban;
+    private Money amount;
+
+    public enum CommandType {
+        DEBIT, CREDIT, REFUND
+    }
+}
@@ -0,0 +1,21 @@
+package com.bankingledger.transferservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * account-service'in bir {@link AccountCommand} sonucunu bildirdiği cevap.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountCommandReply {
+    private String transactionId;
+    private AccountCommand.CommandType type;
+    private boolean success;
+    private String reason;
+    private String accountHolder;
+}
@@ -0,0 +1,24 @@
+package com.bankingledger.transferservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Kur tablosunun tamamı. fx-rates compacted topic'ine tek key ile yazılır; her mesaj
+ * önceki tabloyu tamamen değiştirir.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FxRateTableEvent {
+    private long version; // artan sıra; dosya ile ortak versiyon sırasıdır
+    private Map<String, BigDecimal> rates; // "USD/TRY" -> 1 USD'nin TRY karşılığı
+    private LocalDateTime publishedAt;
+}
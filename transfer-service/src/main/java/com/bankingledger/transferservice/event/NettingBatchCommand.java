@@ -0,0 +1,30 @@
+package com.bankingledger.transferservice.event;
+
+import com.bankingledger.common.money.Money;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Bir netting penceresinin hesap başına net pozisyonları.
+ * account-service tüm girişleri tek transaction içinde, hesap başına tek UPDATE ile uygular.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NettingBatchCommand {
+    private String batchId;
+    private List<Entry> entries;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private String iban;
+        private Money delta; // negatif: borç, pozitif: alacak
+    }
+}
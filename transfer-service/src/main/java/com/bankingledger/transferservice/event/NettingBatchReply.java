@@ -0,0 +1,20 @@
+package com.bankingledger.transferservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NettingBatchReply {
+    private String batchId;
+    private boolean success;
+    private String reason;
+    // Başarısız batch'te uygulanamayan hesaplar; boşsa tüm batch başarısızdır
+    private List<String> rejectedIbans;
+}
@@ -0,0 +1,33 @@
+package com.bankingledger.transferservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bir instance'ın tek bir IBAN için tuttuğu velocity pencereleri. Compacted topic'e
+ * "iban|instanceId" key'i ile yazılır; her key için sadece son durum saklanır.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VelocityStateUpdate {
+    private String instanceId;
+    private String iban;
+    private Window minute;
+    private Window hour;
+
+    /**
+     * Pencere dilimleri yaşa göre sıralıdır: index 0 = epoch dilimi, index k = k dilim öncesi.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Window {
+        private long epoch;
+        private long[] counts;
+        private long[] amounts;
+    }
+}
@@ -0,0 +1,12 @@
+package com.bankingledger.transferservice.intake;
+
+import com.bankingledger.transferservice.dto.TransferRequest;
+
+import java.time.LocalDateTime;
+
+/**
+ * Intake log'a JSON olarak yazılan kabul edilmiş transfer isteği. transactionId ve acceptedAt kabul anında
+ * atanır; transfer kaydı uygulandığında da aynı değerlerle oluşturulur.
+ */
+public record IntakeEntry(String transactionId, LocalDateTime acceptedAt, TransferRequest request) {
+}
@@ -0,0 +1,527 @@
+package com.bankingledger.transferservice.intake;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Segmentli, memory-mapped append-only log. Kayıtlar artan sıra numarası alır; bir kayıt ancak diske
+ * kalıcı yazıldıktan (force) sonra "durable" sayılır ve okuyuculara görünür.
+ *
+ * Kayıt formatı: {@code [int uzunluk][int crc32c(seq + payload)][long seq][payload]}. Segment dosyaları
+ * sabit boyutta map edilir, boş kısım sıfırdır; uzunluğu 0 olan yer segmentin sonudur.
+ *
+ * fsync gruplanır: tek bir flusher thread'i bekleyen tüm yazmaları tek force ile kalıcı yapar, böylece
+ * eşzamanlı isteklerin maliyeti paylaşılır. Açılışta segmentler taranır; CRC'si veya sırası tutmayan
+ * ilk kayıt yarım yazılmış kabul edilir ve log oradan kesilir.
+ *
+ * Uygulanan son sıra numarası ayrı bir checkpoint dosyasında tutulur; tamamen uygulanmış segmentler silinir.
+ */
+@Slf4j
+public class IntakeLog implements Closeable {
+
+    static final int HEADER_BYTES = 16;
+    private static final String SEGMENT_PREFIX = "intake-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_FILE = "applied.seq";
+    private static final int ZERO_CHUNK = 64 * 1024;
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final long flushDelayNanos;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Condition appended = appendLock.newCondition();
+    private final ReentrantLock durableLock = new ReentrantLock();
+    private final Condition durableAdvanced = durableLock.newCondition();
+
+    // appendLock ile korunur
+    private final List<Segment> segments = new ArrayList<>();
+
+    private volatile long lastSequence;
+    private volatile long durableSequence;
+    private volatile long appliedSequence;
+    private volatile boolean closed;
+    private final Thread flusher;
+
+    private IntakeLog(Path dir, int segmentBytes, long flushDelayNanos) {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.flushDelayNanos = flushDelayNanos;
+        this.flusher = Thread.ofPlatform().name("intake-log-flusher").daemon().unstarted(this::flushLoop);
+    }
+
+    /**
+     * Log dizinini açar, mevcut segmentlerden kurtarma yapar ve flusher'ı başlatır.
+     *
+     * @param flushDelayNanos ilk bekleyen yazmadan sonra force öncesi daha fazla yazma toplamak için beklenen süre
+     */
+    public static IntakeLog open(Path dir, int segmentBytes, long flushDelayNanos) throws IOException {
+        Files.createDirectories(dir);
+        IntakeLog intakeLog = new IntakeLog(dir, segmentBytes, flushDelayNanos);
+        intakeLog.recover();
+        intakeLog.flusher.start();
+        return intakeLog;
+    }
+
+    /**
+     * Kaydı log'a ekler ve sıra numarasını döner. Kayıt henüz durable değildir; bkz. {@link #awaitDurable}.
+     */
+    public long append(byte[] payload) throws IOException {
+        int frameBytes = HEADER_BYTES + payload.length;
+        if (frameBytes > segmentBytes) {
+            throw new IllegalArgumentException("Intake record of " + payload.length
+                    + " bytes does not fit into a segment of " + segmentBytes + " bytes");
+        }
+
+        appendLock.lock();
+        try {
+            if (closed) {
+                throw new IOException("Intake log is closed");
+            }
+            Segment segment = segments.get(segments.size() - 1);
+            if (segment.writePosition + frameBytes > segment.capacity) {
+                segment = roll(segment);
+            }
+
+            long sequence = lastSequence + 1;
+            int position = segment.writePosition;
+            MappedByteBuffer buffer = segment.buffer;
+            buffer.putInt(position + 4, checksum(sequence, payload));
+            buffer.putLong(position + 8, sequence);
+            buffer.put(position + HEADER_BYTES, payload);
+            buffer.putInt(position, payload.length);
+
+            segment.writePosition = position + frameBytes;
+            segment.lastSequence = sequence;
+            lastSequence = sequence;
+            appended.signal();
+            return sequence;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * @return kayıt süre içinde diske kalıcı yazıldıysa true
+     */
+    public boolean awaitDurable(long sequence, long timeoutNanos) throws InterruptedException {
+        if (durableSequence >= sequence) {
+            return true;
+        }
+        long deadline = System.nanoTime() + timeoutNanos;
+        durableLock.lock();
+        try {
+            while (durableSequence < sequence) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || closed) {
+                    return false;
+                }
+                durableAdvanced.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    public long durableSequence() {
+        return durableSequence;
+    }
+
+    public long appliedSequence() {
+        return appliedSequence;
+    }
+
+    /**
+     * {@code afterSequence}'tan sonraki durable kayıtları sırayla okuyan bir okuyucu.
+     */
+    public Reader reader(long afterSequence) {
+        appendLock.lock();
+        try {
+            Segment segment = segments.get(0);
+            for (Segment candidate : segments) {
+                if (candidate.firstSequence <= afterSequence + 1) {
+                    segment = candidate;
+                }
+            }
+            Reader reader = new Reader(segment);
+            reader.skipTo(afterSequence + 1);
+            return reader;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Uygulanan son sıra numarasını checkpoint dosyasına yazar ve tamamen uygulanmış segmentleri siler.
+     */
+    public void markApplied(long sequence) throws IOException {
+        if (sequence <= appliedSequence) {
+            return;
+        }
+        Path temp = dir.resolve(CHECKPOINT_FILE + ".tmp");
+        ByteBuffer content = ByteBuffer.allocate(12);
+        content.putLong(sequence).putInt(checksum(sequence, new byte[0])).flip();
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (content.hasRemaining()) {
+                channel.write(content);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, dir.resolve(CHECKPOINT_FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        appliedSequence = sequence;
+
+        List<Segment> released = new ArrayList<>();
+        appendLock.lock();
+        try {
+            // Aktif segment hiç silinmez
+            while (segments.size() > 1 && segments.get(0).lastSequence <= sequence) {
+                released.add(segments.remove(0));
+            }
+        } finally {
+            appendLock.unlock();
+        }
+        for (Segment segment : released) {
+            segment.channel.close();
+            Files.deleteIfExists(segment.path);
+            log.debug("Intake segment {} fully applied and deleted", segment.path.getFileName());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            closed = true;
+            appended.signalAll();
+        } finally {
+            appendLock.unlock();
+        }
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        signalDurable();
+
+        appendLock.lock();
+        try {
+            for (Segment segment : segments) {
+                segment.buffer.force();
+                segment.channel.close();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+        log.info("Intake log closed at sequence {} (applied {})", lastSequence, appliedSequence);
+    }
+
+    private void flushLoop() {
+        while (true) {
+            appendLock.lock();
+            try {
+                while (lastSequence == durableSequence && !closed) {
+                    appended.awaitUninterruptibly();
+                }
+                if (closed && lastSequence == durableSequence) {
+                    return;
+                }
+            } finally {
+                appendLock.unlock();
+            }
+
+            if (flushDelayNanos > 0 && !closed) {
+                LockSupport.parkNanos(flushDelayNanos);
+            }
+
+            Segment segment;
+            int from;
+            int to;
+            long target;
+            appendLock.lock();
+            try {
+                segment = segments.get(segments.size() - 1);
+                from = segment.forcedPosition;
+                to = segment.writePosition;
+                target = lastSequence;
+            } finally {
+                appendLock.unlock();
+            }
+
+            try {
+                // Önceki segmentler roll sırasında force edilmiştir
+                if (to > from) {
+                    segment.buffer.force(from, to - from);
+                    segment.forcedPosition = to;
+                }
+                durableSequence = target;
+                signalDurable();
+            } catch (RuntimeException e) {
+                log.error("Intake log force failed, retrying: {}", e.getMessage(), e);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+            }
+        }
+    }
+
+    private void signalDurable() {
+        durableLock.lock();
+        try {
+            durableAdvanced.signalAll();
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    /**
+     * appendLock altında çağrılır: eski segmenti tamamen force eder ve yeni segmenti açar.
+     */
+    private Segment roll(Segment current) throws IOException {
+        current.buffer.force();
+        current.forcedPosition = current.writePosition;
+        Segment next = createSegment(lastSequence + 1);
+        segments.add(next);
+        log.debug("Intake log rolled to segment {}", next.path.getFileName());
+        return next;
+    }
+
+    private Segment createSegment(long firstSequence) throws IOException {
+        Path path = dir.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        Segment segment = new Segment(path, firstSequence, channel,
+                channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes), segmentBytes);
+        forceDirectory();
+        return segment;
+    }
+
+    private void recover() throws IOException {
+        appliedSequence = readCheckpoint();
+
+        List<Path> files;
+        try (Stream<Path> list = Files.list(dir)) {
+            files = list.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+
+        long expected = -1;
+        boolean truncated = false;
+        for (Path path : files) {
+            long firstSequence = Long.parseLong(path.getFileName().toString()
+                    .substring(SEGMENT_PREFIX.length(), path.getFileName().toString().length() - SEGMENT_SUFFIX.length()));
+            if (truncated || (expected >= 0 && firstSequence != expected)) {
+                log.warn("Intake segment {} follows a truncated or missing segment, deleting it", path.getFileName());
+                Files.delete(path);
+                continue;
+            }
+
+            // segment-bytes sonradan değişmiş olabilir; mevcut segmentler kendi boyutlarıyla açılır
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            int capacity = (int) Math.max(channel.size(), segmentBytes);
+            Segment segment = new Segment(path, firstSequence, channel,
+                    channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity), capacity);
+            segment.lastSequence = firstSequence - 1;
+            truncated = scan(segment);
+            segments.add(segment);
+            expected = segment.lastSequence + 1;
+        }
+
+        if (segments.isEmpty()) {
+            segments.add(createSegment(appliedSequence + 1));
+            lastSequence = appliedSequence;
+        } else {
+            lastSequence = segments.get(segments.size() - 1).lastSequence;
+        }
+        if (appliedSequence > lastSequence) {
+            throw new IOException("Intake checkpoint " + appliedSequence + " is ahead of the log (" + lastSequence + ")");
+        }
+        durableSequence = lastSequence;
+        log.info("Intake log recovered from {}: {} segments, sequence {}, applied {}, {} records pending",
+                dir, segments.size(), lastSequence, appliedSequence, lastSequence - appliedSequence);
+    }
+
+    /**
+     * Segmentteki geçerli kayıtları sayar ve ilk geçersiz kayıttan itibaren kalan kısmı sıfırlar.
+     *
+     * @return segment sonuna ulaşılmadan kesildiyse true
+     */
+    private boolean scan(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer;
+        int position = 0;
+        long expected = segment.firstSequence;
+        while (position + HEADER_BYTES <= segment.capacity) {
+            int length = buffer.getInt(position);
+            if (length == 0) {
+                break;
+            }
+            if (length < 0 || position + HEADER_BYTES + length > segment.capacity) {
+                return truncateAt(segment, position, "invalid length " + length);
+            }
+            long sequence = buffer.getLong(position + 8);
+            byte[] payload = new byte[length];
+            buffer.get(position + HEADER_BYTES, payload);
+            if (sequence != expected || buffer.getInt(position + 4) != checksum(sequence, payload)) {
+                return truncateAt(segment, position, "checksum or sequence mismatch at " + expected);
+            }
+            position += HEADER_BYTES + length;
+            segment.lastSequence = sequence;
+            expected++;
+        }
+        segment.writePosition = position;
+        segment.forcedPosition = position;
+        return false;
+    }
+
+    private boolean truncateAt(Segment segment, int position, String reason) {
+        log.warn("Intake segment {} truncated at offset {}: {}", segment.path.getFileName(), position, reason);
+        // Yarım kaydın arkasında kalan eski byte'lar sonraki kurtarmada kayıt gibi okunmamalı
+        byte[] zeros = new byte[ZERO_CHUNK];
+        for (int offset = position; offset < segment.capacity; offset += ZERO_CHUNK) {
+            segment.buffer.put(offset, zeros, 0, Math.min(ZERO_CHUNK, segment.capacity - offset));
+        }
+        segment.buffer.force();
+        segment.writePosition = position;
+        segment.forcedPosition = position;
+        return true;
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path path = dir.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (content.remaining() != 12) {
+            throw new IOException("Intake checkpoint " + path + " is corrupt");
+        }
+        long sequence = content.getLong();
+        if (content.getInt() != checksum(sequence, new byte[0])) {
+            throw new IOException("Intake checkpoint " + path + " failed its checksum");
+        }
+        return sequence;
+    }
+
+    private void forceDirectory() {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Bazı dosya sistemleri dizin fsync'ini desteklemez
+            log.debug("Directory fsync not supported for {}: {}", dir, e.getMessage());
+        }
+    }
+
+    private static int checksum(long sequence, byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(ByteBuffer.allocate(8).putLong(0, sequence));
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Okuyucunun bulunduğu segment bu arada silinmiş olabilir; bu yüzden index değil sıra numarası ile aranır.
+     */
+    private Segment segmentAfter(Segment segment) {
+        appendLock.lock();
+        try {
+            for (Segment candidate : segments) {
+                if (candidate.firstSequence > segment.firstSequence) {
+                    return candidate;
+                }
+            }
+            return null;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Tek thread'den kullanılır. Sadece durable kayıtları döner.
+     */
+    public final class Reader {
+
+        private Segment segment;
+        private int position;
+        private long nextSequence;
+
+        private Reader(Segment segment) {
+            this.segment = segment;
+            this.nextSequence = segment.firstSequence;
+        }
+
+        public long nextSequence() {
+            return nextSequence;
+        }
+
+        /**
+         * @return sıradaki durable kayıt, henüz yoksa null
+         */
+        public IntakeRecord next() {
+            if (nextSequence > durableSequence) {
+                return null;
+            }
+            // Kayıt var ama bu segmentte yer kalmamışsa bir sonraki segmenttedir
+            if (position + HEADER_BYTES > segment.capacity || segment.buffer.getInt(position) == 0) {
+                Segment following = segmentAfter(segment);
+                if (following == null) {
+                    return null;
+                }
+                segment = following;
+                position = 0;
+            }
+            int length = segment.buffer.getInt(position);
+            long sequence = segment.buffer.getLong(position + 8);
+            byte[] payload = new byte[length];
+            segment.buffer.get(position + HEADER_BYTES, payload);
+            position += HEADER_BYTES + length;
+            nextSequence = sequence + 1;
+            return new IntakeRecord(sequence, payload);
+        }
+
+        private void skipTo(long sequence) {
+            while (nextSequence < sequence && next() != null) {
+                // uygulanmış kayıtlar atlanır
+            }
+        }
+    }
+
+    private static final class Segment {
+
+        private final Path path;
+        private final long firstSequence;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        private int writePosition;
+        private volatile int forcedPosition;
+        private volatile long lastSequence;
+
+        private Segment(Path path, long firstSequence, FileChannel channel, MappedByteBuffer buffer, int capacity) {
+            this.path = path;
+            this.firstSequence = firstSequence;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.capacity = capacity;
+        }
+    }
+}
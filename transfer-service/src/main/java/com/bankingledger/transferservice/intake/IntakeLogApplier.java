@@ -0,0 +1,147 @@
+package com.bankingledger.transferservice.intake;
+
+import com.bankingledger.transferservice.client.AccountServiceUnavailableException;
+import com.bankingledger.transferservice.config.IntakeLogProperties;
+import com.bankingledger.transferservice.service.TransferService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Intake log'daki kabul edilmiş transferleri tek bir thread ile sırayla veritabanına uygular.
+ *
+ * Açılışta checkpoint'ten sonraki kayıtlar (crash öncesi uygulanmamış olanlar) bekleyen olarak işaretlenir ve
+ * kaldığı yerden devam edilir. Checkpoint'ten sonra uygulanmış ama checkpoint'i yazılmamış kayıtlar
+ * transactionId ile atlanır. Veritabanı veya account-service geçici hatasında aynı kayıt bekleyip tekrar denenir;
+ * sıra bozulmaz.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "intake.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class IntakeLogApplier {
+
+    private static final long IDLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final IntakeLog intakeLog;
+    private final TransferIntakeService intakeService;
+    private final TransferService transferService;
+    private final IntakeLogProperties properties;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long applied = intakeLog.appliedSequence();
+        int recovered = registerUnapplied(applied);
+        if (recovered > 0) {
+            log.info("Intake log recovery: {} accepted transfers after sequence {} will be applied", recovered, applied);
+        }
+        running = true;
+        thread = Thread.ofPlatform().name("intake-applier").start(() -> applyLoop(applied));
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    private int registerUnapplied(long applied) {
+        IntakeLog.Reader reader = intakeLog.reader(applied);
+        int count = 0;
+        IntakeRecord record;
+        while ((record = reader.next()) != null) {
+            try {
+                intakeService.registerPending(intakeService.read(record));
+                count++;
+            } catch (IOException e) {
+                // Apply sırasında tekrar okunup loglanacak
+            }
+        }
+        return count;
+    }
+
+    private void applyLoop(long applied) {
+        IntakeLog.Reader reader = intakeLog.reader(applied);
+        long lastApplied = applied;
+        long checkpointed = applied;
+        while (running) {
+            try {
+                IntakeRecord record = reader.next();
+                if (record == null) {
+                    if (lastApplied > checkpointed) {
+                        intakeLog.markApplied(lastApplied);
+                        checkpointed = lastApplied;
+                    }
+                    intakeLog.awaitDurable(reader.nextSequence(), IDLE_WAIT_NANOS);
+                    continue;
+                }
+
+                apply(record);
+                lastApplied = record.sequence();
+                if (lastApplied - checkpointed >= properties.getCheckpointInterval()) {
+                    intakeLog.markApplied(lastApplied);
+                    checkpointed = lastApplied;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (IOException e) {
+                log.error("Intake log checkpoint failed: {}", e.getMessage(), e);
+            }
+        }
+
+        try {
+            if (lastApplied > checkpointed) {
+                intakeLog.markApplied(lastApplied);
+            }
+        } catch (IOException e) {
+            log.error("Intake log checkpoint failed on shutdown: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Kayıt uygulanana kadar döner; sadece veritabanı hataları ve account-service'e ulaşılamaması tekrar denenir.
+     */
+    private void apply(IntakeRecord record) throws InterruptedException {
+        IntakeEntry entry;
+        try {
+            entry = intakeService.read(record);
+        } catch (IOException e) {
+            // CRC doğru ama içerik okunamıyor: tekrar denemek fayda etmez, sıranın ilerlemesi için atlanır
+            log.error("Skipping unreadable intake record {}: {}", record.sequence(), e.getMessage());
+            return;
+        }
+
+        while (true) {
+            try {
+                transferService.applyAccepted(entry.request(), entry.transactionId(), entry.acceptedAt());
+                intakeService.applied(entry.transactionId());
+                return;
+            } catch (DataAccessException | TransactionException | AccountServiceUnavailableException e) {
+                log.warn("Applying accepted transfer {} failed, retrying in {} ms: {}",
+                        entry.transactionId(), properties.getRetryBackoffMs(), e.getMessage());
+                if (!running) {
+                    throw new InterruptedException("Intake applier stopped");
+                }
+                Thread.sleep(properties.getRetryBackoffMs());
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.bankingledger.transferservice.intake;
+
+/**
+ * Intake log'dan okunan tek kayıt.
+ */
+public record IntakeRecord(long sequence, byte[] payload) {
+}
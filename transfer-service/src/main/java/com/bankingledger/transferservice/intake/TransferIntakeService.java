@@ -0,0 +1,151 @@
+package com.bankingledger.transferservice.intake;
+
+import com.bankingledger.transferservice.config.IntakeLogProperties;
+import com.bankingledger.transferservice.dto.TransferRequest;
+import com.bankingledger.transferservice.dto.TransferResponse;
+import com.bankingledger.transferservice.entity.TransactionIds;
+import com.bankingledger.transferservice.service.TransferOutcomeUnknownException;
+import com.bankingledger.transferservice.service.TransferService;
+import com.bankingledger.transferservice.service.VelocityLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transfer isteklerini veritabanına gitmeden kabul eder: istek intake log'a yazılır, diske kalıcı yazılınca
+ * ACCEPTED ile cevaplanır. Veritabanı yavaşlasa veya failover'da olsa da kabul gecikmesi sadece yerel fsync'e
+ * bağlıdır. Kayıtlar {@link IntakeLogApplier} tarafından sırayla uygulanır.
+ *
+ * Uygulanmamış istekler transactionId ile bellekte tutulur; sorgulandığında ACCEPTED döner.
+ */
+@Service
+@Profile("!reactive")
+@ConditionalOnProperty(name = "intake.enabled", havingValue = "true")
+@Slf4j
+public class TransferIntakeService {
+
+    static final String ACCEPTED = "ACCEPTED";
+
+    private final IntakeLog intakeLog;
+    private final VelocityLimiter velocityLimiter;
+    private final ObjectMapper objectMapper;
+    private final long ackTimeoutNanos;
+    private final Timer ackTimer;
+    private final Map<String, TransferResponse> pending = new ConcurrentHashMap<>();
+
+    public TransferIntakeService(IntakeLog intakeLog,
+                                 VelocityLimiter velocityLimiter,
+                                 ObjectMapper objectMapper,
+                                 IntakeLogProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this.intakeLog = intakeLog;
+        this.velocityLimiter = velocityLimiter;
+        this.objectMapper = objectMapper;
+        this.ackTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(properties.getAckTimeoutMs());
+        this.ackTimer = Timer.builder("transfer.intake.ack")
+                .description("Time from receiving a transfer request until its intake record is durable")
+                .publishPercentiles(0.5, 0.95, 0.99, 0.999)
+                .register(meterRegistry);
+        Gauge.builder("transfer.intake.backlog", intakeLog, l -> l.durableSequence() - l.appliedSequence())
+                .description("Accepted transfer requests not yet applied to the database")
+                .register(meterRegistry);
+    }
+
+    public TransferResponse accept(TransferRequest request) {
+        return accept(request, TransactionIds.newId());
+    }
+
+    /**
+     * @param transactionId önceden üretilmiş transactionId (ör. Idempotency-Key rezervasyonuna yazılmış olan)
+     */
+    public TransferResponse accept(TransferRequest request, String transactionId) {
+        Timer.Sample sample = Timer.start();
+        // Önceden üretilmiş ID'de kabul anı ID'nin zaman damgasıdır; kayıt ID ile aranan partition penceresine düşer
+        LocalDateTime acceptedAt = TransactionIds.createdAtOf(transactionId);
+
+        // İstek kontrolü ve velocity limitleri bellek içidir; reddedilen istek log'a yazılmaz
+        TransferService.validate(request);
+        velocityLimiter.checkAndRecord(request.getFromIban(), request.getAmount());
+
+        IntakeEntry entry = new IntakeEntry(transactionId, acceptedAt, request);
+        TransferResponse response = acceptedResponse(entry);
+        // Applier kaydı cevap dönmeden uygulayabilir; bu yüzden append'den önce eklenir
+        pending.put(transactionId, response);
+        long sequence;
+        try {
+            sequence = intakeLog.append(objectMapper.writeValueAsBytes(entry));
+        } catch (IOException e) {
+            // Log'a hiç yazılmadı; transfer uygulanmayacak
+            pending.remove(transactionId);
+            sample.stop(ackTimer);
+            throw new RuntimeException("Transfer intake failed: " + e.getMessage(), e);
+        }
+
+        // Bundan sonra kayıt log'dadır ve sonradan yine de kalıcı olup uygulanabilir; hata sonucu belirsiz bırakır
+        try {
+            if (!intakeLog.awaitDurable(sequence, ackTimeoutNanos)) {
+                throw new TransferOutcomeUnknownException("Transfer " + transactionId
+                        + " could not be made durable within " + TimeUnit.NANOSECONDS.toMillis(ackTimeoutNanos)
+                        + " ms; query it by transactionId before resubmitting", null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransferOutcomeUnknownException(
+                    "Interrupted while accepting transfer " + transactionId, e);
+        } finally {
+            sample.stop(ackTimer);
+        }
+
+        log.info("Transfer {} accepted into intake log from {} to {} amount: {}",
+                transactionId, request.getFromIban(), request.getToIban(), request.getAmount());
+        return response;
+    }
+
+    /**
+     * @return henüz uygulanmamış kabul edilmiş transfer
+     */
+    public Optional<TransferResponse> findPending(String transactionId) {
+        return Optional.ofNullable(pending.get(transactionId));
+    }
+
+    IntakeEntry read(IntakeRecord record) throws IOException {
+        return objectMapper.readValue(record.payload(), IntakeEntry.class);
+    }
+
+    /**
+     * Kurtarma sırasında log'daki uygulanmamış kayıtlar tekrar sorgulanabilir hale getirilir.
+     */
+    void registerPending(IntakeEntry entry) {
+        pending.put(entry.transactionId(), acceptedResponse(entry));
+    }
+
+    void applied(String transactionId) {
+        pending.remove(transactionId);
+    }
+
+    private static TransferResponse acceptedResponse(IntakeEntry entry) {
+        TransferRequest request = entry.request();
+        return TransferResponse.builder()
+                .fromIban(request.getFromIban())
+                .toIban(request.getToIban())
+                .amount(request.getAmount())
+                .status(ACCEPTED)
+                .transactionId(entry.transactionId())
+                .description(request.getDescription())
+                .createdAt(entry.acceptedAt())
+                .updatedAt(entry.acceptedAt())
+                .build();
+    }
+}
@@ -0,0 +1,55 @@
+package com.bankingledger.transferservice.loadbalancer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load balancer child context'i (servis başına) için bean'ler; {@code config.LoadBalancerConfig} üzerinden
+ * tüm client'lara varsayılan olarak uygulanır. Spring Cloud LoadBalancer gereği @Configuration değildir
+ * ve component scan ile ana context'e alınmamalıdır.
+ */
+public class LatencyAwareLoadBalancerConfiguration {
+
+    @Bean
+    public LatencyStatsRegistry latencyStatsRegistry(
+            Environment environment,
+            @Value("${loadbalancer.latency-aware.decay-ms:10000}") long decayMs,
+            @Value("${loadbalancer.latency-aware.failure-threshold:3}") int failureThreshold,
+            @Value("${loadbalancer.latency-aware.ejection-ms:5000}") long ejectionMs,
+            @Value("${loadbalancer.latency-aware.max-ejection-ms:60000}") long maxEjectionMs,
+            @Value("${loadbalancer.latency-aware.initial-latency-ms:50}") long initialLatencyMs) {
+        return new LatencyStatsRegistry(
+                environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME),
+                new LatencyStatsRegistry.Settings(
+                        TimeUnit.MILLISECONDS.toNanos(decayMs),
+                        failureThreshold,
+                        TimeUnit.MILLISECONDS.toNanos(ejectionMs),
+                        TimeUnit.MILLISECONDS.toNanos(maxEjectionMs),
+                        TimeUnit.MILLISECONDS.toNanos(initialLatencyMs)));
+    }
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(
+            Environment environment,
+            LoadBalancerClientFactory loadBalancerClientFactory,
+            LatencyStatsRegistry latencyStatsRegistry) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new LatencyAwareLoadBalancer(
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                latencyStatsRegistry);
+    }
+
+    @Bean
+    public LoadBalancerLifecycle<Object, Object, ServiceInstance> latencyTrackingLifecycle(
+            LatencyStatsRegistry latencyStatsRegistry) {
+        return new LatencyTrackingLifecycle(latencyStatsRegistry);
+    }
+}
@@ -0,0 +1,57 @@
+package com.bankingledger.transferservice.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Bir servisin instance istatistikleri. Her load balancer child context'inde (servis başına) bir tane bulunur;
+ * {@link LatencyAwareLoadBalancer} okur, {@link LatencyTrackingLifecycle} günceller.
+ */
+public class LatencyStatsRegistry {
+
+    private final String serviceId;
+    private final Settings settings;
+    private final ConcurrentMap<String, InstanceLatencyStats> stats = new ConcurrentHashMap<>();
+
+    public LatencyStatsRegistry(String serviceId, Settings settings) {
+        this.serviceId = serviceId;
+        this.settings = settings;
+    }
+
+    String serviceId() {
+        return serviceId;
+    }
+
+    InstanceLatencyStats stats(ServiceInstance instance) {
+        return stats.computeIfAbsent(keyOf(instance), key -> new InstanceLatencyStats(settings, System.nanoTime()));
+    }
+
+    /**
+     * Discovery listesinden düşen instance'ların istatistiklerini siler; liste küçülmediyse iş yapmaz.
+     */
+    void retain(Collection<ServiceInstance> instances) {
+        if (stats.size() <= instances.size()) {
+            return;
+        }
+        Set<String> live = new HashSet<>();
+        for (ServiceInstance instance : instances) {
+            live.add(keyOf(instance));
+        }
+        stats.keySet().retainAll(live);
+    }
+
+    static String keyOf(ServiceInstance instance) {
+        return instance.getInstanceId() != null
+                ? instance.getInstanceId()
+                : instance.getHost() + ":" + instance.getPort();
+    }
+
+    public record Settings(long decayNanos, int failureThreshold, long baseEjectionNanos,
+                           long maxEjectionNanos, long initialLatencyNanos) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.bankingledger.transferservice.repository;
+
+import com.bankingledger.transferservice.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Tüm metodlar ayrı ve read-only olmayan transaction'da çalışır: rezervasyon transfer başlamadan commit
+ * edilmeli ve kontrol okumaları replica gecikmesinden etkilenmemelidir (primary'den okunur).
+ */
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    /**
+     * Anahtarı IN_PROGRESS olarak ve transfer çalışmadan önce transactionId ile birlikte rezerve eder. Rezervasyonun
+     * süresi kısadır, böylece tamamlanmadan çöken bir instance'ın tuttuğu anahtar kısa sürede devralınabilir.
+     *
+     * Süresi dolmuş kaydın yerine geçerken: tamamlanmış kayıt (TTL geçmiş) yeni istekle tamamen değişir; yarıda
+     * kalmış (IN_PROGRESS) kayıt ise sadece aynı istek tarafından ve eski transactionId korunarak devralınır, böylece
+     * ilk denemenin transferi aynı transactionId ile bulunabilir ve ikinci bir transfer oluşmaz.
+     *
+     * @return 1 ise anahtar bu çağrıya ait (transactionId kayıttan okunmalı), 0 ise başka bir istek tarafından tutuluyor
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, request_hash, status, transaction_id, created_at, expires_at) "
+            + "VALUES (:key, :hash, 'IN_PROGRESS', :transactionId, :now, :expiresAt) "
+            + "ON CONFLICT (idempotency_key) DO UPDATE SET request_hash = EXCLUDED.request_hash, "
+            + "status = EXCLUDED.status, response = NULL, "
+            + "transaction_id = CASE WHEN idempotency_keys.status = 'IN_PROGRESS' "
+            + "THEN COALESCE(idempotency_keys.transaction_id, EXCLUDED.transaction_id) "
+            + "ELSE EXCLUDED.transaction_id END, "
+            + "created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at "
+            + "WHERE idempotency_keys.expires_at < :now "
+            + "AND (idempotency_keys.status = 'COMPLETED' OR idempotency_keys.request_hash = EXCLUDED.request_hash)",
+            nativeQuery = true)
+    int reserve(@Param("key") String key, @Param("hash") String hash, @Param("transactionId") String transactionId,
+                @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    Optional<IdempotencyKey> findByIdempotencyKey(String idempotencyKey);
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("update IdempotencyKey k "
+            + "set k.status = com.bankingledger.transferservice.entity.IdempotencyKey.Status.COMPLETED, "
+            + "k.transactionId = :transactionId, k.response = :response, k.expiresAt = :expiresAt "
+            + "where k.idempotencyKey = :key")
+    int complete(@Param("key") String key, @Param("transactionId") String transactionId,
+                 @Param("response") String response, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Hata ile biten isteğin rezervasyonunu kaldırır; aynı anahtarla tekrar denenebilir.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.idempotencyKey = :key "
+            + "and k.status = com.bankingledger.transferservice.entity.IdempotencyKey.Status.IN_PROGRESS")
+    int release(@Param("key") String key);
+
+    /**
+     * Süresi dolmuş tamamlanmış anahtarları siler. IN_PROGRESS rezervasyonun kısa süresi sadece devralma içindir;
+     * kayıt transactionId'yi tuttuğu için anahtarın tam TTL'i ({@code createdBefore}) dolana kadar silinmez,
+     * aksi halde sonucu belirsiz kalan isteğin tekrarı yeni bir transactionId ile ikinci transfer oluştururdu.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyKey k where "
+            + "(k.status = com.bankingledger.transferservice.entity.IdempotencyKey.Status.COMPLETED and k.expiresAt < :now) "
+            + "or (k.status = com.bankingledger.transferservice.entity.IdempotencyKey.Status.IN_PROGRESS "
+            + "and k.createdAt < :createdBefore)")
+    int deleteExpired(@Param("now") LocalDateTime now, @Param("createdBefore") LocalDateTime createdBefore);
+}
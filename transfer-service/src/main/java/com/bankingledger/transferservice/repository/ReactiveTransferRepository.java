@@ -0,0 +1,160 @@
+package com.bankingledger.transferservice.repository;
+
+import com.bankingledger.common.money.Money;
+import com.bankingledger.transferservice.entity.TransactionIds;
+import com.bankingledger.transferservice.entity.Transfer;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * transfers tablosuna R2DBC ile erişim; reactive profilinde istek yolunda {@link TransferRepository} yerine kullanılır.
+ *
+ * Transfer entity'si JPA ile eşlendiğinden (embedded Money, @PrePersist) kolonlar burada elle bağlanır;
+ * created_at/updated_at de JPA callback'i çalışmadığı için insert sırasında atanır.
+ */
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveTransferRepository {
+
+    private static final String COLUMNS = "id, from_iban, to_iban, amount, currency, credit_amount, credit_currency, "
+            + "fx_rate_version, fx_rate, status, description, failure_reason, settlement_batch_id, transaction_id, "
+            + "created_at, updated_at";
+
+    private static final String INSERT_SQL = """
+            INSERT INTO transfers (from_iban, to_iban, amount, currency, credit_amount, credit_currency,
+                                   fx_rate_version, fx_rate, status, description, failure_reason,
+                                   transaction_id, created_at, updated_at)
+            VALUES (:fromIban, :toIban, :amount, :currency, :creditAmount, :creditCurrency,
+                    :fxRateVersion, :fxRate, :status, :description, :failureReason,
+                    :transactionId, :createdAt, :updatedAt)
+            RETURNING id
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Transfer'i ekler ve id ile zaman damgaları atanmış halini döner.
+     */
+    public Mono<Transfer> insert(Transfer transfer) {
+        LocalDateTime now = LocalDateTime.now();
+        transfer.setCreatedAt(now);
+        transfer.setUpdatedAt(now);
+
+        Money creditAmount = transfer.getCreditAmount();
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(INSERT_SQL)
+                .bind("fromIban", transfer.getFromIban())
+                .bind("toIban", transfer.getToIban())
+                .bind("amount", transfer.getAmount().toBigDecimal())
+                .bind("currency", transfer.getAmount().currency())
+                .bind("status", transfer.getStatus().name())
+                .bind("transactionId", transfer.getTransactionId())
+                .bind("createdAt", now)
+                .bind("updatedAt", now);
+        spec = bindNullable(spec, "creditAmount", creditAmount != null ? creditAmount.toBigDecimal() : null, BigDecimal.class);
+        spec = bindNullable(spec, "creditCurrency", creditAmount != null ? creditAmount.currency() : null, String.class);
+        spec = bindNullable(spec, "fxRateVersion", transfer.getFxRateVersion(), Long.class);
+        spec = bindNullable(spec, "fxRate", transfer.getFxRate(), BigDecimal.class);
+        spec = bindNullable(spec, "description", transfer.getDescription(), String.class);
+        spec = bindNullable(spec, "failureReason", transfer.getFailureReason(), String.class);
+
+        return spec.map(row -> row.get("id", Long.class))
+                .one()
+                .map(id -> {
+                    transfer.setId(id);
+                    return transfer;
+                });
+    }
+
+    /**
+     * {@link TransferRepository#findFirstById} karşılığı; created_at bilinmediğinden tüm partition'lar taranır.
+     */
+    public Mono<Transfer> findById(Long id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM transfers WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveTransferRepository::mapRow)
+                .first();
+    }
+
+    /**
+     * {@link TransferRepository#findByTransactionIdPruned} ile aynı: UUIDv7 zaman damgası ile tek partition taranır;
+     * tüm partition'larda sadece zaman damgası olmayan (eski) ID'ler aranır.
+     */
+    public Mono<Transfer> findByTransactionIdPruned(String transactionId) {
+        Mono<Transfer> unpruned = Mono.defer(() -> databaseClient
+                .sql("SELECT " + COLUMNS + " FROM transfers WHERE transaction_id = :transactionId")
+                .bind("transactionId", transactionId)
+                .map(ReactiveTransferRepository::mapRow)
+                .first());
+
+        return TransactionIds.timestampOf(transactionId)
+                .map(created -> databaseClient
+                        .sql("SELECT " + COLUMNS + " FROM transfers WHERE transaction_id = :transactionId "
+                                + "AND created_at BETWEEN :from AND :to")
+                        .bind("transactionId", transactionId)
+                        .bind("from", created.minusMinutes(5))
+                        .bind("to", created.plusHours(1))
+                        .map(ReactiveTransferRepository::mapRow)
+                        .first())
+                .orElse(unpruned);
+    }
+
+    /**
+     * {@link TransferRepository#findByFromIbanOrderByCreatedAtDesc} karşılığı.
+     */
+    public Flux<Transfer> findRecentByFromIban(String iban, int limit) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM transfers WHERE from_iban = :iban "
+                        + "ORDER BY created_at DESC LIMIT :limit")
+                .bind("iban", iban)
+                .bind("limit", limit)
+                .map(ReactiveTransferRepository::mapRow)
+                .all();
+    }
+
+    /**
+     * {@link TransferRepository#findByToIbanOrderByCreatedAtDesc} karşılığı.
+     */
+    public Flux<Transfer> findRecentByToIban(String iban, int limit) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM transfers WHERE to_iban = :iban "
+                        + "ORDER BY created_at DESC LIMIT :limit")
+                .bind("iban", iban)
+                .bind("limit", limit)
+                .map(ReactiveTransferRepository::mapRow)
+                .all();
+    }
+
+    private static <T> DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec,
+                                                                     String name, T value, Class<T> type) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, type);
+    }
+
+    private static Transfer mapRow(Readable row) {
+        BigDecimal creditAmount = row.get("credit_amount", BigDecimal.class);
+        return Transfer.builder()
+                .id(row.get("id", Long.class))
+                .fromIban(row.get("from_iban", String.class))
+                .toIban(row.get("to_iban", String.class))
+                .amount(Money.of(row.get("amount", BigDecimal.class), row.get("currency", String.class)))
+                .creditAmount(creditAmount != null
+                        ? Money.of(creditAmount, row.get("credit_currency", String.class))
+                        : null)
+                .fxRateVersion(row.get("fx_rate_version", Long.class))
+                .fxRate(row.get("fx_rate", BigDecimal.class))
+                .status(Transfer.TransferStatus.valueOf(row.get("status", String.class)))
+                .description(row.get("description", String.class))
+                .failureReason(row.get("failure_reason", String.class))
+                .settlementBatchId(row.get("settlement_batch_id", String.class))
+                .transactionId(row.get("transaction_id", String.class))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .updatedAt(row.get("updated_at", LocalDateTime.class))
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.bankingledger.transferservice.repository;
+
+import com.bankingledger.transferservice.entity.StatementExport;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StatementExportRepository extends JpaRepository<StatementExport, Long> {
+    List<StatementExport> findByStatusInAndFinishedAtBefore(Collection<StatementExport.ExportStatus> statuses,
+                                                            LocalDateTime finishedBefore);
+
+    /**
+     * Export read-only cursor transaction'ı içinden çağrılır; ilerleme ayrı bir transaction'da primary'ye yazılır.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("update StatementExport e set e.rowsWritten = :rows, e.bytesWritten = :bytes where e.id = :id")
+    int updateProgress(@Param("id") Long id, @Param("rows") long rows, @Param("bytes") long bytes);
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("update StatementExport e set e.totalRows = :total where e.id = :id")
+    int updateTotalRows(@Param("id") Long id, @Param("total") Long total);
+
+    /**
+     * Durum geçişleri koşullu update ile yazılır; bellekteki eski entity'nin save'i ilerleme alanlarını
+     * ezmez ve sahipsiz diye tekrar kuyruğa alınan işle yarışan eski çalıştırma durumu geri çeviremez.
+     *
+     * @return 0 ise iş artık QUEUED değil (başka instance aldı veya süresi doldu)
+     */
+    @Transactional
+    @Modifying
+    @Query("update StatementExport e set e.status = com.bankingledger.transferservice.entity.StatementExport.ExportStatus.RUNNING, "
+            + "e.startedAt = :now, e.heartbeatAt = :now "
+            + "where e.id = :id and e.status = com.bankingledger.transferservice.entity.StatementExport.ExportStatus.QUEUED")
+    int markRunning(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update StatementExport e set e.status = com.bankingledger.transferservice.entity.StatementExport.ExportStatus.COMPLETED, "
+            + "e.rowsWritten = :rows, e.bytesWritten = :bytes, e.finishedAt = :now "
+            + "where e.id = :id and e.status = com.bankingledger.transferservice.entity.StatementExport.ExportStatus.RUNNING")
+    int markCompleted(@Param("id") Long id, @Param("rows") long rows, @Param("bytes") long bytes,
+                      @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update StatementExport e set e.status = com.bankingledger.transferservice.entity.StatementExport.ExportStatus.FAILED, "
+            + "e.failureReason = :reason, e.finishedAt = :now "
+            + "where e.id = :id and e.status = com.bankingledger.transferservice.entity.StatementExport.ExportStatus.RUNNING")
+    int markFailed(@Param("id") Long id, @Param("reason") String reason, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update StatementExport e set e.heartbeatAt = :now where e.id in :ids "
+            + "and e.status in (com.bankingledger.transferservice.entity.StatementExport.ExportStatus.QUEUED, "
+            + "com.bankingledger.transferservice.entity.StatementExport.ExportStatus.RUNNING)")
+    int touch(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * Heartbeat kolonu eklenmeden önce oluşmuş işlerde heartbeat yoktur; createdAt kullanılır.
+     */
+    @Query("select e from StatementExport e where e.status in :statuses "
+            + "and coalesce(e.heartbeatAt, e.createdAt) < :heartbeatBefore")
+    List<StatementExport> findStale(@Param("statuses") Collection<StatementExport.ExportStatus> statuses,
+                                    @Param("heartbeatBefore") LocalDateTime heartbeatBefore);
+
+    /**
+     * Sahipsiz işi baştan çalıştırmak üzere sahiplenir; okunan heartbeat değişmişse başka instance almıştır.
+     */
+    @Transactional
+    @Modifying
+    @Query("update StatementExport e set e.status = com.bankingledger.transferservice.entity.StatementExport.ExportStatus.QUEUED, "
+            + "e.startedAt = null, e.totalRows = null, e.rowsWritten = 0, e.bytesWritten = 0, e.heartbeatAt = :now "
+            + "where e.id = :id and coalesce(e.heartbeatAt, e.createdAt) = :heartbeat "
+            + "and e.status in (com.bankingledger.transferservice.entity.StatementExport.ExportStatus.QUEUED, "
+            + "com.bankingledger.transferservice.entity.StatementExport.ExportStatus.RUNNING)")
+    int requeue(@Param("id") Long id, @Param("heartbeat") LocalDateTime heartbeat, @Param("now") LocalDateTime now);
+}
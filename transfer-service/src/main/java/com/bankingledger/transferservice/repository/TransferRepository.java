@@ -1,15 +1,88 @@
 package com.bankingledger.transferservice.repository;
 
+import com.bankingledger.transferservice.entity.TransactionIds;
 import com.bankingledger.transferservice.entity.Transfer;
+import com.bankingledger.transferservice.entity.TransferId;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TransferRepository extends JpaRepository<Transfer, Long> {
+public interface TransferRepository extends JpaRepository<Transfer, TransferId> {
+
+    /**
+     * Sadece ID ile arama (API'nin /{id} ucu); created_at bilinmediğinden tüm partition'lar taranır. Saga ve
+     * netting transferleri transactionId veya tam primary key ile bulur.
+     */
+    Optional<Transfer> findFirstById(Long id);
     Optional<Transfer> findByTransactionId(String transactionId);
+    Optional<Transfer> findByTransactionIdAndCreatedAtBetween(String transactionId, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * transactionId UUIDv7 ise içindeki zaman damgası ile sadece ilgili aylık partition taranır. created_at ID'nin
+     * zaman damgasından atanır (bkz. {@link TransactionIds#createdAtOf}); pencerede yoksa kayıt yoktur (yeni
+     * transferlerde bu normal durumdur).
+     * Tüm partition'larda sadece zaman damgası olmayan (eski) ID'ler aranır.
+     */
+    default Optional<Transfer> findByTransactionIdPruned(String transactionId) {
+        Optional<LocalDateTime> created = TransactionIds.timestampOf(transactionId);
+        if (created.isEmpty()) {
+            return findByTransactionId(transactionId);
+        }
+        return findByTransactionIdAndCreatedAtBetween(
+                transactionId, created.get().minusMinutes(5), created.get().plusHours(1));
+    }
     List<Transfer> findByFromIban(String fromIban);
     List<Transfer> findByToIban(String toIban);
+    List<Transfer> findByFromIbanOrderByCreatedAtDesc(String fromIban, Pageable pageable);
+    List<Transfer> findByToIbanOrderByCreatedAtDesc(String toIban, Pageable pageable);
+    List<Transfer> findTop500ByStatusInAndUpdatedAtBefore(Collection<Transfer.TransferStatus> statuses,
+                                                          LocalDateTime updatedBefore);
+    List<Transfer> findByStatus(Transfer.TransferStatus status);
+    List<Transfer> findBySettlementBatchIdAndStatus(String settlementBatchId, Transfer.TransferStatus status);
+    List<Transfer> findBySettlementBatchIdAndStatusAndCreatedAtBetween(String settlementBatchId,
+                                                                       Transfer.TransferStatus status,
+                                                                       LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Penceredeki transferleri batch'e alır; created_at aralığı sadece pencerenin partition'larının taranmasını sağlar.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Transfer t set t.settlementBatchId = :batchId, t.status = :to, t.updatedAt = CURRENT_TIMESTAMP " +
+            "where t.id in :ids and t.createdAt between :createdFrom and :createdTo and t.status = :from")
+    int assignSettlementBatch(@Param("ids") Collection<Long> ids,
+                              @Param("createdFrom") LocalDateTime createdFrom,
+                              @Param("createdTo") LocalDateTime createdTo,
+                              @Param("batchId") String batchId,
+                              @Param("from") Transfer.TransferStatus from,
+                              @Param("to") Transfer.TransferStatus to);
+
+    /**
+     * Takılmış saga'yı yeniden göndermeden önce sahiplenir: sadece durum ve updated_at okunduğu gibiyse
+     * günceller. Bu arada commit edilmiş bir cevap geçişinin üzerine yazılmaz.
+     *
+     * @return 0 ise transfer bu arada ilerlemiş veya başka bir instance tarafından sahiplenilmiştir
+     */
+    @Modifying
+    @Query("update Transfer t set t.updatedAt = :now " +
+            "where t.id = :id and t.createdAt = :createdAt and t.status = :status and t.updatedAt = :updatedAt")
+    int touchIfUnchanged(@Param("id") Long id,
+                         @Param("createdAt") LocalDateTime createdAt,
+                         @Param("status") Transfer.TransferStatus status,
+                         @Param("updatedAt") LocalDateTime updatedAt,
+                         @Param("now") LocalDateTime now);
+
+    @Query("select distinct t.settlementBatchId from Transfer t where t.status = :status and t.updatedAt < :before")
+    List<String> findStalledSettlementBatchIds(@Param("status") Transfer.TransferStatus status,
+                                               @Param("before") LocalDateTime before);
 }
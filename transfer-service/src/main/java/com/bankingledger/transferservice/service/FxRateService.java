@@ -0,0 +1,138 @@
+package com.bankingledger.transferservice.service;
+
+import com.bankingledger.common.money.Money;
+import com.bankingledger.transferservice.dto.FxRateTableResponse;
+import com.bankingledger.transferservice.event.FxRateTableEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Çapraz para birimli transferler için bellekteki kur tablosu.
+ *
+ * Tablo yerel bir dosyadan ve fx-rates topic'inden beslenir. Her güncelleme yeni bir
+ * {@link FxRateSnapshot} oluşturup volatile referansı tek adımda değiştirir (copy-on-write);
+ * okuyucular kilit almaz ve çevrim sırasında DB veya ağ çağrısı yapılmaz. Sadece mevcut
+ * versiyondan büyük versiyonlar kabul edilir, böylece dosya ve topic yarışında eski tablo
+ * yenisinin üzerine yazılmaz.
+ */
+@Service
+@Slf4j
+public class FxRateService {
+
+    private static final String VERSION_KEY = "version";
+
+    @Value("${fx.rates-file:}")
+    private String ratesFile;
+
+    private volatile FxRateSnapshot current = FxRateSnapshot.EMPTY;
+    private volatile long ratesFileModified;
+
+    /**
+     * Transferin tabi olduğu kur; transfer kaydına versiyonu ile birlikte yazılır.
+     */
+    public record Quote(Money converted, long rateVersion, BigDecimal rate) {
+    }
+
+    /**
+     * @throws RuntimeException çift için kur yoksa
+     */
+    public Quote convert(Money amount, String targetCurrency) {
+        FxRateSnapshot snapshot = current;
+        FxRateSnapshot.Rate rate = snapshot.rate(amount.currency(), targetCurrency);
+        if (rate == null) {
+            throw new RuntimeException("No FX rate for " + amount.currency() + "/" + targetCurrency
+                    + " in rate table version " + snapshot.version());
+        }
+        int scaleShift = Money.scaleOf(targetCurrency) - amount.scale();
+        long converted = FxRateSnapshot.convert(amount.minorUnits(), rate, scaleShift);
+        return new Quote(Money.ofMinor(converted, targetCurrency), snapshot.version(), rate.value());
+    }
+
+    public FxRateTableResponse getCurrentTable() {
+        FxRateSnapshot snapshot = current;
+        return FxRateTableResponse.builder()
+                .version(snapshot.version())
+                .source(snapshot.source())
+                .loadedAt(snapshot.loadedAt())
+                .rates(snapshot.pairs())
+                .build();
+    }
+
+    public void onRateTable(FxRateTableEvent event) {
+        if (event.getRates() == null) {
+            log.warn("Ignoring FX rate table version {} without rates", event.getVersion());
+            return;
+        }
+        swap(event.getVersion(), "topic", event.getRates());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        reloadRatesFile();
+    }
+
+    /**
+     * Dosya değiştiyse yeniden yükler. Sadece son değişiklik zamanı kontrol edilir.
+     */
+    @Scheduled(fixedDelayString = "${fx.reload-interval-ms:5000}")
+    public void reloadRatesFile() {
+        if (ratesFile == null || ratesFile.isBlank()) {
+            return;
+        }
+
+        Path path = Path.of(ratesFile);
+        try {
+            if (!Files.exists(path)) {
+                return;
+            }
+            long modified = Files.getLastModifiedTime(path).toMillis();
+            if (modified == ratesFileModified) {
+                return;
+            }
+
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+            Map<String, BigDecimal> rates = new HashMap<>();
+            for (String pair : properties.stringPropertyNames()) {
+                if (!VERSION_KEY.equals(pair)) {
+                    rates.put(pair, new BigDecimal(properties.getProperty(pair).trim()));
+                }
+            }
+            swap(Long.parseLong(properties.getProperty(VERSION_KEY, "0").trim()), "file:" + path, rates);
+            ratesFileModified = modified;
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to load FX rates from {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Yeni snapshot önce tamamen oluşturulur, sonra tek bir volatile yazma ile yayınlanır.
+     * Yazarlar nadir olduğu için kendi aralarında senkronize edilir; okuyucular etkilenmez.
+     */
+    private synchronized void swap(long version, String source, Map<String, BigDecimal> rates) {
+        if (version <= current.version()) {
+            log.debug("Ignoring FX rate table version {} from {}, current version is {}",
+                    version, source, current.version());
+            return;
+        }
+        FxRateSnapshot snapshot = FxRateSnapshot.of(version, source, rates);
+        current = snapshot;
+        log.info("FX rate table version {} loaded from {} with {} pairs", version, source, snapshot.pairs().size());
+    }
+}
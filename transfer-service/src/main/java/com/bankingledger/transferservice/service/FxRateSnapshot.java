@@ -0,0 +1,135 @@
+package com.bankingledger.transferservice.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Belirli bir versiyondaki değişmez kur tablosu.
+ *
+ * Kurlar yüklenirken 10^8 ölçekli long'a çevrilir ve eksik ters yönler hesaplanır;
+ * çevrim sırasında BigDecimal veya String birleştirme yapılmaz. Yeni tablo geldiğinde
+ * bu nesne değiştirilmez, yerine yenisi oluşturulur.
+ */
+final class FxRateSnapshot {
+
+    static final int RATE_SCALE = 8;
+    private static final long RATE_FACTOR = 100_000_000L;
+
+    static final FxRateSnapshot EMPTY = new FxRateSnapshot(0, null, "none", Map.of(), Map.of());
+
+    record Rate(long scaled, BigDecimal value) {
+    }
+
+    private final long version;
+    private final LocalDateTime loadedAt;
+    private final String source;
+    // kaynak para birimi -> hedef para birimi -> kur
+    private final Map<String, Map<String, Rate>> rates;
+    private final Map<String, BigDecimal> pairs;
+
+    private FxRateSnapshot(long version, LocalDateTime loadedAt, String source,
+                           Map<String, Map<String, Rate>> rates, Map<String, BigDecimal> pairs) {
+        this.version = version;
+        this.loadedAt = loadedAt;
+        this.source = source;
+        this.rates = rates;
+        this.pairs = pairs;
+    }
+
+    /**
+     * @param pairRates "USD/TRY" -> 1 USD'nin TRY karşılığı
+     * @throws IllegalArgumentException çift adı veya kur geçersizse
+     */
+    static FxRateSnapshot of(long version, String source, Map<String, BigDecimal> pairRates) {
+        Map<String, Map<String, Rate>> rates = new HashMap<>();
+        Map<String, BigDecimal> pairs = new TreeMap<>();
+        pairRates.forEach((pair, rate) -> {
+            String[] currencies = pair.split("/");
+            if (currencies.length != 2 || rate == null || rate.signum() <= 0) {
+                throw new IllegalArgumentException("Invalid FX rate " + pair + "=" + rate);
+            }
+            BigDecimal value = rate.setScale(RATE_SCALE, RoundingMode.HALF_EVEN);
+            rates.computeIfAbsent(currencies[0], k -> new HashMap<>()).put(currencies[1], toRate(value));
+            pairs.put(pair, value);
+        });
+
+        // Sadece bir yönü verilen çiftler için ters kur
+        pairs.forEach((pair, value) -> {
+            String[] currencies = pair.split("/");
+            rates.computeIfAbsent(currencies[1], k -> new HashMap<>()).computeIfAbsent(currencies[0],
+                    k -> toRate(BigDecimal.ONE.divide(value, RATE_SCALE, RoundingMode.HALF_EVEN)));
+        });
+
+        Map<String, Map<String, Rate>> frozen = new HashMap<>();
+        rates.forEach((from, targets) -> frozen.put(from, Map.copyOf(targets)));
+        return new FxRateSnapshot(version, LocalDateTime.now(), source,
+                Map.copyOf(frozen), Collections.unmodifiableMap(pairs));
+    }
+
+    Rate rate(String from, String to) {
+        Map<String, Rate> targets = rates.get(from);
+        return targets != null ? targets.get(to) : null;
+    }
+
+    /**
+     * Minor unit tutarı kur ile çevirir, HALF_EVEN yuvarlar. Taşma olasılığında BigDecimal'e düşer.
+     *
+     * @param scaleShift hedef ile kaynak para biriminin ondalık hane farkı (ör. USD -> JPY için -2)
+     */
+    static long convert(long minorUnits, Rate rate, int scaleShift) {
+        try {
+            long product = Math.multiplyExact(minorUnits, rate.scaled());
+            long divisor = RATE_FACTOR;
+            if (scaleShift > 0) {
+                product = Math.multiplyExact(product, pow10(scaleShift));
+            } else if (scaleShift < 0) {
+                divisor = Math.multiplyExact(divisor, pow10(-scaleShift));
+            }
+            long quotient = product / divisor;
+            long remainder = Math.abs(product % divisor);
+            long twice = Math.multiplyExact(remainder, 2);
+            if (twice > divisor || (twice == divisor && (quotient & 1) != 0)) {
+                quotient += Long.signum(product);
+            }
+            return quotient;
+        } catch (ArithmeticException e) {
+            return BigDecimal.valueOf(minorUnits).multiply(rate.value())
+                    .movePointRight(scaleShift)
+                    .setScale(0, RoundingMode.HALF_EVEN)
+                    .longValueExact();
+        }
+    }
+
+    private static long pow10(int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= 10;
+        }
+        return result;
+    }
+
+    long version() {
+        return version;
+    }
+
+    LocalDateTime loadedAt() {
+        return loadedAt;
+    }
+
+    String source() {
+        return source;
+    }
+
+    Map<String, BigDecimal> pairs() {
+        return pairs;
+    }
+
+    private static Rate toRate(BigDecimal value) {
+        return new Rate(value.unscaledValue().longValueExact(), value);
+    }
+}
@@ -0,0 +1,91 @@
+package com.bankingledger.transferservice.service;
+
+/**
+ * IBAN -> (para birimi, net tutar (minor unit)) eşlemesi.
+ *
+ * Open addressing ile String[] / long[] dizileri üzerinde çalışır; pencere başına
+ * binlerce transfer toplanırken Long boxing ve Map.Entry nesnesi üretmez.
+ * Thread-safe değildir.
+ */
+final class IbanNetPositions {
+
+    interface PositionConsumer {
+        void accept(String iban, String currency, long netMinorUnits);
+    }
+
+    private String[] keys;
+    private String[] currencies;
+    private long[] values;
+    private int size;
+    private int mask;
+
+    IbanNetPositions(int expectedKeys) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedKeys * 2 - 1)) << 1;
+        keys = new String[capacity];
+        currencies = new String[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * @throws IllegalArgumentException IBAN için daha önce farklı bir para birimi eklenmişse
+     */
+    void add(String iban, String currency, long delta) {
+        int slot = slot(iban);
+        if (keys[slot] == null) {
+            keys[slot] = iban;
+            currencies[slot] = currency;
+            if (++size * 2 > keys.length) {
+                grow();
+            }
+            slot = slot(iban);
+        } else if (!currencies[slot].equals(currency)) {
+            throw new IllegalArgumentException("Currency mismatch for " + iban + ": " + currencies[slot] + " vs " + currency);
+        }
+        values[slot] = Math.addExact(values[slot], delta);
+    }
+
+    long get(String iban) {
+        int slot = slot(iban);
+        return keys[slot] == null ? 0L : values[slot];
+    }
+
+    int size() {
+        return size;
+    }
+
+    void forEach(PositionConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                consumer.accept(keys[i], currencies[i], values[i]);
+            }
+        }
+    }
+
+    private int slot(String iban) {
+        int h = iban.hashCode();
+        int slot = (h ^ (h >>> 16)) & mask;
+        while (keys[slot] != null && !keys[slot].equals(iban)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        String[] oldKeys = keys;
+        String[] oldCurrencies = currencies;
+        long[] oldValues = values;
+        keys = new String[oldKeys.length << 1];
+        currencies = new String[oldKeys.length << 1];
+        values = new long[oldKeys.length << 1];
+        mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                currencies[slot] = oldCurrencies[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package com.bankingledger.transferservice.service;
+
+import com.bankingledger.transferservice.dto.TransferRequest;
+import com.bankingledger.transferservice.dto.TransferResponse;
+import com.bankingledger.transferservice.entity.IdempotencyKey;
+import com.bankingledger.transferservice.entity.TransactionIds;
+import com.bankingledger.transferservice.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Idempotency-Key ile gönderilen transfer isteklerinin tek sefer yürütülmesini sağlar.
+ *
+ * İki katman vardır: son anahtarların cevaplarını tutan, boyutu sınırlı (LRU) ve süreli bir bellek cache'i
+ * ile instance'lar arası ve restart sonrası geçerli olan idempotency_keys tablosu. Aynı instance'ta aynı
+ * anahtarla eşzamanlı gelen istekler ilk isteğin sonucunu bekler; başka instance'ta yürütülen istek için
+ * tablo kısa aralıklarla kontrol edilir. Cache'ten dönen tekrarlar veritabanına hiç gitmez.
+ *
+ * transactionId transfer çalışmadan önce üretilip rezervasyona yazılır. Rezervasyonu tutan instance çöker veya
+ * cevabı kaydedemezse, süre dolduktan sonra gelen tekrar kaydı aynı transactionId ile devralır: transfer zaten
+ * oluşmuşsa onun cevabı döner, oluşmamışsa aynı transactionId ile yürütülür (transactionId'ye göre idempotent olan
+ * intake applier ve saga komutları ikinci kez para hareketi yapmaz).
+ *
+ * Aynı anahtar farklı bir istek gövdesiyle kullanılırsa 422, ilk istek beklenen sürede bitmezse 409 döner.
+ * Hata ile biten isteklerin sonucu saklanmaz; aynı anahtarla tekrar denenebilir. Sonucu belirsiz kalan istekler
+ * ({@link TransferOutcomeUnknownException}) hariçtir: rezervasyon transactionId'ye bağlı kalır.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    static final int MAX_KEY_LENGTH = 255;
+    private static final long POLL_INTERVAL_MS = 50;
+
+    private final IdempotencyKeyRepository repository;
+    private final ObjectMapper objectMapper;
+    private final long ttlHours;
+    private final long reservationSeconds;
+    private final long inFlightWaitMs;
+    private final Map<String, CachedResponse> recent;
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter executed;
+    private final Counter cacheHits;
+    private final Counter databaseHits;
+    private final Counter inFlightHits;
+    private final Counter recovered;
+
+    public IdempotencyService(IdempotencyKeyRepository repository,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${idempotency.reservation-seconds:60}") long reservationSeconds,
+                              @Value("${idempotency.in-flight-wait-ms:5000}") long inFlightWaitMs,
+                              @Value("${idempotency.cache-max-entries:10000}") int cacheMaxEntries) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.ttlHours = ttlHours;
+        this.reservationSeconds = reservationSeconds;
+        this.inFlightWaitMs = inFlightWaitMs;
+        // Erişim sıralı LinkedHashMap: sınır aşılınca en uzun süredir kullanılmayan anahtar atılır
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > cacheMaxEntries;
+            }
+        };
+        this.executed = outcomeCounter(meterRegistry, "executed");
+        this.cacheHits = outcomeCounter(meterRegistry, "cache");
+        this.databaseHits = outcomeCounter(meterRegistry, "database");
+        this.inFlightHits = outcomeCounter(meterRegistry, "in_flight");
+        this.recovered = outcomeCounter(meterRegistry, "recovered");
+    }
+
+    /**
+     * @param action anahtar ilk kez görülüyorsa verilen transactionId ile çalıştırılan asıl transfer işlemi
+     * @param lookup süresi dolmuş bir rezervasyon devralındığında transferi transactionId ile arar
+     */
+    public Result execute(String key, TransferRequest request,
+                          Function<String, TransferResponse> action,
+                          Function<String, Optional<TransferResponse>> lookup) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new RuntimeException("Idempotency-Key must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+        String hash = fingerprint(request);
+
+        Optional<TransferResponse> cached = fromCache(key, hash);
+        if (cached.isPresent()) {
+            cacheHits.increment();
+            return new Result(cached.get(), true);
+        }
+
+        InFlight mine = new InFlight(hash, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            inFlightHits.increment();
+            return new Result(awaitInFlight(key, hash, running), true);
+        }
+
+        try {
+            Result result = executeOnce(key, hash, action, lookup);
+            mine.result().complete(result.response());
+            return result;
+        } catch (RuntimeException e) {
+            mine.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.cleanup-interval-ms:600000}")
+    public void deleteExpiredKeys() {
+        LocalDateTime now = LocalDateTime.now();
+        int deleted = repository.deleteExpired(now, now.minusHours(ttlHours));
+        if (deleted > 0) {
+            log.info("Deleted {} expired idempotency keys", deleted);
+        }
+    }
+
+    /**
+     * Anahtarı tabloda rezerve etmeye çalışır; başka bir istek tutuyorsa tamamlanmasını bekler.
+     */
+    private Result executeOnce(String key, String hash, Function<String, TransferResponse> action,
+                               Function<String, Optional<TransferResponse>> lookup) {
+        String transactionId = TransactionIds.newId();
+        long deadline = System.currentTimeMillis() + inFlightWaitMs;
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            if (repository.reserve(key, hash, transactionId, now, now.plusSeconds(reservationSeconds)) == 1) {
+                // Yarıda kalmış rezervasyon devralındıysa kayıttaki eski transactionId geçerlidir
+                String reserved = repository.findByIdempotencyKey(key)
+                        .map(IdempotencyKey::getTransactionId)
+                        .orElse(transactionId);
+                return executeReserved(key, hash, reserved, !reserved.equals(transactionId), action, lookup);
+            }
+
+            Optional<IdempotencyKey> existing = repository.findByIdempotencyKey(key);
+            if (existing.isPresent()) {
+                IdempotencyKey record = existing.get();
+                checkSameRequest(key, hash, record.getRequestHash());
+                if (record.getStatus() == IdempotencyKey.Status.COMPLETED) {
+                    TransferResponse response = readResponse(record.getResponse());
+                    cache(key, new CachedResponse(hash, response, record.getExpiresAt()));
+                    databaseHits.increment();
+                    return new Result(response, true);
+                }
+            }
+            // Kayıt yoksa rezervasyon bu arada silinmiştir; tekrar rezerve etmeyi dener
+
+            if (System.currentTimeMillis() >= deadline) {
+                throw new IdempotencyKeyInProgressException(
+                        "A request with Idempotency-Key " + key + " is still in progress");
+            }
+            sleep(POLL_INTERVAL_MS);
+        }
+    }
+
+    private Result executeReserved(String key, String hash, String transactionId, boolean takenOver,
+                                   Function<String, TransferResponse> action,
+                                   Function<String, Optional<TransferResponse>> lookup) {
+        if (takenOver) {
+            Optional<TransferResponse> existing = lookup.apply(transactionId);
+            if (existing.isPresent()) {
+                log.info("Idempotency-Key {} took over an expired reservation, transfer {} already exists",
+                        key, transactionId);
+                recovered.increment();
+                store(key, hash, existing.get());
+                return new Result(existing.get(), true);
+            }
+            log.warn("Idempotency-Key {} took over an expired reservation, no transfer {} found; executing it",
+                    key, transactionId);
+        }
+
+        TransferResponse response;
+        try {
+            response = action.apply(transactionId);
+        } catch (TransferOutcomeUnknownException e) {
+            // Transfer yine de uygulanabilir: rezervasyon bu transactionId'ye bağlı kalır, süresi dolunca gelen
+            // tekrar onu devralıp transferi transactionId ile bulur; serbest bırakılsaydı yeni bir transfer oluşurdu
+            throw e;
+        } catch (RuntimeException e) {
+            try {
+                repository.release(key);
+            } catch (DataAccessException releaseFailure) {
+                // Rezervasyon süresi dolunca anahtar yine devralınabilir
+                e.addSuppressed(releaseFailure);
+            }
+            throw e;
+        }
+        executed.increment();
+        store(key, hash, response);
+        return new Result(response, false);
+    }
+
+    private void store(String key, String hash, TransferResponse response) {
+        LocalDateTime expiresAt = LocalDateTime.now().plusHours(ttlHours);
+        cache(key, new CachedResponse(hash, response, expiresAt));
+        try {
+            repository.complete(key, response.getTransactionId(), writeResponse(response), expiresAt);
+        } catch (DataAccessException e) {
+            // Transfer başladı, istemciye hata dönülmez; bu instance cache'ten cevaplar, diğerleri rezervasyon
+            // süresi boyunca 409 döner, sonra kaydı devralıp transferi transactionId ile bulur
+            log.error("Failed to store result for Idempotency-Key {} (transaction {}): {}",
+                    key, response.getTransactionId(), e.getMessage());
+        }
+    }
+
+    private TransferResponse awaitInFlight(String key, String hash, InFlight running) {
+        checkSameRequest(key, hash, running.requestHash());
+        try {
+            return running.result().get(inFlightWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyInProgressException(
+                    "A request with Idempotency-Key " + key + " is still in progress");
+        } catch (ExecutionException e) {
+            // İlk istek hata ile bittiyse bekleyenler de aynı hatayı alır
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for Idempotency-Key " + key, e);
+        }
+    }
+
+    private Optional<TransferResponse> fromCache(String key, String hash) {
+        CachedResponse cached;
+        synchronized (recent) {
+            cached = recent.get(key);
+            if (cached != null && cached.expiresAt().isBefore(LocalDateTime.now())) {
+                recent.remove(key);
+                cached = null;
+            }
+        }
+        if (cached == null) {
+            return Optional.empty();
+        }
+        checkSameRequest(key, hash, cached.requestHash());
+        return Optional.of(cached.response());
+    }
+
+    private void cache(String key, CachedResponse response) {
+        synchronized (recent) {
+            recent.put(key, response);
+        }
+    }
+
+    private static void checkSameRequest(String key, String hash, String storedHash) {
+        if (!hash.equals(storedHash)) {
+            throw new IdempotencyKeyConflictException(
+                    "Idempotency-Key " + key + " was already used with a different request");
+        }
+    }
+
+    private String fingerprint(TransferRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("Failed to fingerprint transfer request", e);
+        }
+    }
+
+    private String writeResponse(TransferResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize transfer response", e);
+        }
+    }
+
+    private TransferResponse readResponse(String json) {
+        try {
+            return objectMapper.readValue(json, TransferResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to read stored transfer response", e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for idempotency key", e);
+        }
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("transfer.idempotency.requests")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param replayed true ise cevap daha önce yürütülmüş bir isteğe aittir
+     */
+    public record Result(TransferResponse response, boolean replayed) {
+    }
+
+    private record CachedResponse(String requestHash, TransferResponse response, LocalDateTime expiresAt) {
+    }
+
+    private record InFlight(String requestHash, CompletableFuture<TransferResponse> result) {
+    }
+}
@@ -0,0 +1,335 @@
+package com.bankingledger.transferservice.service;
+
+import com.bankingledger.common.money.Money;
+import com.bankingledger.transferservice.dto.NettingWindowReport;
+import com.bankingledger.transferservice.entity.Transfer;
+import com.bankingledger.transferservice.event.NettingBatchCommand;
+import com.bankingledger.transferservice.event.NettingBatchReply;
+import com.bankingledger.transferservice.event.TransferEvent;
+import com.bankingledger.transferservice.repository.TransferRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Ertelenmiş (deferred) iç transferler için periyodik çok taraflı netting.
+ *
+ * Pencere boyunca gelen transferler bellekte biriktirilir; pencere kapanınca IBAN başına
+ * net pozisyon hesaplanır ve account-service'e tek bir batch komutu gönderilir. Böylece
+ * N transfer için 2N satır güncellemesi yerine en fazla (farklı IBAN sayısı) kadar
+ * güncelleme yapılır. Her transfer yine kendi transfers satırına sahiptir.
+ *
+ * NETTING --pencere kapandı--> SETTLING --batch ok--> SUCCESS
+ *                                       --batch fail--> FAILED (reddedilen hesaba dokunan transferler)
+ *                                                   --> NETTING (diğerleri, sonraki pencerede tekrar settle edilir)
+ *
+ * Pencere kapanırken transaction geri alınırsa transferler NETTING'de kalır ve açık pencereye geri konur. Bir
+ * instance'ın penceresinde takılı kalan NETTING transferleri periyodik olarak tekrar pencereye alınır.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NettingEngine {
+
+    private static final int MAX_REPORTS = 100;
+
+    private final TransferRepository transferRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Value("${netting.topics.commands}")
+    private String commandTopic;
+
+    @Value("${saga.timeout-seconds:30}")
+    private long timeoutSeconds;
+
+    private final Deque<NettingWindowReport> reports = new ArrayDeque<>();
+    private Window window = new Window();
+
+    /**
+     * NETTING durumunda kaydedilmiş transferi açık pencereye ekler.
+     */
+    public void enqueue(Transfer transfer) {
+        synchronized (this) {
+            window.transfers.put(transfer.getId(), transfer);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${netting.window-ms:5000}")
+    @Transactional
+    public void closeWindow() {
+        Window closed;
+        synchronized (this) {
+            if (window.transfers.isEmpty()) {
+                return;
+            }
+            closed = window;
+            window = new Window();
+        }
+
+        // Transaction hangi adımda geri alınırsa alınsın (commit dahil) transferler NETTING durumunda kalır;
+        // bir sonraki pencerede tekrar denenir
+        afterRollback(() -> requeue(closed.transfers.values()));
+
+        String batchId = UUID.randomUUID().toString();
+        List<Long> ids = new ArrayList<>(closed.transfers.keySet());
+        LocalDateTime createdFrom = closed.transfers.values().stream()
+                .map(Transfer::getCreatedAt).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime createdTo = closed.transfers.values().stream()
+                .map(Transfer::getCreatedAt).max(Comparator.naturalOrder()).orElseThrow();
+        int moved = transferRepository.assignSettlementBatch(ids, createdFrom, createdTo, batchId,
+                Transfer.TransferStatus.NETTING, Transfer.TransferStatus.SETTLING);
+        if (moved == 0) {
+            // Hepsi başka bir instance'ın penceresinde (ör. restart sonrası recovery) settle edildi
+            log.info("Netting window closed without transfers to settle: {} already claimed", ids.size());
+            return;
+        }
+
+        // Pozisyonlar sadece bu UPDATE'in bu batchId ile SETTLING'e aldığı satırlardan hesaplanır; başka bir
+        // instance'ın aldığı transferler bu batch'e girmez ve bakiyeye iki kez uygulanmaz
+        List<Transfer> settling = transferRepository.findBySettlementBatchIdAndStatusAndCreatedAtBetween(
+                batchId, Transfer.TransferStatus.SETTLING, createdFrom, createdTo);
+        if (settling.size() != ids.size()) {
+            log.info("Netting batch {}: {} of {} windowed transfers were already claimed elsewhere",
+                    batchId, ids.size() - settling.size(), ids.size());
+        }
+
+        IbanNetPositions positions = netPositions(settling);
+        NettingBatchCommand command = toCommand(batchId, positions);
+        NettingWindowReport report = NettingWindowReport.builder()
+                .batchId(batchId)
+                .windowStart(closed.openedAt)
+                .windowEnd(LocalDateTime.now())
+                .transferCount(settling.size())
+                .accountsTouched(positions.size())
+                .grossRowUpdates(settling.size() * 2)
+                .netRowUpdates(command.getEntries().size())
+                .compressionRatio(command.getEntries().isEmpty()
+                        ? settling.size() * 2
+                        : (double) settling.size() * 2 / command.getEntries().size())
+                .build();
+        addReport(report);
+
+        log.info("Netting window {} closed: {} transfers, {} accounts, {} -> {} row updates (ratio {})",
+                batchId, report.getTransferCount(), report.getAccountsTouched(),
+                report.getGrossRowUpdates(), report.getNetRowUpdates(),
+                String.format("%.2f", report.getCompressionRatio()));
+
+        afterCommit(() -> kafkaTemplate.send(commandTopic, batchId, command));
+    }
+
+    /**
+     * Batch reddedildiyse sadece reddedilen hesaplara dokunan transferler FAILED olur; diğerleri NETTING'e döner
+     * ve sonraki pencerede bu hesaplar olmadan tekrar settle edilir. Reddedilen hesap bilinmiyorsa tüm batch
+     * başarısızdır.
+     */
+    @Transactional
+    public void onBatchReply(NettingBatchReply reply) {
+        List<Transfer> transfers = transferRepository.findBySettlementBatchIdAndStatus(
+                reply.getBatchId(), Transfer.TransferStatus.SETTLING);
+        if (transfers.isEmpty()) {
+            log.debug("Ignoring reply for already settled batch: {}", reply.getBatchId());
+            return;
+        }
+
+        List<Transfer> settled = new ArrayList<>(transfers.size());
+        List<Transfer> resettle = new ArrayList<>();
+        if (reply.isSuccess() || reply.getRejectedIbans() == null || reply.getRejectedIbans().isEmpty()) {
+            settled.addAll(transfers);
+        } else {
+            Set<String> rejected = new HashSet<>(reply.getRejectedIbans());
+            for (Transfer transfer : transfers) {
+                if (rejected.contains(transfer.getFromIban()) || rejected.contains(transfer.getToIban())) {
+                    settled.add(transfer);
+                } else {
+                    resettle.add(transfer);
+                }
+            }
+            if (settled.isEmpty()) {
+                // Reddedilen hesap bu batch'in transferlerinde yok; tekrar göndermek aynı sonucu verir
+                settled.addAll(transfers);
+                resettle.clear();
+            }
+        }
+
+        Transfer.TransferStatus status = reply.isSuccess()
+                ? Transfer.TransferStatus.SUCCESS
+                : Transfer.TransferStatus.FAILED;
+        for (Transfer transfer : settled) {
+            transfer.setStatus(status);
+            transfer.setFailureReason(reply.getReason());
+        }
+        for (Transfer transfer : resettle) {
+            transfer.setStatus(Transfer.TransferStatus.NETTING);
+            transfer.setSettlementBatchId(null);
+        }
+        transferRepository.saveAll(transfers);
+        log.info("Netting batch {} settled with status {} for {} transfers, {} returned to netting",
+                reply.getBatchId(), status, settled.size(), resettle.size());
+
+        afterCommit(() -> {
+            settled.forEach(transfer -> publishEvent(transfer, reply));
+            requeue(resettle);
+        });
+    }
+
+    /**
+     * Restart sonrası bellekteki pencere kaybolur; NETTING durumundaki transferler yeni pencereye alınır.
+     * Diğer instance'ların transferleri de yüklenebilir; pencere kapanırken sadece bu instance'ın UPDATE'i ile
+     * SETTLING'e alınan satırlar batch'e girer.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverOpenWindow() {
+        List<Transfer> open = transferRepository.findByStatus(Transfer.TransferStatus.NETTING);
+        if (!open.isEmpty()) {
+            log.info("Recovering {} deferred transfers into the current netting window", open.size());
+            open.forEach(this::enqueue);
+        }
+    }
+
+    /**
+     * Hiçbir instance'ın penceresinde olmayan NETTING transferlerini (ör. reddedilen batch'ten dönüp cevabı işleyen
+     * instance'ın çöktüğü durumda) açık pencereye alır. Pencerede zaten olan transfer tekrar eklenmez; başka bir
+     * instance'ın penceresindeki transferi sadece SETTLING'e alan ilk UPDATE settle eder.
+     */
+    @Scheduled(fixedDelayString = "${saga.sweep-interval-ms:10000}")
+    public void requeueStrandedTransfers() {
+        LocalDateTime threshold = LocalDateTime.now().minusSeconds(timeoutSeconds);
+        List<Transfer> stranded = transferRepository.findTop500ByStatusInAndUpdatedAtBefore(
+                List.of(Transfer.TransferStatus.NETTING), threshold);
+        if (!stranded.isEmpty()) {
+            log.info("Requeueing {} deferred transfers not settled for {} s", stranded.size(), timeoutSeconds);
+            requeue(stranded);
+        }
+    }
+
+    /**
+     * Cevabı gelmeyen batch'leri transfers satırlarından yeniden hesaplayıp tekrar gönderir.
+     * account-service batch'i batchId ile idempotent uygular.
+     */
+    @Scheduled(fixedDelayString = "${saga.sweep-interval-ms:10000}")
+    public void resendStalledBatches() {
+        LocalDateTime threshold = LocalDateTime.now().minusSeconds(timeoutSeconds);
+        for (String batchId : transferRepository.findStalledSettlementBatchIds(
+                Transfer.TransferStatus.SETTLING, threshold)) {
+            List<Transfer> transfers = transferRepository.findBySettlementBatchIdAndStatus(
+                    batchId, Transfer.TransferStatus.SETTLING);
+            log.warn("Resending stalled netting batch: {} ({} transfers)", batchId, transfers.size());
+            kafkaTemplate.send(commandTopic, batchId, toCommand(batchId, netPositions(transfers)));
+        }
+    }
+
+    public List<NettingWindowReport> getReports() {
+        synchronized (reports) {
+            return new ArrayList<>(reports);
+        }
+    }
+
+    private IbanNetPositions netPositions(Collection<Transfer> transfers) {
+        IbanNetPositions positions = new IbanNetPositions(transfers.size());
+        for (Transfer transfer : transfers) {
+            Money debit = transfer.getAmount();
+            Money credit = TransferSagaOrchestrator.creditAmountOf(transfer);
+            positions.add(transfer.getFromIban(), debit.currency(), -debit.minorUnits());
+            positions.add(transfer.getToIban(), credit.currency(), credit.minorUnits());
+        }
+        return positions;
+    }
+
+    private NettingBatchCommand toCommand(String batchId, IbanNetPositions positions) {
+        List<NettingBatchCommand.Entry> entries = new ArrayList<>(positions.size());
+        positions.forEach((iban, currency, net) -> {
+            if (net != 0) {
+                entries.add(new NettingBatchCommand.Entry(iban, Money.ofMinor(net, currency)));
+            }
+        });
+        return NettingBatchCommand.builder()
+                .batchId(batchId)
+                .entries(entries)
+                .build();
+    }
+
+    private void addReport(NettingWindowReport report) {
+        synchronized (reports) {
+            if (reports.size() == MAX_REPORTS) {
+                reports.removeFirst();
+            }
+            reports.addLast(report);
+        }
+    }
+
+    private void publishEvent(Transfer transfer, NettingBatchReply reply) {
+        TransferEvent event = TransferEvent.builder()
+                .transactionId(transfer.getTransactionId())
+                .fromIban(transfer.getFromIban())
+                .toIban(transfer.getToIban())
+                .amount(transfer.getAmount())
+                .creditAmount(TransferSagaOrchestrator.creditAmountOf(transfer))
+                .status(transfer.getStatus().toString())
+                .description(reply.isSuccess()
+                        ? transfer.getDescription()
+                        : "Transfer failed: " + reply.getReason())
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        kafkaTemplate.send("transfer-events", transfer.getTransactionId(), event);
+    }
+
+    private void requeue(Collection<Transfer> transfers) {
+        synchronized (this) {
+            transfers.forEach(transfer -> window.transfers.putIfAbsent(transfer.getId(), transfer));
+        }
+    }
+
+    private void afterRollback(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        action.run();
+                    }
+                }
+            });
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static class Window {
+        private final LocalDateTime openedAt = LocalDateTime.now();
+        // Transfer ID'sine göre tutulur; recovery ile aynı transfer iki kez eklenemez
+        private final Map<Long, Transfer> transfers = new LinkedHashMap<>();
+    }
+}
@@ -0,0 +1,122 @@
+package com.bankingledger.transferservice.service;
+
+import com.bankingledger.transferservice.client.ReactiveAccountServiceClient;
+import com.bankingledger.transferservice.dto.TransferRequest;
+import com.bankingledger.transferservice.dto.TransferResponse;
+import com.bankingledger.transferservice.entity.TransactionIds;
+import com.bankingledger.transferservice.entity.Transfer;
+import com.bankingledger.transferservice.event.AccountCommand;
+import com.bankingledger.transferservice.repository.ReactiveTransferRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.kafka.core.reactive.ReactiveKafkaProducerTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link TransferService}'in reactive profilindeki karşılığı. İstek yolunda hiçbir thread bloklanmaz:
+ * hesaplar WebClient ile paralel okunur, transfer R2DBC ile yazılır, DEBIT komutu reactor-kafka ile gönderilir.
+ *
+ * Doğrulama, kur çevrimi ve response eşlemesi {@link TransferService} ile ortaktır; velocity limiti, kur tablosu
+ * ve netting penceresi bellek içi olduğundan aynı bean'ler kullanılır. Saga'nın geri kalanı (cevaplar, timeout
+ * taraması) her iki modda da {@link TransferSagaOrchestrator} tarafından yürütülür.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveTransferService {
+
+    private final ReactiveTransferRepository transferRepository;
+    private final ReactiveAccountServiceClient accountServiceClient;
+    private final ReactiveKafkaProducerTemplate<String, Object> kafkaTemplate;
+    private final TransferService transferService;
+    private final NettingEngine nettingEngine;
+    private final VelocityLimiter velocityLimiter;
+
+    @Value("${saga.topics.commands}")
+    private String commandTopic;
+
+    public Mono<TransferResponse> executeTransfer(TransferRequest request) {
+        String transactionId = TransactionIds.newId();
+
+        // Geçersiz istek ve velocity reddi failure kaydı üretmez; blocking yolda olduğu gibi try dışında
+        return Mono.fromRunnable(() -> {
+                    log.info("Starting transfer transaction: {} from {} to {} amount: {}",
+                            transactionId, request.getFromIban(), request.getToIban(), request.getAmount());
+                    TransferService.validate(request);
+                    velocityLimiter.checkAndRecord(request.getFromIban(), request.getAmount());
+                })
+                .then(Mono.defer(() -> createTransfer(request, transactionId)
+                        .onErrorResume(e -> recordFailure(request, transactionId, e))));
+    }
+
+    public Mono<TransferResponse> getTransferById(Long id) {
+        return transferRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Transfer not found with ID: " + id)))
+                .map(TransferService::mapToResponse);
+    }
+
+    public Mono<TransferResponse> getTransferByTransactionId(String transactionId) {
+        return transferRepository.findByTransactionIdPruned(transactionId)
+                .switchIfEmpty(Mono.error(() ->
+                        new RuntimeException("Transfer not found with transaction ID: " + transactionId)))
+                .map(TransferService::mapToResponse);
+    }
+
+    public Flux<TransferResponse> getOutgoingTransfers(String iban, int limit) {
+        return transferRepository.findRecentByFromIban(iban, TransferService.recentLimit(limit))
+                .map(TransferService::mapToResponse);
+    }
+
+    public Flux<TransferResponse> getIncomingTransfers(String iban, int limit) {
+        return transferRepository.findRecentByToIban(iban, TransferService.recentLimit(limit))
+                .map(TransferService::mapToResponse);
+    }
+
+    private Mono<TransferResponse> createTransfer(TransferRequest request, String transactionId) {
+        return Mono.zip(accountServiceClient.getAccount(request.getFromIban()),
+                        accountServiceClient.getAccount(request.getToIban()))
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("One or both accounts not found")))
+                .map(accounts -> transferService.newTransfer(request, transactionId, accounts.getT1(), accounts.getT2()))
+                .flatMap(transferRepository::insert)
+                .flatMap(saved -> {
+                    log.info("Transfer record created with ID: {} Status: {}", saved.getId(), saved.getStatus());
+                    if (request.isDeferred()) {
+                        nettingEngine.enqueue(saved);
+                        return Mono.just(saved);
+                    }
+                    return startSaga(saved);
+                })
+                .map(TransferService::mapToResponse);
+    }
+
+    /**
+     * {@link TransferSagaOrchestrator#start} gibi: komut gönderilemezse transfer PENDING kalır ve timeout taraması tekrar dener.
+     */
+    private Mono<Transfer> startSaga(Transfer transfer) {
+        AccountCommand command = TransferSagaOrchestrator.command(
+                transfer, AccountCommand.CommandType.DEBIT, transfer.getFromIban());
+        return kafkaTemplate.send(commandTopic, transfer.getTransactionId(), command)
+                .doOnSuccess(result -> log.debug("DEBIT command sent for transaction: {} iban: {}",
+                        transfer.getTransactionId(), transfer.getFromIban()))
+                .onErrorResume(e -> {
+                    log.warn("DEBIT command could not be sent for transaction: {}. Will be retried. Error: {}",
+                            transfer.getTransactionId(), e.getMessage());
+                    return Mono.empty();
+                })
+                .thenReturn(transfer);
+    }
+
+    private Mono<TransferResponse> recordFailure(TransferRequest request, String transactionId, Throwable e) {
+        log.error("Transfer failed for transaction: {}. Error: {}", transactionId, e.getMessage());
+
+        return transferRepository.insert(TransferService.failedTransfer(request, transactionId, e.getMessage()))
+                .then(kafkaTemplate.send("transfer-events", transactionId,
+                        TransferService.failureEvent(request, transactionId, e.getMessage())))
+                .then(Mono.<TransferResponse>error(new RuntimeException("Transfer failed: " + e.getMessage(), e)));
+    }
+}
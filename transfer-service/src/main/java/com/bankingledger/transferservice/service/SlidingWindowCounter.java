@@ -0,0 +1,134 @@
+package com.bankingledger.transferservice.service;
+
+import com.bankingledger.transferservice.event.VelocityStateUpdate;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Kilitsiz, ring buffer tabanlı sliding window sayacı (adet + tutar).
+ *
+ * Pencere {@code buckets} adet {@code bucketMillis} uzunluğunda dilimden oluşur. Her dilim
+ * tek bir long'da üst 16 bitte dilim epoch'unun etiketini, alt 48 bitte değeri tutar;
+ * etiketi eski olan dilim ilk yazmada CAS ile sıfırlanır. Bu sayede ayrı bir temizleme
+ * adımı veya kilit gerekmez. Pencere toplamı dilim çözünürlüğünde yaklaşıktır.
+ */
+final class SlidingWindowCounter {
+
+    private static final int VALUE_BITS = 48;
+    private static final long VALUE_MASK = (1L << VALUE_BITS) - 1;
+    private static final long TAG_MASK = (1L << (64 - VALUE_BITS)) - 1;
+
+    private final int buckets;
+    private final long bucketMillis;
+    private final AtomicLongArray counts;
+    private final AtomicLongArray amounts;
+
+    SlidingWindowCounter(int buckets, long bucketMillis) {
+        this.buckets = buckets;
+        this.bucketMillis = bucketMillis;
+        this.counts = new AtomicLongArray(buckets);
+        this.amounts = new AtomicLongArray(buckets);
+    }
+
+    /**
+     * @throws IllegalArgumentException tutar negatifse; negatif değer dilimin etiket bitlerini bozar
+     */
+    void record(long nowMillis, long amountMinor) {
+        if (amountMinor < 0) {
+            throw new IllegalArgumentException("Sliding window amount must not be negative: " + amountMinor);
+        }
+        long epoch = nowMillis / bucketMillis;
+        int slot = (int) (epoch % buckets);
+        add(counts, slot, epoch, 1);
+        add(amounts, slot, epoch, amountMinor);
+    }
+
+    long count(long nowMillis) {
+        return sum(counts, nowMillis / bucketMillis);
+    }
+
+    long amount(long nowMillis) {
+        return sum(amounts, nowMillis / bucketMillis);
+    }
+
+    /**
+     * Diğer instance'lara gönderilmek üzere pencerenin dilimlerini yaşa göre (0 = şu anki dilim)
+     * döner. Sondaki boş dilimler gönderilmez.
+     */
+    VelocityStateUpdate.Window snapshot(long nowMillis) {
+        long epoch = nowMillis / bucketMillis;
+        long[] c = new long[buckets];
+        long[] a = new long[buckets];
+        int length = 0;
+        for (int age = 0; age < buckets; age++) {
+            c[age] = valueAt(counts, epoch - age);
+            a[age] = valueAt(amounts, epoch - age);
+            if (c[age] != 0) {
+                length = age + 1;
+            }
+        }
+        return new VelocityStateUpdate.Window(epoch, Arrays.copyOf(c, length), Arrays.copyOf(a, length));
+    }
+
+    /**
+     * Başka bir instance'tan gelen snapshot'ın şu an hâlâ pencere içinde kalan kısmını toplar.
+     */
+    long remoteCount(VelocityStateUpdate.Window window, long nowMillis) {
+        return remoteSum(window, window.getCounts(), nowMillis);
+    }
+
+    long remoteAmount(VelocityStateUpdate.Window window, long nowMillis) {
+        return remoteSum(window, window.getAmounts(), nowMillis);
+    }
+
+    long windowMillis() {
+        return buckets * bucketMillis;
+    }
+
+    private long remoteSum(VelocityStateUpdate.Window window, long[] values, long nowMillis) {
+        long oldest = nowMillis / bucketMillis - buckets + 1;
+        long total = 0;
+        for (int age = 0; age < values.length && window.getEpoch() - age >= oldest; age++) {
+            total += values[age];
+        }
+        return total;
+    }
+
+    private static void add(AtomicLongArray array, int slot, long epoch, long delta) {
+        if (delta < 0) {
+            throw new IllegalArgumentException("Sliding window delta must not be negative: " + delta);
+        }
+        long tag = epoch & TAG_MASK;
+        while (true) {
+            long current = array.get(slot);
+            long currentTag = current >>> VALUE_BITS;
+            long base;
+            if (currentTag == tag) {
+                base = current & VALUE_MASK;
+            } else if (current != 0 && ((currentTag - tag) & TAG_MASK) < (TAG_MASK >>> 1)) {
+                // Dilim daha yeni bir epoch'a geçmiş; geciken yazma atılır
+                return;
+            } else {
+                base = 0;
+            }
+            long next = (tag << VALUE_BITS) | Math.min(base + delta, VALUE_MASK);
+            if (array.compareAndSet(slot, current, next)) {
+                return;
+            }
+        }
+    }
+
+    private long sum(AtomicLongArray array, long epoch) {
+        long total = 0;
+        for (int age = 0; age < buckets; age++) {
+            total += valueAt(array, epoch - age);
+        }
+        return total;
+    }
+
+    private long valueAt(AtomicLongArray array, long epoch) {
+        long value = array.get((int) (epoch % buckets));
+        return (value >>> VALUE_BITS) == (epoch & TAG_MASK) ? value & VALUE_MASK : 0;
+    }
+}
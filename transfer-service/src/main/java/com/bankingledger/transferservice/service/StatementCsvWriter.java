@@ -0,0 +1,138 @@
+package com.bankingledger.transferservice.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * CSV satırlarını sabit boyutlu tamponlar üzerinden doğrudan bir {@link FileChannel}'a yazar.
+ *
+ * Karakterler bir CharBuffer'da biriktirilir, dolunca direct ByteBuffer'a UTF-8 olarak encode edilir ve
+ * ByteBuffer dolunca kanala yazılır. Satır başına String/byte[] üretilmez; bellek kullanımı dosya
+ * boyutundan bağımsızdır. Alanlar RFC 4180'e göre gerektiğinde tırnaklanır.
+ */
+final class StatementCsvWriter implements Closeable {
+
+    private static final int BYTE_BUFFER_SIZE = 256 * 1024;
+    private static final int CHAR_BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final CharBuffer chars = CharBuffer.allocate(CHAR_BUFFER_SIZE);
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(BYTE_BUFFER_SIZE);
+    private boolean rowStarted;
+    private long bytesWritten;
+
+    StatementCsvWriter(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    void field(String value) throws IOException {
+        if (rowStarted) {
+            put(',');
+        }
+        rowStarted = true;
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        if (!needsQuoting(value)) {
+            put(value);
+            return;
+        }
+        put('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                put('"');
+            }
+            put(c);
+        }
+        put('"');
+    }
+
+    void endRow() throws IOException {
+        put('\r');
+        put('\n');
+        rowStarted = false;
+    }
+
+    /**
+     * Kanala yazılmış byte sayısı; tamponda bekleyenler dahil değildir.
+     */
+    long bytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Tamponları boşaltır ve dosyayı diske kalıcı yazar. Kanal çağıran tarafından kapatılır.
+     */
+    @Override
+    public void close() throws IOException {
+        encodePending(true);
+        while (encoder.flush(bytes).isOverflow()) {
+            drain();
+        }
+        drain();
+        channel.force(true);
+    }
+
+    private void put(String value) throws IOException {
+        int offset = 0;
+        while (offset < value.length()) {
+            if (!chars.hasRemaining()) {
+                encodePending(false);
+            }
+            int end = Math.min(value.length(), offset + chars.remaining());
+            chars.put(value, offset, end);
+            offset = end;
+        }
+    }
+
+    private void put(char c) throws IOException {
+        if (!chars.hasRemaining()) {
+            encodePending(false);
+        }
+        chars.put(c);
+    }
+
+    /**
+     * Bölünmüş surrogate çifti gibi encode edilemeyen son karakterler bir sonraki tura kalır (compact).
+     */
+    private void encodePending(boolean endOfInput) throws IOException {
+        chars.flip();
+        while (true) {
+            CoderResult result = encoder.encode(chars, bytes, endOfInput);
+            if (result.isOverflow()) {
+                drain();
+            } else if (result.isError()) {
+                result.throwException();
+            } else {
+                break;
+            }
+        }
+        chars.compact();
+    }
+
+    private void drain() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            bytesWritten += channel.write(bytes);
+        }
+        bytes.clear();
+    }
+
+    private static boolean needsQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
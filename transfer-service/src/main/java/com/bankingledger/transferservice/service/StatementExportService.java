@@ -0,0 +1,357 @@
+package com.bankingledger.transferservice.service;
+
+import com.bankingledger.transferservice.dto.StatementExportRequest;
+import com.bankingledger.transferservice.dto.StatementExportResponse;
+import com.bankingledger.transferservice.entity.StatementExport;
+import com.bankingledger.transferservice.repository.StatementExportRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * IBAN bazlı transfer geçmişini arka planda CSV dosyasına export eder.
+ *
+ * Satırlar read-only, REPEATABLE READ bir transaction içinde server-side cursor ile okunur (replica açıksa
+ * replica'dan) ve {@link StatementCsvWriter} ile doğrudan FileChannel'a yazılır; heap'e liste yüklenmez.
+ * Toplam satır sayısı aynı snapshot'ta sayıldığı için ilerleme yüzdesi tutarlıdır. Dosya önce geçici isimle
+ * yazılır, diske kalıcı yazıldıktan sonra rename edilir. Tamamlanan dosyalar retention süresinden sonra silinir.
+ *
+ * İşler veritabanında tutulur ve her instance kendi kuyruğundaki/çalışan işlerinin heartbeat'ini yeniler.
+ * Heartbeat'i {@code stale-after-ms}'ten eski QUEUED/RUNNING işler (çöken veya kapanan instance'ın işleri)
+ * açılışta ve periyodik olarak koşullu update ile sahiplenilip baştan çalıştırılır. Bu yüzden ve indirme
+ * isteği herhangi bir instance'a gelebileceği için exports.dir tüm instance'larda paylaşımlı olmalıdır.
+ */
+@Service
+@Slf4j
+public class StatementExportService {
+
+    private static final int FETCH_SIZE = 10_000;
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final String[] HEADER = {"id", "transaction_id", "created_at", "direction", "from_iban", "to_iban",
+            "amount", "currency", "credit_amount", "credit_currency", "fx_rate", "status", "description"};
+
+    private static final String COLUMNS = "id, transaction_id, created_at, from_iban, to_iban, amount, currency, "
+            + "credit_amount, credit_currency, fx_rate, status, description";
+
+    private final StatementExportRepository exportRepository;
+    private final JdbcTemplate cursorTemplate;
+    private final TransactionTemplate snapshotTransaction;
+    private final ExecutorService executor;
+    private final Path exportDir;
+    private final long retentionHours;
+    private final long staleAfterMs;
+    // Bu instance'ın kuyruğundaki ve çalışan işler; heartbeat'leri yenilenir
+    private final Set<Long> localExports = ConcurrentHashMap.newKeySet();
+
+    public StatementExportService(StatementExportRepository exportRepository,
+                                  DataSource dataSource,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${exports.dir}") String exportDir,
+                                  @Value("${exports.max-concurrent:2}") int maxConcurrent,
+                                  @Value("${exports.retention-hours:24}") long retentionHours,
+                                  @Value("${exports.stale-after-ms:120000}") long staleAfterMs) {
+        this.exportRepository = exportRepository;
+        this.cursorTemplate = new JdbcTemplate(dataSource);
+        this.cursorTemplate.setFetchSize(FETCH_SIZE);
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.executor = Executors.newFixedThreadPool(maxConcurrent,
+                Thread.ofPlatform().name("statement-export-", 0).factory());
+        this.exportDir = Path.of(exportDir);
+        this.retentionHours = retentionHours;
+        this.staleAfterMs = staleAfterMs;
+    }
+
+    public StatementExportResponse start(StatementExportRequest request) {
+        if (request.getIban() == null || request.getIban().isBlank()) {
+            throw new RuntimeException("IBAN is required for a statement export");
+        }
+        if (request.getFrom() != null && request.getTo() != null && request.getFrom().isAfter(request.getTo())) {
+            throw new RuntimeException("Export range start " + request.getFrom() + " is after end " + request.getTo());
+        }
+
+        StatementExport export = exportRepository.save(StatementExport.builder()
+                .iban(request.getIban())
+                .fromDate(request.getFrom())
+                .toDate(request.getTo())
+                .status(StatementExport.ExportStatus.QUEUED)
+                .build());
+        submit(export.getId());
+        log.info("Statement export {} queued for {}", export.getId(), export.getIban());
+        return toResponse(export);
+    }
+
+    public StatementExportResponse getExport(Long id) {
+        return toResponse(findExport(id));
+    }
+
+    /**
+     * @return export tamamlanmamışsa veya süresi dolmuşsa boş
+     */
+    public Optional<ExportFile> getFile(Long id) {
+        StatementExport export = findExport(id);
+        if (export.getStatus() != StatementExport.ExportStatus.COMPLETED) {
+            return Optional.empty();
+        }
+        Path file = exportDir.resolve(export.fileName());
+        if (!Files.isRegularFile(file)) {
+            throw new RuntimeException("Statement export file is missing for export " + id);
+        }
+        return Optional.of(new ExportFile(file, "statement-" + export.getIban() + "-" + id + ".csv"));
+    }
+
+    @Scheduled(fixedDelayString = "${exports.cleanup-interval-ms:600000}")
+    public void expireOldExports() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(retentionHours);
+        for (StatementExport export : exportRepository.findByStatusInAndFinishedAtBefore(
+                EnumSet.of(StatementExport.ExportStatus.COMPLETED, StatementExport.ExportStatus.FAILED), cutoff)) {
+            try {
+                Files.deleteIfExists(exportDir.resolve(export.fileName()));
+                export.setStatus(StatementExport.ExportStatus.EXPIRED);
+                exportRepository.save(export);
+                log.info("Statement export {} expired and its file deleted", export.getId());
+            } catch (IOException e) {
+                log.error("Failed to delete statement export file {}: {}", export.fileName(), e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${exports.heartbeat-interval-ms:30000}")
+    public void heartbeatAndRecover() {
+        if (!localExports.isEmpty()) {
+            exportRepository.touch(List.copyOf(localExports), LocalDateTime.now());
+        }
+        recoverOrphanedExports();
+    }
+
+    /**
+     * Heartbeat'i eskimiş işleri tekrar kuyruğa alır. Aynı işi birden fazla instance görse de koşullu update
+     * sadece birinde başarılı olur.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverOrphanedExports() {
+        LocalDateTime now = LocalDateTime.now();
+        for (StatementExport export : exportRepository.findStale(
+                EnumSet.of(StatementExport.ExportStatus.QUEUED, StatementExport.ExportStatus.RUNNING),
+                now.minus(staleAfterMs, ChronoUnit.MILLIS))) {
+            if (localExports.contains(export.getId())) {
+                continue;
+            }
+            LocalDateTime heartbeat = export.getHeartbeatAt() != null ? export.getHeartbeatAt() : export.getCreatedAt();
+            if (exportRepository.requeue(export.getId(), heartbeat, now) == 1) {
+                log.warn("Statement export {} was orphaned in {} state since {}, re-queued",
+                        export.getId(), export.getStatus(), heartbeat);
+                submit(export.getId());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void submit(Long exportId) {
+        localExports.add(exportId);
+        try {
+            executor.execute(() -> execute(exportId));
+        } catch (RejectedExecutionException e) {
+            // Kapanış sırasında; iş QUEUED kalır ve heartbeat'i eskiyince başka instance'ta çalışır
+            localExports.remove(exportId);
+        }
+    }
+
+    private void execute(Long exportId) {
+        try {
+            run(exportId);
+        } finally {
+            localExports.remove(exportId);
+        }
+    }
+
+    private void run(Long exportId) {
+        if (exportRepository.markRunning(exportId, LocalDateTime.now()) == 0) {
+            log.info("Statement export {} is no longer queued, skipping", exportId);
+            return;
+        }
+        StatementExport export = findExport(exportId);
+
+        Path target = exportDir.resolve(export.fileName());
+        // Sahipsiz sanılıp tekrar kuyruğa alınan işin eski çalıştırması hâlâ yazıyor olabilir; geçici dosya ayrıdır
+        Path temp = exportDir.resolve(export.fileName() + "." + UUID.randomUUID() + ".tmp");
+        long started = System.currentTimeMillis();
+        try {
+            Files.createDirectories(exportDir);
+            long rows = snapshotTransaction.execute(status -> writeFile(export, temp));
+            long bytes = Files.size(temp);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            if (exportRepository.markCompleted(exportId, rows, bytes, LocalDateTime.now()) == 0) {
+                log.warn("Statement export {} finished but is no longer running (re-queued or expired)", exportId);
+                return;
+            }
+            log.info("Statement export {} for {} completed: {} rows, {} bytes in {} ms",
+                    exportId, export.getIban(), rows, bytes, System.currentTimeMillis() - started);
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // temizlik en iyi çaba ile
+            }
+            if (executor.isShutdown()) {
+                // Kapanış yüzünden kesildi; iş RUNNING kalır ve heartbeat'i eskiyince başka instance'ta baştan çalışır
+                log.warn("Statement export {} interrupted by shutdown", exportId);
+                return;
+            }
+            log.error("Statement export {} failed: {}", exportId, e.getMessage(), e);
+            exportRepository.markFailed(exportId, truncate(e.getMessage()), LocalDateTime.now());
+        }
+    }
+
+    private long writeFile(StatementExport export, Path temp) {
+        List<Object> args = new ArrayList<>();
+        String where = whereClause(export, args);
+
+        Long total = cursorTemplate.queryForObject("SELECT count(*) FROM transfers" + where, Long.class, args.toArray());
+        export.setTotalRows(total);
+        exportRepository.updateTotalRows(export.getId(), total);
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             StatementCsvWriter writer = new StatementCsvWriter(channel)) {
+            for (String column : HEADER) {
+                writer.field(column);
+            }
+            writer.endRow();
+
+            long[] rows = {0};
+            long[] lastProgress = {System.nanoTime()};
+            String iban = export.getIban();
+            cursorTemplate.query("SELECT " + COLUMNS + " FROM transfers" + where + " ORDER BY created_at, id", rs -> {
+                try {
+                    String fromIban = rs.getString("from_iban");
+                    writer.field(rs.getString("id"));
+                    writer.field(rs.getString("transaction_id"));
+                    writer.field(rs.getString("created_at"));
+                    writer.field(iban.equals(fromIban) ? "DEBIT" : "CREDIT");
+                    writer.field(fromIban);
+                    writer.field(rs.getString("to_iban"));
+                    // NUMERIC kolonlar text olarak okunur; BigDecimal üretilmez
+                    writer.field(rs.getString("amount"));
+                    writer.field(rs.getString("currency"));
+                    writer.field(rs.getString("credit_amount"));
+                    writer.field(rs.getString("credit_currency"));
+                    writer.field(rs.getString("fx_rate"));
+                    writer.field(rs.getString("status"));
+                    writer.field(rs.getString("description"));
+                    writer.endRow();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+
+                rows[0]++;
+                long now = System.nanoTime();
+                if (now - lastProgress[0] >= PROGRESS_INTERVAL_NANOS) {
+                    lastProgress[0] = now;
+                    exportRepository.updateProgress(export.getId(), rows[0], writer.bytesWritten());
+                }
+            }, args.toArray());
+            return rows[0];
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Tarih aralığı created_at üzerinden uygulanır; transfers aylık partition'lı olduğu için sadece ilgili
+     * partition'lar taranır.
+     */
+    private static String whereClause(StatementExport export, List<Object> args) {
+        StringBuilder where = new StringBuilder(" WHERE (from_iban = ? OR to_iban = ?)");
+        args.add(export.getIban());
+        args.add(export.getIban());
+        if (export.getFromDate() != null) {
+            where.append(" AND created_at >= ?");
+            args.add(export.getFromDate().atStartOfDay());
+        }
+        if (export.getToDate() != null) {
+            where.append(" AND created_at < ?");
+            args.add(export.getToDate().plusDays(1).atStartOfDay());
+        }
+        return where.toString();
+    }
+
+    private StatementExport findExport(Long id) {
+        return exportRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Statement export not found with ID: " + id));
+    }
+
+    private static StatementExportResponse toResponse(StatementExport export) {
+        Double progress = null;
+        if (export.getStatus() == StatementExport.ExportStatus.COMPLETED) {
+            progress = 100.0;
+        } else if (export.getTotalRows() != null) {
+            progress = export.getTotalRows() == 0 ? 100.0 : 100.0 * export.getRowsWritten() / export.getTotalRows();
+        }
+        return StatementExportResponse.builder()
+                .id(export.getId())
+                .iban(export.getIban())
+                .from(export.getFromDate())
+                .to(export.getToDate())
+                .status(export.getStatus().toString())
+                .totalRows(export.getTotalRows())
+                .rowsWritten(export.getRowsWritten())
+                .bytesWritten(export.getBytesWritten())
+                .progress(progress)
+                .downloadPath(export.getStatus() == StatementExport.ExportStatus.COMPLETED
+                        ? "/api/v1/transfers/exports/" + export.getId() + "/file"
+                        : null)
+                .failureReason(export.getFailureReason())
+                .createdAt(export.getCreatedAt())
+                .startedAt(export.getStartedAt())
+                .finishedAt(export.getFinishedAt())
+                .build();
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= 500 ? message : message.substring(0, 500);
+    }
+
+    public record ExportFile(Path path, String downloadName) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.bankingledger.transferservice.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Transfer kabul edildi ama sonucu beklenen sürede doğrulanamadı; sonradan yine de uygulanabilir.
+ * İstemci tekrar göndermeden önce transactionId ile sorgulamalıdır.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class TransferOutcomeUnknownException extends RuntimeException {
+
+    public TransferOutcomeUnknownException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
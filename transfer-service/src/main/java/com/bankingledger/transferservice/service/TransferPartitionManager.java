@@ -0,0 +1,255 @@
+package com.bankingledger.transferservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * transfers tablosunun aylık partition'larını yönetir.
+ *
+ * - Şu anki ay ve sonraki {@code months-ahead} ay için partition'ları önceden oluşturur,
+ *   böylece insert'ler hiçbir zaman partition oluşturmayı beklemez.
+ * - {@code retention-months}'tan eski partition'ları detach eder, gzip'li CSV olarak
+ *   arşiv dizinine yazar ve tabloyu drop eder. Aktif tablo ve index'ler sabit boyutta kalır.
+ *   Arşiv dizini kalıcı bir volume üzerinde değilse (container katmanı veya bellek) arşivleme yapılmaz;
+ *   aksi halde drop edilen geçmiş ilk redeploy'da kaybolurdu.
+ * - Drop ile aynı transaction'da partition'ın IBAN başına net akışını transfer_archive_totals'a yazar;
+ *   reconciliation arşivlenmiş geçmişi bu toplamlardan hesaplar.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransferPartitionManager {
+
+    private static final String PARENT_TABLE = "transfers";
+    private static final String PARTITION_PREFIX = "transfers_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    // Container'ın kendi yazılabilir katmanı ve bellek tabanlı dosya sistemleri; redeploy/restart'ta silinir
+    private static final Set<String> EPHEMERAL_FS_TYPES = Set.of("overlay", "aufs", "tmpfs", "ramfs");
+
+    private static final List<String> IN_FLIGHT_STATUSES =
+            List.of("PENDING", "DEBITED", "COMPENSATING", "NETTING", "SETTLING");
+
+    /**
+     * Arşivlenen partition'da in-flight transfer kalmadığı için sadece SUCCESS bakiyeyi değiştirmiştir.
+     * Tekrar çalıştırmada (drop'tan önce çöken arşivleme) toplamlar iki kez yazılmaz.
+     */
+    private static final String ARCHIVE_TOTALS_SQL = """
+            INSERT INTO transfer_archive_totals (partition_name, iban, net_amount)
+            SELECT '%1$s', leg.iban, sum(leg.net_amount)
+            FROM %1$s t
+            CROSS JOIN LATERAL (VALUES (t.from_iban, -t.amount),
+                                       (t.to_iban, COALESCE(t.credit_amount, t.amount)))
+                AS leg(iban, net_amount)
+            WHERE t.status = 'SUCCESS'
+            GROUP BY leg.iban
+            ON CONFLICT (partition_name, iban) DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+
+    @Value("${partitioning.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${partitioning.retention-months:12}")
+    private int retentionMonths;
+
+    @Value("${partitioning.archive-dir}")
+    private String archiveDir;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${partitioning.cron}")
+    public void maintainPartitions() {
+        if (!isPartitioned()) {
+            log.warn("Table {} is not partitioned, skipping partition maintenance", PARENT_TABLE);
+            return;
+        }
+
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+
+        if (!isArchiveDirPersistent()) {
+            return;
+        }
+
+        YearMonth oldestKept = current.minusMonths(retentionMonths);
+        for (String partition : attachedPartitions()) {
+            if (monthOf(partition).isBefore(oldestKept)) {
+                archivePartition(partition);
+            }
+        }
+
+        // Önceki çalıştırmada detach edilip arşivlenemeden kalan tablolar
+        for (String table : detachedPartitions()) {
+            archiveDetachedTable(table);
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = partitionName(month);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name
+                + " PARTITION OF " + PARENT_TABLE
+                + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+        log.debug("Ensured partition {}", name);
+    }
+
+    private void archivePartition(String partition) {
+        Integer inFlight = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM " + partition + " WHERE status IN ('" + String.join("','", IN_FLIGHT_STATUSES) + "')",
+                Integer.class);
+        if (inFlight != null && inFlight > 0) {
+            log.warn("Partition {} still has {} in-flight transfers, archival postponed", partition, inFlight);
+            return;
+        }
+
+        log.info("Detaching partition {}", partition);
+        if (isDetachPending(partition)) {
+            jdbcTemplate.execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + partition + " FINALIZE");
+        } else {
+            // CONCURRENTLY: transfers üzerindeki insert'ler detach sırasında bloklanmaz
+            jdbcTemplate.execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + partition + " CONCURRENTLY");
+        }
+        archiveDetachedTable(partition);
+    }
+
+    /**
+     * Detach edilmiş tabloyu COPY ile gzip'li CSV'ye yazar, dosya diske kalıcı olarak
+     * yazıldıktan sonra IBAN toplamlarını yazıp tabloyu drop eder. Dosya önce geçici isimle yazılıp rename edilir.
+     */
+    private void archiveDetachedTable(String table) {
+        Path dir = Path.of(archiveDir);
+        Path target = dir.resolve(table + ".csv.gz");
+        Path temp = dir.resolve(table + ".csv.gz.tmp");
+
+        try {
+            Files.createDirectories(dir);
+            long rows;
+            try (Connection connection = dataSource.getConnection();
+                 OutputStream out = new GZIPOutputStream(
+                         new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16), 1 << 16)) {
+                rows = connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyOut("COPY " + table + " TO STDOUT WITH (FORMAT csv, HEADER)", out);
+            }
+
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            int ibans = dropWithTotals(table);
+            log.info("Partition {} archived to {} ({} rows, {} IBAN totals) and dropped", table, target, rows, ibans);
+        } catch (IOException | SQLException e) {
+            log.error("Failed to archive partition {}: {}", table, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Arşiv dizini kalıcı depolamada değilse partition'lar detach/drop edilmez; aktif tabloda kalırlar.
+     */
+    private boolean isArchiveDirPersistent() {
+        Path dir = Path.of(archiveDir);
+        try {
+            Files.createDirectories(dir);
+            FileStore store = Files.getFileStore(dir);
+            if (EPHEMERAL_FS_TYPES.contains(store.type())) {
+                log.error("Archive dir {} is on an ephemeral {} filesystem ({}); partitions will not be archived "
+                        + "and dropped until it is mounted on a persistent volume", dir, store.type(), store.name());
+                return false;
+            }
+            return true;
+        } catch (IOException e) {
+            log.error("Archive dir {} is not usable, skipping partition archival: {}", dir, e.getMessage());
+            return false;
+        }
+    }
+
+    private int dropWithTotals(String table) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                int ibans = statement.executeUpdate(ARCHIVE_TOTALS_SQL.formatted(table));
+                statement.execute("DROP TABLE " + table);
+                connection.commit();
+                return ibans;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private boolean isPartitioned() {
+        List<String> kinds = jdbcTemplate.queryForList(
+                "SELECT c.relkind::text FROM pg_class c WHERE c.relname = ? AND pg_table_is_visible(c.oid)",
+                String.class, PARENT_TABLE);
+        return kinds.contains("p");
+    }
+
+    private List<String> attachedPartitions() {
+        return jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = ? AND c.relname LIKE 'transfers\\_p%'
+                ORDER BY c.relname
+                """, String.class, PARENT_TABLE);
+    }
+
+    private List<String> detachedPartitions() {
+        return jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_class c
+                WHERE c.relkind = 'r'
+                  AND pg_table_is_visible(c.oid)
+                  AND c.relname LIKE 'transfers\\_p%'
+                  AND NOT EXISTS (SELECT 1 FROM pg_inherits i WHERE i.inhrelid = c.oid)
+                """, String.class);
+    }
+
+    private boolean isDetachPending(String partition) {
+        List<Boolean> pending = jdbcTemplate.queryForList(
+                "SELECT i.inhdetachpending FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid WHERE c.relname = ?",
+                Boolean.class, partition);
+        return pending.contains(Boolean.TRUE);
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+
+    private static YearMonth monthOf(String partition) {
+        return YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+    }
+}
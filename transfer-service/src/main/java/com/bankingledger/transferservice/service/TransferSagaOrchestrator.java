@@ -0,0 +1,238 @@
+package com.bankingledger.transferservice.service;
+
+import com.bankingledger.common.money.Money;
+import com.bankingledger.transferservice.entity.Transfer;
+import com.bankingledger.transferservice.event.AccountCommand;
+import com.bankingledger.transferservice.event.AccountCommandReply;
+import com.bankingledger.transferservice.event.TransferEvent;
+import com.bankingledger.transferservice.repository.TransferRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Transfer saga'sının durum makinesi.
+ *
+ * PENDING --DEBIT ok--> DEBITED --CREDIT ok--> SUCCESS
+ *    |                     |
+ *    DEBIT fail            CREDIT fail
+ *    v                     v
+ *  FAILED             COMPENSATING --REFUND ok--> ROLLED_BACK
+ *
+ * Saga durumu transfers tablosundaki status kolonudur. Hiçbir thread veya DB bağlantısı
+ * account-service cevabını beklerken tutulmaz; her cevap kısa bir transaction içinde işlenir.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransferSagaOrchestrator {
+
+    private static final EnumSet<Transfer.TransferStatus> IN_FLIGHT = EnumSet.of(
+            Transfer.TransferStatus.PENDING,
+            Transfer.TransferStatus.DEBITED,
+            Transfer.TransferStatus.COMPENSATING);
+
+    private final TransferRepository transferRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Value("${saga.topics.commands}")
+    private String commandTopic;
+
+    @Value("${saga.timeout-seconds:30}")
+    private long timeoutSeconds;
+
+    /**
+     * Commit edilmiş PENDING bir transfer için saga'yı başlatır.
+     * Komut gönderilemezse transfer PENDING kalır ve timeout taraması tekrar dener.
+     */
+    public void start(Transfer transfer) {
+        try {
+            sendCommand(transfer, AccountCommand.CommandType.DEBIT, transfer.getFromIban());
+        } catch (Exception e) {
+            log.warn("DEBIT command could not be sent for transaction: {}. Will be retried. Error: {}",
+                    transfer.getTransactionId(), e.getMessage());
+        }
+    }
+
+    @Transactional
+    public void onReply(AccountCommandReply reply) {
+        Transfer transfer = transferRepository.findByTransactionIdPruned(reply.getTransactionId()).orElse(null);
+        if (transfer == null) {
+            log.warn("Reply received for unknown transaction: {}", reply.getTransactionId());
+            return;
+        }
+
+        switch (reply.getType()) {
+            case DEBIT -> onDebitReply(transfer, reply);
+            case CREDIT -> onCreditReply(transfer, reply);
+            case REFUND -> onRefundReply(transfer, reply);
+        }
+    }
+
+    private void onDebitReply(Transfer transfer, AccountCommandReply reply) {
+        if (!expect(transfer, Transfer.TransferStatus.PENDING, reply)) {
+            return;
+        }
+
+        if (reply.isSuccess()) {
+            transfer.setStatus(Transfer.TransferStatus.DEBITED);
+            transferRepository.save(transfer);
+            log.info("Successfully debited {} from {}", transfer.getAmount(), transfer.getFromIban());
+            afterCommit(() -> sendCommand(transfer, AccountCommand.CommandType.CREDIT, transfer.getToIban()));
+        } else {
+            transfer.setStatus(Transfer.TransferStatus.FAILED);
+            transfer.setFailureReason(reply.getReason());
+            transferRepository.save(transfer);
+            log.warn("Debit failed for transaction: {}. Reason: {}", transfer.getTransactionId(), reply.getReason());
+            afterCommit(() -> publishEvent(transfer, "FAILED", "Transfer failed: " + reply.getReason(), null));
+        }
+    }
+
+    private void onCreditReply(Transfer transfer, AccountCommandReply reply) {
+        if (!expect(transfer, Transfer.TransferStatus.DEBITED, reply)) {
+            return;
+        }
+
+        if (reply.isSuccess()) {
+            transfer.setStatus(Transfer.TransferStatus.SUCCESS);
+            transferRepository.save(transfer);
+            log.info("Transfer completed successfully: {}", transfer.getTransactionId());
+            afterCommit(() -> publishEvent(transfer, "SUCCESS", transfer.getDescription(),
+                    reply.getAccountHolder() + "@bank.com"));
+        } else {
+            // KRITIK: Para kaynak hesaptan çekildi ama hedefe yatırılamadı - telafi et
+            transfer.setStatus(Transfer.TransferStatus.COMPENSATING);
+            transfer.setFailureReason(reply.getReason());
+            transferRepository.save(transfer);
+            log.warn("Credit failed for transaction: {}. Compensating. Reason: {}",
+                    transfer.getTransactionId(), reply.getReason());
+            afterCommit(() -> sendCommand(transfer, AccountCommand.CommandType.REFUND, transfer.getFromIban()));
+        }
+    }
+
+    private void onRefundReply(Transfer transfer, AccountCommandReply reply) {
+        if (!expect(transfer, Transfer.TransferStatus.COMPENSATING, reply)) {
+            return;
+        }
+
+        if (reply.isSuccess()) {
+            transfer.setStatus(Transfer.TransferStatus.ROLLED_BACK);
+            transferRepository.save(transfer);
+            log.info("Transfer rolled back: {}", transfer.getTransactionId());
+            afterCommit(() -> publishEvent(transfer, "ROLLED_BACK",
+                    "Transfer rolled back: " + transfer.getFailureReason(), null));
+        } else {
+            // Saga COMPENSATING durumunda kalır, timeout taraması REFUND komutunu tekrar gönderir
+            log.error("Refund failed for transaction: {}. Reason: {}", transfer.getTransactionId(), reply.getReason());
+        }
+    }
+
+    /**
+     * Cevabı beklenmeyen bir durumda alınan saga'ları atlar (tekrar eden veya geç gelen cevaplar).
+     */
+    private boolean expect(Transfer transfer, Transfer.TransferStatus expected, AccountCommandReply reply) {
+        if (transfer.getStatus() != expected) {
+            log.debug("Ignoring {} reply for transaction: {} in status {}",
+                    reply.getType(), transfer.getTransactionId(), transfer.getStatus());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Cevabı kaybolan veya komutu hiç gönderilemeyen saga'ları tespit edip mevcut adımın
+     * komutunu yeniden gönderir. account-service komutları idempotent uyguladığı için güvenlidir.
+     */
+    @Scheduled(fixedDelayString = "${saga.sweep-interval-ms:10000}")
+    @Transactional
+    public void resumeStalledSagas() {
+        LocalDateTime threshold = LocalDateTime.now().minusSeconds(timeoutSeconds);
+        List<Transfer> stalled = transferRepository.findTop500ByStatusInAndUpdatedAtBefore(IN_FLIGHT, threshold);
+
+        for (Transfer transfer : stalled) {
+            // Entity save edilmez: tarama ile cevap arasında commit edilen geçiş (örn. SUCCESS) geri alınırdı
+            if (transferRepository.touchIfUnchanged(transfer.getId(), transfer.getCreatedAt(), transfer.getStatus(),
+                    transfer.getUpdatedAt(), LocalDateTime.now()) == 0) {
+                log.debug("Saga {} progressed during sweep, skipping", transfer.getTransactionId());
+                continue;
+            }
+            log.warn("Resuming stalled saga: {} in status {}", transfer.getTransactionId(), transfer.getStatus());
+
+            switch (transfer.getStatus()) {
+                case PENDING -> afterCommit(() -> sendCommand(transfer, AccountCommand.CommandType.DEBIT, transfer.getFromIban()));
+                case DEBITED -> afterCommit(() -> sendCommand(transfer, AccountCommand.CommandType.CREDIT, transfer.getToIban()));
+                case COMPENSATING -> afterCommit(() -> sendCommand(transfer, AccountCommand.CommandType.REFUND, transfer.getFromIban()));
+                default -> { }
+            }
+        }
+    }
+
+    private void sendCommand(Transfer transfer, AccountCommand.CommandType type, String iban) {
+        kafkaTemplate.send(commandTopic, transfer.getTransactionId(), command(transfer, type, iban));
+        log.debug("{} command sent for transaction: {} iban: {}", type, transfer.getTransactionId(), iban);
+    }
+
+    private void publishEvent(Transfer transfer, String status, String description, String recipientEmail) {
+        TransferEvent event = TransferEvent.builder()
+                .transactionId(transfer.getTransactionId())
+                .fromIban(transfer.getFromIban())
+                .toIban(transfer.getToIban())
+                .amount(transfer.getAmount())
+                .creditAmount(creditAmountOf(transfer))
+                .status(status)
+                .description(description)
+                .timestamp(LocalDateTime.now())
+                .recipientEmail(recipientEmail)
+                .recipientPhone(recipientEmail != null ? "+90555555555" : null)
+                .build();
+
+        kafkaTemplate.send("transfer-events", transfer.getTransactionId(), event);
+        log.info("Transfer event published to Kafka for transaction: {} status: {}", transfer.getTransactionId(), status);
+    }
+
+    /**
+     * CREDIT hedef hesabın para biriminde, DEBIT ve REFUND kaynak hesabın para biriminde gönderilir.
+     */
+    static AccountCommand command(Transfer transfer, AccountCommand.CommandType type, String iban) {
+        return AccountCommand.builder()
+                .transactionId(transfer.getTransactionId())
+                .type(type)
+                .iban(iban)
+                .amount(type == AccountCommand.CommandType.CREDIT ? creditAmountOf(transfer) : transfer.getAmount())
+                .build();
+    }
+
+    /**
+     * FX desteğinden önce oluşturulmuş transferlerde credit_amount boştur; tutar aynı para birimindedir.
+     */
+    static Money creditAmountOf(Transfer transfer) {
+        return transfer.getCreditAmount() != null ? transfer.getCreditAmount() : transfer.getAmount();
+    }
+
+    /**
+     * Kafka mesajını DB commit'inden sonra gönderir. Aksi halde cevap, durum değişikliği
+     * commit edilmeden gelebilir ve "beklenmeyen durum" olarak atlanırdı.
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -1,172 +1,350 @@
 package com.bankingledger.transferservice.service;
 
-import com.bankingledger.transferservice.client.AccountServiceClient;
+import com.bankingledger.common.money.Money;
+import com.bankingledger.transferservice.client.AccountServiceUnavailableException;
+import com.bankingledger.transferservice.client.HedgedAccountServiceClient;
+import com.bankingledger.transferservice.dto.AccountResponse;
 import com.bankingledger.transferservice.dto.TransferRequest;
 import com.bankingledger.transferservice.dto.TransferResponse;
+import com.bankingledger.transferservice.entity.TransactionIds;
 import com.bankingledger.transferservice.entity.Transfer;
 import com.bankingledger.transferservice.event.TransferEvent;
 import com.bankingledger.transferservice.repository.TransferRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TransferService {
 
+    // Hesap bazlı son transfer sorgularında dönen en fazla kayıt
+    static final int MAX_RECENT_TRANSFERS = 100;
+
     private final TransferRepository transferRepository;
-    private final AccountServiceClient accountServiceClient;
+    private final HedgedAccountServiceClient accountServiceClient;
     private final KafkaTemplate<String, Object> kafkaTemplate;
-    private final RestTemplate restTemplate;
+    private final TransferSagaOrchestrator sagaOrchestrator;
+    private final NettingEngine nettingEngine;
+    private final VelocityLimiter velocityLimiter;
+    private final FxRateService fxRateService;
+    private final PlatformTransactionManager transactionManager;
 
     /**
-     * KRITIK: Dağıtık transfer işlemi - ACID garantisi ile
-     * 
-     * Eğer hesaptan para çekme başarısız olursa, tüm işlem ROLLBACK olacak.
-     * PostgreSQL transaction'ı tüm işlemi atomik hale getirir.
+     * KRITIK: Dağıtık transfer işlemi - saga ile
+     *
+     * Tek bir @Transactional metod servisler arası atomikliği sağlayamaz. Bu yüzden transfer
+     * PENDING olarak kaydedilir ve bakiye adımları (DEBIT, CREDIT, gerekirse REFUND)
+     * {@link TransferSagaOrchestrator} tarafından Kafka komutları ile asenkron yürütülür.
+     * Metod saga'nın bitmesini beklemez; sonuç transactionId ile sorgulanır.
      */
-    @Transactional
     public TransferResponse executeTransfer(TransferRequest request) {
-        String transactionId = UUID.randomUUID().toString();
+        return executeTransfer(request, TransactionIds.newId());
+    }
+
+    /**
+     * @param transactionId önceden üretilmiş transactionId (ör. Idempotency-Key rezervasyonuna yazılmış olan)
+     */
+    public TransferResponse executeTransfer(TransferRequest request, String transactionId) {
         log.info("Starting transfer transaction: {} from {} to {} amount: {}", 
                 transactionId, request.getFromIban(), request.getToIban(), request.getAmount());
 
-        try {
-            // ADIM 1: Kaynak ve hedef hesapların mevcudiyetini kontrol et
-            var fromAccount = accountServiceClient.getAccount(request.getFromIban());
-            var toAccount = accountServiceClient.getAccount(request.getToIban());
-
-            if (fromAccount == null || toAccount == null) {
-                throw new RuntimeException("One or both accounts not found");
-            }
-
-            // ADIM 2: Transfer kaydını PENDING durumda oluştur
-            Transfer transfer = Transfer.builder()
-                    .fromIban(request.getFromIban())
-                    .toIban(request.getToIban())
-                    .amount(request.getAmount())
-                    .currency(request.getCurrency())
-                    .description(request.getDescription())
-                    .transactionId(transactionId)
-                    .status(Transfer.TransferStatus.PENDING)
-                    .build();
-
-            Transfer savedTransfer = transferRepository.save(transfer);
-            log.info("Transfer record created with ID: {} Status: PENDING", savedTransfer.getId());
-
-            // ADIM 3: Kaynak hesaptan para çek (KRITIK - Burada hata ise rollback)
-            debitFromAccountService(request.getFromIban(), request.getAmount());
-            log.info("Successfully debited {} from {}", request.getAmount(), request.getFromIban());
-
-            // ADIM 4: Hedef hesaba para yatır (KRITIK - Burada hata ise rollback)
-            creditToAccountService(request.getToIban(), request.getAmount());
-            log.info("Successfully credited {} to {}", request.getAmount(), request.getToIban());
-
-            // ADIM 5: Transfer durumunu SUCCESS olarak güncelle
-            savedTransfer.setStatus(Transfer.TransferStatus.SUCCESS);
-            Transfer completedTransfer = transferRepository.save(savedTransfer);
-
-            // ADIM 6: Kafka'ya event gönder (Asenkron - Notification Service'e haber ver)
-            TransferEvent event = TransferEvent.builder()
-                    .transactionId(transactionId)
-                    .fromIban(request.getFromIban())
-                    .toIban(request.getToIban())
-                    .amount(request.getAmount())
-                    .status("SUCCESS")
-                    .description(request.getDescription())
-                    .timestamp(LocalDateTime.now())
-                    .recipientEmail(toAccount.getAccountHolder() + "@bank.com")
-                    .recipientPhone("+90555555555")
-                    .build();
-
-            kafkaTemplate.send("transfer-events", transactionId, event);
-            log.info("Transfer event published to Kafka for transaction: {}", transactionId);
-
-            log.info("Transfer completed successfully: {}", transactionId);
-            return mapToResponse(completedTransfer);
+        // ADIM 0: İstek ve velocity limitleri - reddedilen istek Feign çağrısı ve DB kaydı üretmez
+        validate(request);
+        velocityLimiter.checkAndRecord(request.getFromIban(), request.getAmount());
 
+        Transfer savedTransfer;
+        try {
+            savedTransfer = saveTransfer(request, transactionId, null);
         } catch (Exception e) {
             log.error("Transfer failed for transaction: {}. Error: {}", transactionId, e.getMessage());
-            
-            // Başarısız transferi kaydet
-            Transfer failedTransfer = Transfer.builder()
-                    .fromIban(request.getFromIban())
-                    .toIban(request.getToIban())
-                    .amount(request.getAmount())
-                    .currency(request.getCurrency())
-                    .description(request.getDescription())
-                    .transactionId(transactionId)
-                    .status(Transfer.TransferStatus.FAILED)
-                    .build();
-
-            Transfer savedFailedTransfer = transferRepository.save(failedTransfer);
-
-            // Başarısız transfer event'i gönder
-            TransferEvent failureEvent = TransferEvent.builder()
-                    .transactionId(transactionId)
-                    .fromIban(request.getFromIban())
-                    .toIban(request.getToIban())
-                    .amount(request.getAmount())
-                    .status("FAILED")
-                    .description("Transfer failed: " + e.getMessage())
-                    .timestamp(LocalDateTime.now())
-                    .build();
-
-            kafkaTemplate.send("transfer-events", transactionId, failureEvent);
-
+            recordFailure(request, transactionId, null, e.getMessage());
             throw new RuntimeException("Transfer failed: " + e.getMessage(), e);
         }
-    }
-
-    private void debitFromAccountService(String fromIban, BigDecimal amount) {
         try {
-            // Account Service'in internal metodunu çağır
-            // Gerçek uygulamada, bu direct REST call veya messaging olabilir
-            log.debug("Calling account-service to debit: {} amount: {}", fromIban, amount);
-            // Implementation depends on whether Account Service exposes this endpoint
+            dispatch(request, savedTransfer);
         } catch (Exception e) {
-            log.error("Failed to debit account: {}", fromIban, e);
-            throw new RuntimeException("Debit operation failed: " + e.getMessage());
+            log.error("Transfer failed for transaction: {}. Error: {}", transactionId, e.getMessage());
+            markFailed(request, savedTransfer, e.getMessage());
+            throw new RuntimeException("Transfer failed: " + e.getMessage(), e);
         }
+        return mapToResponse(savedTransfer);
     }
 
-    private void creditToAccountService(String toIban, BigDecimal amount) {
+    /**
+     * Intake log'da kabul edilmiş bir isteği uygular. Velocity kontrolü kabul sırasında yapılmıştır.
+     *
+     * İş kuralı hataları (hesap yok, para birimi uyuşmazlığı) senkron yolda olduğu gibi FAILED transfer olarak
+     * kaydedilir. Veritabanı hataları ve account-service'e geçici olarak ulaşılamaması fırlatılır; applier aynı
+     * kaydı tekrar dener. Kayıt yazıldıktan sonraki hatada ikinci kayıt açılmaz, yazılan kayıt FAILED olur.
+     * Çökme sonrası tekrar uygulanan kayıt transactionId ile tanınır ve atlanır; kontrol primary'den okunur,
+     * replica gecikmesi yüzünden aynı transfer iki kez yazılmaz.
+     */
+    public void applyAccepted(TransferRequest request, String transactionId, LocalDateTime acceptedAt) {
+        if (findByTransactionId(transactionId, false).isPresent()) {
+            log.info("Accepted transfer {} was already applied, skipping", transactionId);
+            return;
+        }
+
+        Transfer savedTransfer;
+        try {
+            savedTransfer = saveTransfer(request, transactionId, acceptedAt);
+        } catch (DataAccessException | TransactionException | AccountServiceUnavailableException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Accepted transfer {} failed. Error: {}", transactionId, e.getMessage());
+            recordFailure(request, transactionId, acceptedAt, e.getMessage());
+            return;
+        }
         try {
-            log.debug("Calling account-service to credit: {} amount: {}", toIban, amount);
-            // Implementation depends on whether Account Service exposes this endpoint
+            dispatch(request, savedTransfer);
         } catch (Exception e) {
-            log.error("Failed to credit account: {}", toIban, e);
-            throw new RuntimeException("Credit operation failed: " + e.getMessage());
+            log.error("Accepted transfer {} failed after it was recorded. Error: {}", transactionId, e.getMessage());
+            markFailed(request, savedTransfer, e.getMessage());
         }
     }
 
+    /**
+     * Hesapları sorgular ve transfer kaydını oluşturur - deferred ise NETTING, değilse PENDING (saga durumu).
+     *
+     * @param createdAt null ise transactionId'nin zaman damgası kullanılır
+     */
+    private Transfer saveTransfer(TransferRequest request, String transactionId, LocalDateTime createdAt) {
+        // Hesapların mevcudiyetini kontrol et (deadline, hedge ve circuit breaker ile)
+        var fromAccount = accountServiceClient.getAccount(request.getFromIban());
+        var toAccount = accountServiceClient.getAccount(request.getToIban());
+
+        Transfer transfer = newTransfer(request, transactionId, fromAccount, toAccount);
+        transfer.setCreatedAt(createdAt != null ? createdAt : TransactionIds.createdAtOf(transactionId));
+        Transfer savedTransfer = transferRepository.save(transfer);
+        log.info("Transfer record created with ID: {} Status: {}", savedTransfer.getId(), savedTransfer.getStatus());
+        return savedTransfer;
+    }
+
+    /**
+     * Deferred transferler netting penceresine, diğerleri saga'ya gider.
+     */
+    private void dispatch(TransferRequest request, Transfer savedTransfer) {
+        if (request.isDeferred()) {
+            nettingEngine.enqueue(savedTransfer);
+        } else {
+            sagaOrchestrator.start(savedTransfer);
+        }
+    }
+
+    /**
+     * Başarısız transferi kaydeder ve event'ini gönderir.
+     */
+    private void recordFailure(TransferRequest request, String transactionId, LocalDateTime createdAt, String reason) {
+        Transfer failed = failedTransfer(request, transactionId, reason);
+        failed.setCreatedAt(createdAt != null ? createdAt : TransactionIds.createdAtOf(transactionId));
+        transferRepository.save(failed);
+        kafkaTemplate.send("transfer-events", transactionId, failureEvent(request, transactionId, reason));
+    }
+
+    /**
+     * Kaydedilmiş ama saga'ya/netting'e verilememiş transferi FAILED yapar ve event'ini gönderir.
+     */
+    private void markFailed(TransferRequest request, Transfer savedTransfer, String reason) {
+        savedTransfer.setStatus(Transfer.TransferStatus.FAILED);
+        savedTransfer.setFailureReason(reason);
+        transferRepository.save(savedTransfer);
+        kafkaTemplate.send("transfer-events", savedTransfer.getTransactionId(),
+                failureEvent(request, savedTransfer.getTransactionId(), reason));
+    }
+
+    @Transactional(readOnly = true)
     public TransferResponse getTransferById(Long id) {
-        Transfer transfer = transferRepository.findById(id)
+        Transfer transfer = transferRepository.findFirstById(id)
                 .orElseThrow(() -> new RuntimeException("Transfer not found with ID: " + id));
         return mapToResponse(transfer);
     }
 
+    /**
+     * Durum sorgusu replica'dan okunur; istemci 202 cevabından hemen sonra sorgularsa kayıt replica'ya henüz
+     * ulaşmamış olabilir. Bulunamazsa primary'den tekrar okunur (read-your-writes).
+     */
     public TransferResponse getTransferByTransactionId(String transactionId) {
-        Transfer transfer = transferRepository.findByTransactionId(transactionId)
+        Transfer transfer = findByTransactionId(transactionId, true)
+                .or(() -> findByTransactionId(transactionId, false))
                 .orElseThrow(() -> new RuntimeException("Transfer not found with transaction ID: " + transactionId));
         return mapToResponse(transfer);
     }
 
-    private TransferResponse mapToResponse(Transfer transfer) {
+    /**
+     * Primary'den okur; yeni yazılmış transfer de bulunur.
+     */
+    public Optional<TransferResponse> findTransfer(String transactionId) {
+        return findByTransactionId(transactionId, false).map(TransferService::mapToResponse);
+    }
+
+    private Optional<Transfer> findByTransactionId(String transactionId, boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> transferRepository.findByTransactionIdPruned(transactionId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<TransferResponse> getOutgoingTransfers(String iban, int limit) {
+        return transferRepository.findByFromIbanOrderByCreatedAtDesc(iban, PageRequest.of(0, recentLimit(limit)))
+                .stream()
+                .map(TransferService::mapToResponse)
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<TransferResponse> getIncomingTransfers(String iban, int limit) {
+        return transferRepository.findByToIbanOrderByCreatedAtDesc(iban, PageRequest.of(0, recentLimit(limit)))
+                .stream()
+                .map(TransferService::mapToResponse)
+                .toList();
+    }
+
+    /**
+     * Tutar ve IBAN kontrolleri; velocity, kayıt ve saga'dan önce yapılır. Negatif tutar DEBIT adımında
+     * gönderene para yatırır, CREDIT adımında alıcıdan bakiye kontrolsüz para çeker.
+     */
+    public static void validate(TransferRequest request) {
+        if (request.getAmount() == null) {
+            throw new InvalidTransferException("Transfer amount is required");
+        }
+        if (!request.getAmount().isPositive()) {
+            throw new InvalidTransferException("Transfer amount must be positive: " + request.getAmount());
+        }
+        if (isBlank(request.getFromIban()) || isBlank(request.getToIban())) {
+            throw new InvalidTransferException("Source and target IBAN are required");
+        }
+        if (normalizeIban(request.getFromIban()).equals(normalizeIban(request.getToIban()))) {
+            throw new InvalidTransferException("Source and target IBAN must differ: " + request.getFromIban());
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static String normalizeIban(String iban) {
+        return iban.replace(" ", "").toUpperCase(Locale.ROOT);
+    }
+
+    static int recentLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_RECENT_TRANSFERS));
+    }
+
+    /**
+     * Hesap ve para birimi kontrollerini yapıp kaydedilecek transferi oluşturur; blocking ve reactive yol ortaktır.
+     * Tutar kaynak hesabın para biriminde olmalı; hedef farklıysa bellekteki kur tablosu ile çevrilir.
+     */
+    Transfer newTransfer(TransferRequest request, String transactionId,
+                         AccountResponse fromAccount, AccountResponse toAccount) {
+        validate(request);
+        if (fromAccount == null || toAccount == null) {
+            throw new RuntimeException("One or both accounts not found");
+        }
+
+        Money amount = request.getAmount();
+        if (!amount.currency().equals(fromAccount.getBalance().currency())) {
+            throw new RuntimeException("Currency mismatch: transfer in " + amount.currency()
+                    + ", source account in " + fromAccount.getBalance().currency());
+        }
+
+        Money creditAmount = amount;
+        Long fxRateVersion = null;
+        BigDecimal fxRate = null;
+        String targetCurrency = toAccount.getBalance().currency();
+        if (!targetCurrency.equals(amount.currency())) {
+            FxRateService.Quote quote = fxRateService.convert(amount, targetCurrency);
+            creditAmount = quote.converted();
+            fxRateVersion = quote.rateVersion();
+            fxRate = quote.rate();
+            log.info("Transfer {} converted {} -> {} at rate {} (version {})",
+                    transactionId, amount, creditAmount, fxRate, fxRateVersion);
+        }
+
+        if (request.isDeferred()) {
+            checkNettable(fromAccount, toAccount, amount);
+        }
+
+        Transfer.TransferStatus initialStatus = request.isDeferred()
+                ? Transfer.TransferStatus.NETTING
+                : Transfer.TransferStatus.PENDING;
+
+        return Transfer.builder()
+                .fromIban(request.getFromIban())
+                .toIban(request.getToIban())
+                .amount(amount)
+                .creditAmount(creditAmount)
+                .fxRateVersion(fxRateVersion)
+                .fxRate(fxRate)
+                .description(request.getDescription())
+                .transactionId(transactionId)
+                .status(initialStatus)
+                .build();
+    }
+
+    /**
+     * Netting batch'inde reddedilecek transfer pencereye alınmadan reddedilir: hesaplar açık olmalı ve bakiye
+     * yetmeli. Pencerede bekleyen diğer transferler hesaba katılmaz; settlement sırasında yine reddedilebilir.
+     */
+    private static void checkNettable(AccountResponse fromAccount, AccountResponse toAccount, Money amount) {
+        for (AccountResponse account : List.of(fromAccount, toAccount)) {
+            if ("BLOCKED".equals(account.getStatus()) || "CLOSED".equals(account.getStatus())) {
+                throw new RuntimeException("Account " + account.getIban() + " is " + account.getStatus());
+            }
+        }
+        if (fromAccount.getBalance().isLessThan(amount)) {
+            throw new RuntimeException("Insufficient balance for deferred transfer. Current balance: "
+                    + fromAccount.getBalance());
+        }
+    }
+
+    static Transfer failedTransfer(TransferRequest request, String transactionId, String reason) {
+        return Transfer.builder()
+                .fromIban(request.getFromIban())
+                .toIban(request.getToIban())
+                .amount(request.getAmount())
+                .description(request.getDescription())
+                .transactionId(transactionId)
+                .status(Transfer.TransferStatus.FAILED)
+                .failureReason(reason)
+                .build();
+    }
+
+    static TransferEvent failureEvent(TransferRequest request, String transactionId, String reason) {
+        return TransferEvent.builder()
+                .transactionId(transactionId)
+                .fromIban(request.getFromIban())
+                .toIban(request.getToIban())
+                .amount(request.getAmount())
+                .status("FAILED")
+                .description("Transfer failed: " + reason)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    static TransferResponse mapToResponse(Transfer transfer) {
         return TransferResponse.builder()
                 .id(transfer.getId())
                 .fromIban(transfer.getFromIban())
                 .toIban(transfer.getToIban())
                 .amount(transfer.getAmount())
-                .currency(transfer.getCurrency())
+                .creditAmount(transfer.getCreditAmount())
+                .fxRateVersion(transfer.getFxRateVersion())
+                .fxRate(transfer.getFxRate())
                 .status(transfer.getStatus().toString())
                 .transactionId(transfer.getTransactionId())
                 .description(transfer.getDescription())
@@ -0,0 +1,259 @@
+package com.bankingledger.transferservice.service;
+
+import com.bankingledger.common.money.Money;
+import com.bankingledger.transferservice.config.VelocityLimitProperties;
+import com.bankingledger.transferservice.event.VelocityStateUpdate;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Kaynak IBAN başına dakikalık ve saatlik adet/tutar limitleri.
+ *
+ * Kontrol tamamen bellekte, kilitsiz sayaçlarla yapılır; Feign çağrılarından ve DB
+ * insert'lerinden önce çalışır. Sadece kabul edilen transferin kaydı, bellekten atma ile yarışmasın diye
+ * map'in IBAN başına atomik işlemi içinde yapılır. Instance'lar kendi pencerelerini periyodik olarak compacted
+ * bir Kafka topic'ine yazar ve diğer instance'ların son durumunu kendi sayaçlarına ekler.
+ * Senkronizasyon periyodik olduğu için limit instance'lar arasında en fazla bir
+ * sync-interval kadar gecikmeli uygulanır.
+ *
+ * Tutarlar {@code velocity.limit-currency} cinsine çevrilerek sayılır; böylece farklı para birimindeki
+ * transferler aynı limit içinde doğru değerle toplanır. Kur yoksa transfer reddedilir.
+ *
+ * Bir saattir işlem görmeyen IBAN'ın pencerelerinde sayılacak bir şey kalmadığı için
+ * bellekten atılır ve topic'e tombstone yazılır; bellek aktif IBAN sayısı ile sınırlıdır.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class VelocityLimiter {
+
+    private static final int BUCKETS = 12;
+    private static final long MINUTE_BUCKET_MILLIS = 5_000;   // son 1 dakika: 12 x 5 sn
+    private static final long HOUR_BUCKET_MILLIS = 300_000;   // son 1 saat: 12 x 5 dk
+
+    private final VelocityLimitProperties properties;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final FxRateService fxRateService;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<String, IbanWindows> local = new ConcurrentHashMap<>();
+    // IBAN -> (instanceId -> o instance'ın son snapshot'ı)
+    private final Map<String, Map<String, VelocityStateUpdate>> remote = new ConcurrentHashMap<>();
+
+    private Limits defaultLimits;
+    private Map<String, Limits> ibanLimits;
+
+    @PostConstruct
+    void resolveLimits() {
+        int limitScale = Money.scaleOf(properties.getLimitCurrency());
+        Map<String, Limits> byTier = new HashMap<>();
+        properties.getTiers().forEach((name, tier) -> byTier.put(name, Limits.of(tier, limitScale)));
+
+        defaultLimits = byTier.getOrDefault(properties.getDefaultTier(), Limits.UNLIMITED);
+        ibanLimits = new HashMap<>();
+        properties.getIbanTiers().forEach((iban, tierName) -> {
+            Limits limits = byTier.get(tierName);
+            if (limits == null) {
+                throw new IllegalStateException("Unknown velocity tier '" + tierName + "' for IBAN " + iban);
+            }
+            ibanLimits.put(iban, limits);
+        });
+        log.info("Velocity limits loaded: {} tiers, {} IBAN overrides, default tier: {}",
+                byTier.size(), ibanLimits.size(), properties.getDefaultTier());
+    }
+
+    /**
+     * Transferi limitlere göre kontrol eder ve kabul edilirse sayaçlara ekler.
+     * Kontrol ile ekleme arasında eşzamanlı istekler limiti birkaç transfer aşabilir.
+     *
+     * @throws InvalidTransferException tutar yoksa veya pozitif değilse
+     * @throws VelocityLimitExceededException limit aşılırsa
+     */
+    public void checkAndRecord(String iban, Money amount) {
+        if (amount == null || !amount.isPositive()) {
+            throw new InvalidTransferException("Transfer amount must be positive");
+        }
+        if (!properties.isEnabled() || iban == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        long amountMinor = inLimitCurrency(amount);
+        Limits limits = ibanLimits.getOrDefault(iban, defaultLimits);
+
+        IbanWindows windows = local.get(iban);
+        if (windows == null) {
+            windows = local.computeIfAbsent(iban, key -> new IbanWindows());
+        }
+
+        long minuteCount = windows.minute.count(now) + 1;
+        long minuteAmount = windows.minute.amount(now) + amountMinor;
+        long hourCount = windows.hour.count(now) + 1;
+        long hourAmount = windows.hour.amount(now) + amountMinor;
+
+        Map<String, VelocityStateUpdate> peers = remote.get(iban);
+        if (peers != null) {
+            for (VelocityStateUpdate peer : peers.values()) {
+                minuteCount += windows.minute.remoteCount(peer.getMinute(), now);
+                minuteAmount += windows.minute.remoteAmount(peer.getMinute(), now);
+                hourCount += windows.hour.remoteCount(peer.getHour(), now);
+                hourAmount += windows.hour.remoteAmount(peer.getHour(), now);
+            }
+        }
+
+        if (minuteCount > limits.maxCountPerMinute) {
+            throw rejected(iban, "transfer count per minute", limits.maxCountPerMinute);
+        }
+        if (minuteAmount > limits.maxAmountPerMinute) {
+            throw rejected(iban, "transfer amount per minute", limits.maxAmountPerMinute);
+        }
+        if (hourCount > limits.maxCountPerHour) {
+            throw rejected(iban, "transfer count per hour", limits.maxCountPerHour);
+        }
+        if (hourAmount > limits.maxAmountPerHour) {
+            throw rejected(iban, "transfer amount per hour", limits.maxAmountPerHour);
+        }
+
+        // Kontrolden sonra pencereler bellekten atılmış olabilir; kayıt map'teki güncel (gerekirse yeni) pencereye yapılır
+        local.compute(iban, (key, current) -> {
+            IbanWindows target = current != null ? current : new IbanWindows();
+            target.record(now, amountMinor);
+            return target;
+        });
+    }
+
+    /**
+     * Değişen pencereleri topic'e yazar, bir saattir boşta olan IBAN'ları bellekten atar.
+     */
+    @Scheduled(fixedDelayString = "${velocity.sync-interval-ms:1000}")
+    public void syncAndEvict() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        local.forEach((iban, windows) -> {
+            if (now - windows.lastTouched > windows.hour.windowMillis()) {
+                // Boşta olma kaydı yapan compute ile aynı kilit altında tekrar kontrol edilir
+                boolean[] evicted = {false};
+                local.computeIfPresent(iban, (key, current) -> {
+                    if (now - current.lastTouched > current.hour.windowMillis()) {
+                        evicted[0] = true;
+                        return null;
+                    }
+                    return current;
+                });
+                if (evicted[0]) {
+                    kafkaTemplate.send(properties.getTopic(), key(iban), null);
+                }
+            } else if (windows.dirty) {
+                windows.dirty = false;
+                kafkaTemplate.send(properties.getTopic(), key(iban), VelocityStateUpdate.builder()
+                        .instanceId(instanceId)
+                        .iban(iban)
+                        .minute(windows.minute.snapshot(now))
+                        .hour(windows.hour.snapshot(now))
+                        .build());
+            }
+        });
+
+        // Tombstone'u kaybolmuş (ör. çökmüş instance) snapshot'lar pencereden çıkınca atılır
+        long hourWindow = BUCKETS * HOUR_BUCKET_MILLIS;
+        for (String iban : remote.keySet()) {
+            remote.computeIfPresent(iban, (key, peers) -> {
+                peers.values().removeIf(peer -> (peer.getHour().getEpoch() + 1) * HOUR_BUCKET_MILLIS + hourWindow <= now);
+                return peers.isEmpty() ? null : peers;
+            });
+        }
+    }
+
+    /**
+     * Compacted topic'ten gelen diğer instance durumlarını uygular; null değer tombstone'dur.
+     */
+    public void onRemoteUpdate(String key, VelocityStateUpdate update) {
+        int separator = key.lastIndexOf('|');
+        if (separator < 0) {
+            return;
+        }
+        String iban = key.substring(0, separator);
+        String peerId = key.substring(separator + 1);
+        if (instanceId.equals(peerId)) {
+            return;
+        }
+
+        if (update == null) {
+            remote.computeIfPresent(iban, (k, peers) -> {
+                peers.remove(peerId);
+                return peers.isEmpty() ? null : peers;
+            });
+        } else {
+            remote.compute(iban, (k, peers) -> {
+                Map<String, VelocityStateUpdate> result = peers != null ? peers : new ConcurrentHashMap<>();
+                result.put(peerId, update);
+                return result;
+            });
+        }
+    }
+
+    private long inLimitCurrency(Money amount) {
+        String limitCurrency = properties.getLimitCurrency();
+        if (limitCurrency.equals(amount.currency())) {
+            return amount.minorUnits();
+        }
+        return fxRateService.convert(amount, limitCurrency).converted().minorUnits();
+    }
+
+    private String key(String iban) {
+        return iban + "|" + instanceId;
+    }
+
+    private VelocityLimitExceededException rejected(String iban, String dimension, long limit) {
+        log.warn("Velocity limit exceeded for {}: {} (limit {})", iban, dimension, limit);
+        return new VelocityLimitExceededException("Velocity limit exceeded: " + dimension);
+    }
+
+    private static class IbanWindows {
+        private final SlidingWindowCounter minute = new SlidingWindowCounter(BUCKETS, MINUTE_BUCKET_MILLIS);
+        private final SlidingWindowCounter hour = new SlidingWindowCounter(BUCKETS, HOUR_BUCKET_MILLIS);
+        private volatile long lastTouched = System.currentTimeMillis();
+        private volatile boolean dirty;
+
+        void record(long now, long amountMinor) {
+            minute.record(now, amountMinor);
+            hour.record(now, amountMinor);
+            lastTouched = now;
+            dirty = true;
+        }
+    }
+
+    private record Limits(long maxCountPerMinute, long maxAmountPerMinute,
+                          long maxCountPerHour, long maxAmountPerHour) {
+
+        static final Limits UNLIMITED = new Limits(Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE);
+
+        static Limits of(VelocityLimitProperties.Tier tier, int scale) {
+            return new Limits(count(tier.getMaxCountPerMinute()), amount(tier.getMaxAmountPerMinute(), scale),
+                    count(tier.getMaxCountPerHour()), amount(tier.getMaxAmountPerHour(), scale));
+        }
+
+        private static long count(long limit) {
+            return limit > 0 ? limit : Long.MAX_VALUE;
+        }
+
+        private static long amount(BigDecimal limit, int scale) {
+            return limit != null && limit.signum() > 0
+                    ? limit.movePointRight(scale).longValue()
+                    : Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+-- transfers: created_at'e göre aylık range-partitioned tablo.
+-- Partition'lar TransferPartitionManager tarafından önceden oluşturulur ve eskileri arşivlenir.
+-- Partitioned tablolarda PK/unique kısıtları partition key'i içermek zorundadır; bu yüzden
+-- PK (id, created_at) ve transaction_id üzerinde unique olmayan bir index vardır.
+-- Not: Bu script mevcut, partition'sız bir transfers tablosunu dönüştürmez.
+CREATE TABLE IF NOT EXISTS transfers (
+    id                  BIGSERIAL     NOT NULL,
+    from_iban           VARCHAR(255)  NOT NULL,
+    to_iban             VARCHAR(255)  NOT NULL,
+    amount              NUMERIC(38,4) NOT NULL,
+    currency            VARCHAR(255)  NOT NULL,
+    credit_amount       NUMERIC(38,4),
+    credit_currency     VARCHAR(255),
+    fx_rate_version     BIGINT,
+    fx_rate             NUMERIC(38,8),
+    status              VARCHAR(255)  NOT NULL,
+    description         VARCHAR(500),
+    failure_reason      VARCHAR(500),
+    settlement_batch_id VARCHAR(255),
+    transaction_id      VARCHAR(255)  NOT NULL,
+    created_at          TIMESTAMP(6)  NOT NULL,
+    updated_at          TIMESTAMP(6)  NOT NULL,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- FX kolonları sonradan eklendi; mevcut tablolar için
+ALTER TABLE transfers ADD COLUMN IF NOT EXISTS credit_amount NUMERIC(38,4);
+ALTER TABLE transfers ADD COLUMN IF NOT EXISTS credit_currency VARCHAR(255);
+ALTER TABLE transfers ADD COLUMN IF NOT EXISTS fx_rate_version BIGINT;
+ALTER TABLE transfers ADD COLUMN IF NOT EXISTS fx_rate NUMERIC(38,8);
+
+-- Tutar kolonları ISO 4217'deki en fazla ondalık haneyi (4) tutar; para biriminin kendi hanesi Money'dedir.
+-- Tip zaten NUMERIC(38,4) ise PostgreSQL tabloyu yeniden yazmaz
+ALTER TABLE transfers ALTER COLUMN amount TYPE NUMERIC(38,4);
+ALTER TABLE transfers ALTER COLUMN credit_amount TYPE NUMERIC(38,4);
+
+CREATE INDEX IF NOT EXISTS idx_transfers_transaction_id ON transfers (transaction_id);
+-- Hesabın son transferleri (gateway /overview) her partition'da index sırasıyla okunup birleştirilir
+DROP INDEX IF EXISTS idx_transfers_from_iban;
+DROP INDEX IF EXISTS idx_transfers_to_iban;
+CREATE INDEX IF NOT EXISTS idx_transfers_from_iban_created_at ON transfers (from_iban, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_transfers_to_iban_created_at ON transfers (to_iban, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_transfers_settlement_batch_id ON transfers (settlement_batch_id)
+    WHERE settlement_batch_id IS NOT NULL;
+-- Saga/netting taramaları sadece tamamlanmamış transferlere bakar; partial index küçük kalır
+CREATE INDEX IF NOT EXISTS idx_transfers_in_flight ON transfers (status, updated_at)
+    WHERE status IN ('PENDING', 'DEBITED', 'COMPENSATING', 'NETTING', 'SETTLING');
+
+-- Arşivlenip drop edilen partition'lardaki başarılı transferlerin IBAN başına net akışı.
+-- Reconciliation beklenen bakiyeyi aktif partition'lar ile bu toplamlardan hesaplar. Partition drop'u ile
+-- aynı transaction'da yazılır (bkz. TransferPartitionManager).
+CREATE TABLE IF NOT EXISTS transfer_archive_totals (
+    partition_name VARCHAR(63)  NOT NULL,
+    iban           VARCHAR(255) NOT NULL,
+    net_minor      BIGINT,
+    net_amount     NUMERIC(38,4),
+    PRIMARY KEY (partition_name, iban)
+);
+-- net_minor eski kayıtlardaki 2 haneli minor unit toplamıdır; yeni kayıtlar net_amount'a yazılır
+ALTER TABLE transfer_archive_totals ADD COLUMN IF NOT EXISTS net_amount NUMERIC(38,4);
+ALTER TABLE transfer_archive_totals ALTER COLUMN net_minor DROP NOT NULL;
+
+-- Idempotency-Key kayıtları (bkz. IdempotencyService). Anahtar PK olduğu için aynı anahtarla ikinci istek
+-- INSERT ... ON CONFLICT ile tanınır; süresi dolan kayıtlar zamanlanmış iş ile silinir.
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key VARCHAR(255) NOT NULL PRIMARY KEY,
+    request_hash    VARCHAR(64)  NOT NULL,
+    status          VARCHAR(32)  NOT NULL,
+    transaction_id  VARCHAR(255),
+    response        TEXT,
+    created_at      TIMESTAMP(6) NOT NULL,
+    expires_at      TIMESTAMP(6) NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
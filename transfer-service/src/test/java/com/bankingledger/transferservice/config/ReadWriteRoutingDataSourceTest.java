@@ -0,0 +1,93 @@
+package com.bankingledger.transferservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private final ReplicaLagMonitor lagMonitor = mock(ReplicaLagMonitor.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+
+    private ReadWriteRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+
+        routing = new ReadWriteRoutingDataSource(lagMonitor, meterRegistry);
+        routing.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.Route.PRIMARY, primary,
+                ReadWriteRoutingDataSource.Route.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void writeTransactionGoesToPrimaryEvenWhenReplicaIsUsable() throws Exception {
+        when(lagMonitor.isUsable()).thenReturn(true);
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        assertThat(readCount("replica", null)).isZero();
+    }
+
+    @Test
+    void readOnlyTransactionGoesToUsableReplica() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(lagMonitor.isUsable()).thenReturn(true);
+
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+        assertThat(readCount("replica", null)).isEqualTo(1);
+    }
+
+    @Test
+    void readOnlyTransactionFallsBackToPrimaryWhenReplicaIsStale() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(lagMonitor.isUsable()).thenReturn(false);
+        when(lagMonitor.isAvailable()).thenReturn(true);
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        assertThat(readCount("primary", "stale")).isEqualTo(1);
+        assertThat(readCount("primary", "down")).isZero();
+    }
+
+    @Test
+    void readOnlyTransactionFallsBackToPrimaryWhenReplicaIsDown() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(lagMonitor.isUsable()).thenReturn(false);
+        when(lagMonitor.isAvailable()).thenReturn(false);
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        assertThat(readCount("primary", "down")).isEqualTo(1);
+        assertThat(readCount("primary", "stale")).isZero();
+    }
+
+    private double readCount(String route, String reason) {
+        var search = meterRegistry.find("datasource.routing.reads").tag("route", route);
+        if (reason != null) {
+            search = search.tag("reason", reason);
+        }
+        return search.counter().count();
+    }
+}
@@ -0,0 +1,100 @@
+package com.bankingledger.transferservice.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaLagMonitorTest {
+
+    private static final long MAX_LAG_MS = 500;
+
+    private final DataSource dataSource = mock(DataSource.class);
+    private final Connection connection = mock(Connection.class);
+    private final Statement statement = mock(Statement.class);
+    private final ResultSet resultSet = mock(ResultSet.class);
+
+    private ReplicaLagMonitor monitor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        monitor = new ReplicaLagMonitor(dataSource, MAX_LAG_MS, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void unusableBeforeFirstProbe() {
+        assertThat(monitor.isAvailable()).isFalse();
+        assertThat(monitor.isUsable()).isFalse();
+    }
+
+    @Test
+    void streamingReplicaWithinLagIsUsable() throws Exception {
+        probeResult(true, true, 100);
+
+        monitor.probe();
+
+        assertThat(monitor.isAvailable()).isTrue();
+        assertThat(monitor.isUsable()).isTrue();
+    }
+
+    @Test
+    void laggingReplicaIsStale() throws Exception {
+        probeResult(true, true, MAX_LAG_MS + 1);
+
+        monitor.probe();
+
+        assertThat(monitor.isAvailable()).isTrue();
+        assertThat(monitor.isUsable()).isFalse();
+    }
+
+    @Test
+    void replicaDisconnectedFromPrimaryIsStaleEvenWithZeroLag() throws Exception {
+        probeResult(true, false, 0);
+
+        monitor.probe();
+
+        assertThat(monitor.isAvailable()).isTrue();
+        assertThat(monitor.isUsable()).isFalse();
+    }
+
+    @Test
+    void primaryBehindReplicaUrlIsUsable() throws Exception {
+        probeResult(false, false, 0);
+
+        monitor.probe();
+
+        assertThat(monitor.isUsable()).isTrue();
+    }
+
+    @Test
+    void failedProbeMarksReplicaDown() throws Exception {
+        probeResult(true, true, 0);
+        monitor.probe();
+
+        when(dataSource.getConnection()).thenThrow(new SQLException("connection refused"));
+        monitor.probe();
+
+        assertThat(monitor.isAvailable()).isFalse();
+        assertThat(monitor.isUsable()).isFalse();
+    }
+
+    private void probeResult(boolean inRecovery, boolean streaming, long lagMs) throws SQLException {
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getBoolean("in_recovery")).thenReturn(inRecovery);
+        when(resultSet.getBoolean("streaming")).thenReturn(streaming);
+        when(resultSet.getLong("lag_ms")).thenReturn(lagMs);
+    }
+}
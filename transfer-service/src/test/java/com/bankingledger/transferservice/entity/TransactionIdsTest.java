@@ -0,0 +1,42 @@
+package com.bankingledger.transferservice.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TransactionIdsTest {
+
+    @Test
+    void newIdCarriesCreationTime() {
+        LocalDateTime before = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        String id = TransactionIds.newId();
+        LocalDateTime after = LocalDateTime.now();
+
+        assertThat(UUID.fromString(id).version()).isEqualTo(7);
+        assertThat(TransactionIds.timestampOf(id)).hasValueSatisfying(
+                created -> assertThat(created).isBetween(before, after));
+    }
+
+    @Test
+    void createdAtOfReusedIdIsItsTimestamp() {
+        // 2024-01-01T00:00:00Z epoch milisaniyesi ile üretilmiş UUIDv7
+        long millis = 1_704_067_200_000L;
+        String id = new UUID((millis << 16) | 0x7000L, 0x8000000000000000L).toString();
+
+        assertThat(TransactionIds.createdAtOf(id)).isEqualTo(TransactionIds.timestampOf(id).orElseThrow());
+        assertThat(TransactionIds.createdAtOf(id)).isBefore(LocalDateTime.now().minusYears(1));
+    }
+
+    @Test
+    void createdAtOfIdWithoutTimestampIsNow() {
+        String id = UUID.randomUUID().toString();
+
+        assertThat(TransactionIds.timestampOf(id)).isEmpty();
+        assertThat(TransactionIds.createdAtOf(id)).isCloseTo(LocalDateTime.now(), within(1, ChronoUnit.SECONDS));
+    }
+}
@@ -0,0 +1,234 @@
+package com.bankingledger.transferservice.intake;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IntakeLogTest {
+
+    private static final int SEGMENT_BYTES = 4096;
+    // "tx-001" gibi 6 byte'lık payload: kayıt başına 22 byte
+    private static final int FRAME_BYTES = IntakeLog.HEADER_BYTES + 6;
+    private static final long AWAIT_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recordsSurviveReopen() throws Exception {
+        try (IntakeLog log = IntakeLog.open(dir, SEGMENT_BYTES, 0)) {
+            appendAll(log, 1, 3);
+        }
+
+        try (IntakeLog log = IntakeLog.open(dir, SEGMENT_BYTES, 0)) {
+            assertThat(log.durableSequence()).isEqualTo(3);
+            assertThat(readAll(log, 0)).containsExactly("tx-001", "tx-002", "tx-003");
+        }
+    }
+
+    @Test
+    void recordIsReadableOnlyAfterItIsDurable() throws Exception {
+        try (IntakeLog log = IntakeLog.open(dir, SEGMENT_BYTES, 0)) {
+            long sequence = log.append(payload(1));
+
+            assertThat(log.awaitDurable(sequence, AWAIT_NANOS)).isTrue();
+            assertThat(readAll(log, 0)).containsExactly("tx-001");
+        }
+    }
+
+    @Test
+    void tornTailRecordIsDroppedOnRecovery() throws Exception {
+        try (IntakeLog log = IntakeLog.open(dir, SEGMENT_BYTES, 0)) {
+            appendAll(log, 1, 3);
+        }
+        // Son kaydın payload'ı yarım yazılmış gibi: CRC tutmaz
+        corrupt(segment(1), 2L * FRAME_BYTES + IntakeLog.HEADER_BYTES);
+
+        try (IntakeLog log = IntakeLog.open(dir, SEGMENT_BYTES, 0)) {
+            assertThat(log.durableSequence()).isEqualTo(2);
+            assertThat(readAll(log, 0)).containsExactly("tx-001", "tx-002");
+
+            // Kesilen yere yeni kayıt aynı sıra numarasıyla yazılır
+            assertThat(log.append(payload(9))).isEqualTo(3);
+        }
+
+        try (IntakeLog log = IntakeLog.open(dir, SEGMENT_BYTES, 0)) {
+            assertThat(readAll(log, 0)).containsExactly("tx-001", "tx-002", "tx-009");
+        }
+    }
+
+    @Test
+    void partiallyWrittenHeaderIsDroppedOnRecovery() throws Exception {
+        try (IntakeLog log = IntakeLog.open(dir, SEGMENT_BYTES, 0)) {
+            appendAll(log, 1, 2);
+        }
+        // Uzunluk yazılmış ama kaydın geri kalanı yazılmamış
+        writeInt(segment(1), 2L * FRAME_BYTES, 6);
+
+        try (IntakeLog log = IntakeLog.open(dir, SEGMENT_BYTES, 0)) {
+            assertThat(log.durableSequence()).isEqualTo(2);
+            assertThat(readAll(log, 0)).containsExactly("tx-001", "tx-002");
+        }
+    }
+
+    @Test
+    void invalidLengthIsDroppedOnRecovery() throws Exception {
+        try (IntakeLog log = IntakeLog.open(dir, SEGMENT_BYTES, 0)) {
+            appendAll(log, 1, 2);
+        }
+        writeInt(segment(1), FRAME_BYTES, SEGMENT_BYTES);
+
+        try (IntakeLog log = IntakeLog.open(dir, SEGMENT_BYTES, 0)) {
+            assertThat(log.durableSequence()).isEqualTo(1);
+            assertThat(readAll(log, 0)).containsExactly("tx-001");
+        }
+    }
+
+    @Test
+    void recordsBehindTruncationPointDoNotReappear() throws Exception {
+        try (IntakeLog log = IntakeLog.open(dir, SEGMENT_BYTES, 0)) {
+            appendAll(log, 1, 3);
+        }
+        corrupt(segment(1), FRAME_BYTES + IntakeLog.HEADER_BYTES);
+
+        try (IntakeLog log = IntakeLog.open(dir, SEGMENT_BYTES, 0)) {
+            assertThat(readAll(log, 0)).containsExactly("tx-001");
+        }
+
+        // Kesilen kısım sıfırlandığı için eski 3. kayıt ikinci kurtarmada da geri gelmez
+        try (IntakeLog log = IntakeLog.open(dir, SEGMENT_BYTES, 0)) {
+            assertThat(log.durableSequence()).isEqualTo(1);
+            assertThat(readAll(log, 0)).containsExactly("tx-001");
+        }
+    }
+
+    @Test
+    void segmentsAfterTruncatedSegmentAreDeleted() throws Exception {
+        int segmentBytes = 3 * FRAME_BYTES - 1;
+        try (IntakeLog log = IntakeLog.open(dir, segmentBytes, 0)) {
+            // Segment başına 2 kayıt: [1, 2] [3, 4] [5]
+            appendAll(log, 1, 5);
+        }
+        assertThat(segmentFiles()).hasSize(3);
+        corrupt(segment(3), IntakeLog.HEADER_BYTES);
+
+        try (IntakeLog log = IntakeLog.open(dir, segmentBytes, 0)) {
+            assertThat(log.durableSequence()).isEqualTo(2);
+            assertThat(readAll(log, 0)).containsExactly("tx-001", "tx-002");
+            assertThat(segmentFiles()).hasSize(2);
+
+            assertThat(log.append(payload(9))).isEqualTo(3);
+        }
+
+        try (IntakeLog log = IntakeLog.open(dir, segmentBytes, 0)) {
+            assertThat(readAll(log, 0)).containsExactly("tx-001", "tx-002", "tx-009");
+        }
+    }
+
+    @Test
+    void readerContinuesAcrossSegments() throws Exception {
+        int segmentBytes = 3 * FRAME_BYTES - 1;
+        try (IntakeLog log = IntakeLog.open(dir, segmentBytes, 0)) {
+            appendAll(log, 1, 5);
+
+            assertThat(readAll(log, 0)).containsExactly("tx-001", "tx-002", "tx-003", "tx-004", "tx-005");
+            assertThat(readAll(log, 3)).containsExactly("tx-004", "tx-005");
+        }
+    }
+
+    @Test
+    void checkpointSurvivesReopenAndReleasesAppliedSegments() throws Exception {
+        int segmentBytes = 3 * FRAME_BYTES - 1;
+        try (IntakeLog log = IntakeLog.open(dir, segmentBytes, 0)) {
+            appendAll(log, 1, 5);
+            log.markApplied(4);
+            assertThat(segmentFiles()).hasSize(1);
+        }
+
+        try (IntakeLog log = IntakeLog.open(dir, segmentBytes, 0)) {
+            assertThat(log.appliedSequence()).isEqualTo(4);
+            assertThat(readAll(log, log.appliedSequence())).containsExactly("tx-005");
+        }
+    }
+
+    @Test
+    void corruptCheckpointFailsRecovery() throws Exception {
+        try (IntakeLog log = IntakeLog.open(dir, SEGMENT_BYTES, 0)) {
+            appendAll(log, 1, 2);
+            log.markApplied(1);
+        }
+        corrupt(dir.resolve("applied.seq"), 0);
+
+        assertThatThrownBy(() -> IntakeLog.open(dir, SEGMENT_BYTES, 0))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("checksum");
+    }
+
+    @Test
+    void rejectsRecordLargerThanSegment() throws Exception {
+        try (IntakeLog log = IntakeLog.open(dir, 64, 0)) {
+            assertThatThrownBy(() -> log.append(new byte[64]))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private static void appendAll(IntakeLog log, int from, int to) throws Exception {
+        long sequence = 0;
+        for (int i = from; i <= to; i++) {
+            sequence = log.append(payload(i));
+        }
+        assertThat(log.awaitDurable(sequence, AWAIT_NANOS)).isTrue();
+    }
+
+    private static List<String> readAll(IntakeLog log, long afterSequence) {
+        IntakeLog.Reader reader = log.reader(afterSequence);
+        List<String> payloads = new ArrayList<>();
+        IntakeRecord record;
+        while ((record = reader.next()) != null) {
+            payloads.add(new String(record.payload(), StandardCharsets.UTF_8));
+        }
+        return payloads;
+    }
+
+    private static byte[] payload(int i) {
+        return String.format("tx-%03d", i).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private Path segment(long firstSequence) {
+        return dir.resolve(String.format("intake-%020d.log", firstSequence));
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".log")).toList();
+        }
+    }
+
+    private static void corrupt(Path file, long offset) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer current = ByteBuffer.allocate(1);
+            channel.read(current, offset);
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) ~current.get(0)}), offset);
+        }
+    }
+
+    private static void writeInt(Path file, long offset, int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, value), offset);
+        }
+    }
+}
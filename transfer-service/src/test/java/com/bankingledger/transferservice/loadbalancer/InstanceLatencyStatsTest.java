@@ -0,0 +1,130 @@
+package com.bankingledger.transferservice.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class InstanceLatencyStatsTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long T0 = TimeUnit.SECONDS.toNanos(1000);
+    private static final LatencyStatsRegistry.Settings SETTINGS = new LatencyStatsRegistry.Settings(
+            10_000 * MS, 3, 5_000 * MS, 60_000 * MS, 50 * MS);
+
+    @Test
+    void startsWithInitialLatency() {
+        InstanceLatencyStats stats = new InstanceLatencyStats(SETTINGS, T0);
+
+        assertThat(stats.cost(T0)).isEqualTo(50.0 * MS);
+    }
+
+    @Test
+    void slowResponseRaisesLatencyImmediately() {
+        InstanceLatencyStats stats = new InstanceLatencyStats(SETTINGS, T0);
+
+        stats.onStart();
+        stats.onComplete(400 * MS, false, T0);
+
+        assertThat(stats.cost(T0)).isEqualTo(400.0 * MS);
+    }
+
+    @Test
+    void fastResponsesLowerLatencyGradually() {
+        InstanceLatencyStats stats = new InstanceLatencyStats(SETTINGS, T0);
+        stats.onStart();
+        stats.onComplete(400 * MS, false, T0);
+
+        stats.onStart();
+        stats.onComplete(10 * MS, false, T0 + 10_000 * MS);
+
+        // Ağırlık exp(-1): 400 * e^-1 + 10 * (1 - e^-1)
+        double expected = 400 * MS * Math.exp(-1) + 10 * MS * (1 - Math.exp(-1));
+        assertThat(stats.cost(T0 + 10_000 * MS)).isCloseTo(expected, within(1.0));
+    }
+
+    @Test
+    void idleCostDecaysTowardsFloor() {
+        InstanceLatencyStats stats = new InstanceLatencyStats(SETTINGS, T0);
+        stats.onStart();
+        stats.onComplete(400 * MS, false, T0);
+
+        assertThat(stats.cost(T0 + 10_000 * MS)).isCloseTo(400 * MS * Math.exp(-1), within(1.0));
+        assertThat(stats.cost(T0 + 1_000_000 * MS)).isEqualTo(1.0 * MS);
+    }
+
+    @Test
+    void outstandingRequestsMultiplyCost() {
+        InstanceLatencyStats stats = new InstanceLatencyStats(SETTINGS, T0);
+
+        stats.onStart();
+        stats.onStart();
+
+        assertThat(stats.outstanding()).isEqualTo(2);
+        assertThat(stats.cost(T0)).isEqualTo(3 * 50.0 * MS);
+    }
+
+    @Test
+    void fastFailureDoesNotLowerLatency() {
+        InstanceLatencyStats stats = new InstanceLatencyStats(SETTINGS, T0);
+
+        stats.onStart();
+        stats.onComplete(MS / 10, true, T0);
+
+        assertThat(stats.cost(T0)).isEqualTo(10_000.0 * MS);
+    }
+
+    @Test
+    void failureWithoutLatencyIsPenalized() {
+        InstanceLatencyStats stats = new InstanceLatencyStats(SETTINGS, T0);
+
+        stats.onStart();
+        stats.onComplete(-1, true, T0);
+
+        assertThat(stats.cost(T0)).isEqualTo(10_000.0 * MS);
+        assertThat(stats.outstanding()).isZero();
+    }
+
+    @Test
+    void ejectsAfterConsecutiveFailuresWithGrowingDuration() {
+        InstanceLatencyStats stats = new InstanceLatencyStats(SETTINGS, T0);
+
+        assertThat(stats.onComplete(-1, true, T0)).isZero();
+        assertThat(stats.onComplete(-1, true, T0)).isZero();
+        assertThat(stats.onComplete(-1, true, T0)).isEqualTo(5_000 * MS);
+        assertThat(stats.isEjected(T0 + 4_999 * MS)).isTrue();
+        assertThat(stats.isEjected(T0 + 5_000 * MS)).isFalse();
+
+        long later = T0 + 5_000 * MS;
+        stats.onComplete(-1, true, later);
+        stats.onComplete(-1, true, later);
+        assertThat(stats.onComplete(-1, true, later)).isEqualTo(10_000 * MS);
+    }
+
+    @Test
+    void ejectionDurationIsCapped() {
+        InstanceLatencyStats stats = new InstanceLatencyStats(SETTINGS, T0);
+
+        long ejection = 0;
+        for (int i = 0; i < 3 * 20; i++) {
+            ejection = Math.max(ejection, stats.onComplete(-1, true, T0));
+        }
+
+        assertThat(ejection).isEqualTo(60_000 * MS);
+    }
+
+    @Test
+    void successResetsFailureCount() {
+        InstanceLatencyStats stats = new InstanceLatencyStats(SETTINGS, T0);
+
+        stats.onComplete(-1, true, T0);
+        stats.onComplete(-1, true, T0);
+        stats.onComplete(20 * MS, false, T0);
+        stats.onComplete(-1, true, T0);
+
+        assertThat(stats.onComplete(-1, true, T0)).isZero();
+        assertThat(stats.isEjected(T0)).isFalse();
+    }
+}
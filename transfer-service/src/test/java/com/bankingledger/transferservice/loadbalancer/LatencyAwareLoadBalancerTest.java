@@ -0,0 +1,119 @@
+package com.bankingledger.transferservice.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyAwareLoadBalancerTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final LatencyStatsRegistry registry = new LatencyStatsRegistry("account-service",
+            new LatencyStatsRegistry.Settings(10_000 * MS, 1, 60_000 * MS, 60_000 * MS, 50 * MS));
+    private final LatencyAwareLoadBalancer loadBalancer = new LatencyAwareLoadBalancer(null, registry);
+
+    private final ServiceInstance a = instance("a");
+    private final ServiceInstance b = instance("b");
+    private final ServiceInstance c = instance("c");
+
+    @Test
+    void returnsEmptyResponseWithoutInstances() {
+        assertThat(loadBalancer.select(List.of()).hasServer()).isFalse();
+    }
+
+    @Test
+    void returnsSingleInstanceEvenWhenEjected() {
+        eject(a);
+
+        assertThat(loadBalancer.select(List.of(a)).getServer()).isEqualTo(a);
+    }
+
+    @Test
+    void prefersLowerLatencyInstance() {
+        complete(a, 500 * MS);
+        complete(b, 5 * MS);
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(server(loadBalancer.select(List.of(a, b)))).isEqualTo(b);
+        }
+    }
+
+    @Test
+    void prefersInstanceWithFewerOutstandingRequests() {
+        registry.stats(a).onStart();
+        registry.stats(a).onStart();
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(server(loadBalancer.select(List.of(a, b)))).isEqualTo(b);
+        }
+    }
+
+    @Test
+    void avoidsFastFailingInstance() {
+        complete(b, 20 * MS);
+        registry.stats(a).onStart();
+        registry.stats(a).onComplete(MS / 10, true, System.nanoTime());
+
+        // failureThreshold=1 olduğu için a dışlanmıştır; dışlanma olmasa da hata cezası a'yı pahalı yapar
+        for (int i = 0; i < 20; i++) {
+            assertThat(server(loadBalancer.select(List.of(a, b)))).isEqualTo(b);
+        }
+    }
+
+    @Test
+    void skipsEjectedInstances() {
+        eject(a);
+        eject(b);
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(server(loadBalancer.select(List.of(a, b, c)))).isEqualTo(c);
+        }
+    }
+
+    @Test
+    void fallsBackToAllInstancesWhenAllAreEjected() {
+        eject(a);
+        eject(b);
+
+        assertThat(server(loadBalancer.select(List.of(a, b)))).isIn(a, b);
+    }
+
+    @Test
+    void spreadsLoadAcrossEqualInstances() {
+        boolean pickedA = false;
+        boolean pickedB = false;
+        for (int i = 0; i < 200 && !(pickedA && pickedB); i++) {
+            ServiceInstance server = server(loadBalancer.select(List.of(a, b, c)));
+            pickedA |= server.equals(a);
+            pickedB |= server.equals(b);
+        }
+
+        assertThat(pickedA).isTrue();
+        assertThat(pickedB).isTrue();
+    }
+
+    private void complete(ServiceInstance instance, long latencyNanos) {
+        InstanceLatencyStats stats = registry.stats(instance);
+        stats.onStart();
+        stats.onComplete(latencyNanos, false, System.nanoTime());
+    }
+
+    private void eject(ServiceInstance instance) {
+        assertThat(registry.stats(instance).onComplete(-1, true, System.nanoTime())).isPositive();
+    }
+
+    private static ServiceInstance server(Response<ServiceInstance> response) {
+        assertThat(response.hasServer()).isTrue();
+        return response.getServer();
+    }
+
+    private static ServiceInstance instance(String id) {
+        return new DefaultServiceInstance(id, "account-service", id + ".local", 8081, false);
+    }
+}
@@ -0,0 +1,48 @@
+package com.bankingledger.transferservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FxRateSnapshotTest {
+
+    @Test
+    void convertsBetweenCurrenciesWithSameScale() {
+        // 100.00 USD -> 3215.00 TRY
+        assertThat(FxRateSnapshot.convert(10_000, rate("32.15"), 0)).isEqualTo(321_500);
+    }
+
+    @Test
+    void shiftsToTargetCurrencyScale() {
+        // 10.00 USD -> 1505 JPY
+        assertThat(FxRateSnapshot.convert(1_000, rate("150.5"), -2)).isEqualTo(1_505);
+        // 1500 JPY -> 9.90 USD
+        assertThat(FxRateSnapshot.convert(1_500, rate("0.0066"), 2)).isEqualTo(990);
+        // 1.00 USD -> 0.307 KWD
+        assertThat(FxRateSnapshot.convert(100, rate("0.307"), 1)).isEqualTo(307);
+    }
+
+    @Test
+    void roundsHalfEvenAfterShift() {
+        // 1.00 USD -> 150.5 JPY -> 150; 3.00 USD -> 451.5 JPY -> 452
+        assertThat(FxRateSnapshot.convert(100, rate("150.5"), -2)).isEqualTo(150);
+        assertThat(FxRateSnapshot.convert(300, rate("150.5"), -2)).isEqualTo(452);
+    }
+
+    @Test
+    void fallsBackToBigDecimalOnOverflow() {
+        long amount = Long.MAX_VALUE / 1_000;
+        long expected = BigDecimal.valueOf(amount).multiply(new BigDecimal("0.5"))
+                .setScale(0, RoundingMode.HALF_EVEN).longValueExact();
+
+        assertThat(FxRateSnapshot.convert(amount, rate("0.5"), 0)).isEqualTo(expected);
+    }
+
+    private static FxRateSnapshot.Rate rate(String value) {
+        BigDecimal scaled = new BigDecimal(value).setScale(FxRateSnapshot.RATE_SCALE);
+        return new FxRateSnapshot.Rate(scaled.unscaledValue().longValueExact(), scaled);
+    }
+}
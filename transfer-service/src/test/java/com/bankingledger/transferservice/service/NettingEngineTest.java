@@ -0,0 +1,103 @@
+package com.bankingledger.transferservice.service;
+
+import com.bankingledger.common.money.Money;
+import com.bankingledger.transferservice.entity.Transfer;
+import com.bankingledger.transferservice.event.NettingBatchReply;
+import com.bankingledger.transferservice.repository.TransferRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NettingEngineTest {
+
+    private static final String BATCH = "batch-1";
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 1, 15, 10, 0);
+
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+    private final TransferRepository transferRepository = mock(TransferRepository.class);
+    private final NettingEngine engine = new NettingEngine(transferRepository, kafkaTemplate);
+
+    @Test
+    void successfulBatchSettlesAllTransfers() {
+        Transfer a = settling(1L, "TR01", "TR02");
+        Transfer b = settling(2L, "TR03", "TR04");
+        when(transferRepository.findBySettlementBatchIdAndStatus(BATCH, Transfer.TransferStatus.SETTLING))
+                .thenReturn(List.of(a, b));
+
+        engine.onBatchReply(NettingBatchReply.builder().batchId(BATCH).success(true).build());
+
+        assertThat(a.getStatus()).isEqualTo(Transfer.TransferStatus.SUCCESS);
+        assertThat(b.getStatus()).isEqualTo(Transfer.TransferStatus.SUCCESS);
+        verify(kafkaTemplate, times(2)).send(eq("transfer-events"), anyString(), any());
+    }
+
+    @Test
+    void rejectedBatchFailsOnlyTransfersTouchingRejectedAccounts() {
+        Transfer fromRejected = settling(1L, "TR01", "TR02");
+        Transfer toRejected = settling(2L, "TR03", "TR01");
+        Transfer unrelated = settling(3L, "TR04", "TR05");
+        when(transferRepository.findBySettlementBatchIdAndStatus(BATCH, Transfer.TransferStatus.SETTLING))
+                .thenReturn(List.of(fromRejected, toRejected, unrelated));
+
+        engine.onBatchReply(NettingBatchReply.builder()
+                .batchId(BATCH)
+                .success(false)
+                .reason("insufficient balance")
+                .rejectedIbans(List.of("TR01"))
+                .build());
+
+        assertThat(fromRejected.getStatus()).isEqualTo(Transfer.TransferStatus.FAILED);
+        assertThat(toRejected.getStatus()).isEqualTo(Transfer.TransferStatus.FAILED);
+        assertThat(unrelated.getStatus()).isEqualTo(Transfer.TransferStatus.NETTING);
+        assertThat(unrelated.getSettlementBatchId()).isNull();
+        verify(kafkaTemplate, times(2)).send(eq("transfer-events"), anyString(), any());
+
+        // Geri dönen transfer bir sonraki pencerede tekrar settle edilir
+        engine.closeWindow();
+        verify(transferRepository).assignSettlementBatch(eq(List.of(3L)), eq(CREATED_AT), eq(CREATED_AT), anyString(),
+                eq(Transfer.TransferStatus.NETTING), eq(Transfer.TransferStatus.SETTLING));
+    }
+
+    @Test
+    void rejectedBatchWithoutKnownAccountsFailsAllTransfers() {
+        Transfer a = settling(1L, "TR01", "TR02");
+        Transfer b = settling(2L, "TR03", "TR04");
+        when(transferRepository.findBySettlementBatchIdAndStatus(BATCH, Transfer.TransferStatus.SETTLING))
+                .thenReturn(List.of(a, b));
+
+        engine.onBatchReply(NettingBatchReply.builder()
+                .batchId(BATCH)
+                .success(false)
+                .reason("rejected")
+                .rejectedIbans(List.of("TR99"))
+                .build());
+
+        assertThat(a.getStatus()).isEqualTo(Transfer.TransferStatus.FAILED);
+        assertThat(b.getStatus()).isEqualTo(Transfer.TransferStatus.FAILED);
+    }
+
+    private static Transfer settling(Long id, String from, String to) {
+        return Transfer.builder()
+                .id(id)
+                .fromIban(from)
+                .toIban(to)
+                .amount(Money.ofMinor(1_000, "TRY"))
+                .transactionId("tx-" + id)
+                .createdAt(CREATED_AT)
+                .status(Transfer.TransferStatus.SETTLING)
+                .settlementBatchId(BATCH)
+                .build();
+    }
+}
@@ -0,0 +1,153 @@
+package com.bankingledger.transferservice.service;
+
+import com.bankingledger.transferservice.event.VelocityStateUpdate;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SlidingWindowCounterTest {
+
+    private static final int BUCKETS = 12;
+    private static final long BUCKET_MS = 5_000;
+    private static final long T0 = 1_000_000_000_000L;
+
+    private final SlidingWindowCounter counter = new SlidingWindowCounter(BUCKETS, BUCKET_MS);
+
+    @Test
+    void sumsRecordsWithinWindow() {
+        counter.record(T0, 100);
+        counter.record(T0 + 1_000, 250);
+        counter.record(T0 + 30_000, 50);
+
+        assertThat(counter.count(T0 + 30_000)).isEqualTo(3);
+        assertThat(counter.amount(T0 + 30_000)).isEqualTo(400);
+    }
+
+    @Test
+    void recordsExpireAfterWindow() {
+        counter.record(T0, 100);
+
+        assertThat(counter.count(T0 + 11 * BUCKET_MS)).isEqualTo(1);
+        assertThat(counter.count(T0 + 12 * BUCKET_MS)).isZero();
+        assertThat(counter.amount(T0 + 12 * BUCKET_MS)).isZero();
+    }
+
+    @Test
+    void reusedBucketStartsFromZero() {
+        counter.record(T0, 100);
+        counter.record(T0 + 12 * BUCKET_MS, 30);
+
+        assertThat(counter.count(T0 + 12 * BUCKET_MS)).isEqualTo(1);
+        assertThat(counter.amount(T0 + 12 * BUCKET_MS)).isEqualTo(30);
+    }
+
+    @Test
+    void lateWriteToReusedBucketIsDropped() {
+        counter.record(T0 + 12 * BUCKET_MS, 30);
+        counter.record(T0, 100);
+
+        assertThat(counter.count(T0 + 12 * BUCKET_MS)).isEqualTo(1);
+        assertThat(counter.amount(T0 + 12 * BUCKET_MS)).isEqualTo(30);
+    }
+
+    @Test
+    void zeroAmountIsCounted() {
+        counter.record(T0, 0);
+
+        assertThat(counter.count(T0)).isEqualTo(1);
+        assertThat(counter.amount(T0)).isZero();
+    }
+
+    @Test
+    void rejectsNegativeAmountWithoutChangingWindow() {
+        counter.record(T0, 100);
+
+        assertThatThrownBy(() -> counter.record(T0, -1))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(counter.count(T0)).isEqualTo(1);
+        assertThat(counter.amount(T0)).isEqualTo(100);
+    }
+
+    @Test
+    void amountSaturatesInsteadOfOverflowingIntoTag() {
+        long max = (1L << 48) - 1;
+        counter.record(T0, max);
+        counter.record(T0, max);
+
+        assertThat(counter.amount(T0)).isEqualTo(max);
+        assertThat(counter.count(T0)).isEqualTo(2);
+    }
+
+    @Test
+    void snapshotListsBucketsByAgeAndTrimsEmptyTail() {
+        counter.record(T0 - 2 * BUCKET_MS, 70);
+        counter.record(T0, 100);
+        counter.record(T0, 20);
+
+        VelocityStateUpdate.Window window = counter.snapshot(T0);
+
+        assertThat(window.getEpoch()).isEqualTo(T0 / BUCKET_MS);
+        assertThat(window.getCounts()).containsExactly(2, 0, 1);
+        assertThat(window.getAmounts()).containsExactly(120, 0, 70);
+    }
+
+    @Test
+    void snapshotOfEmptyWindowHasNoBuckets() {
+        VelocityStateUpdate.Window window = counter.snapshot(T0);
+
+        assertThat(window.getCounts()).isEmpty();
+        assertThat(window.getAmounts()).isEmpty();
+    }
+
+    @Test
+    void remoteSumsOnlyBucketsStillInsideWindow() {
+        counter.record(T0 - 2 * BUCKET_MS, 70);
+        counter.record(T0, 100);
+        VelocityStateUpdate.Window window = counter.snapshot(T0);
+
+        assertThat(counter.remoteCount(window, T0)).isEqualTo(2);
+        assertThat(counter.remoteAmount(window, T0)).isEqualTo(170);
+
+        // 10 dilim sonra 2 dilim önceki kayıt pencereden çıkmıştır
+        assertThat(counter.remoteCount(window, T0 + 10 * BUCKET_MS)).isEqualTo(1);
+        assertThat(counter.remoteAmount(window, T0 + 10 * BUCKET_MS)).isEqualTo(100);
+
+        assertThat(counter.remoteCount(window, T0 + 12 * BUCKET_MS)).isZero();
+    }
+
+    @Test
+    void concurrentRecordsAreNotLost() throws Exception {
+        int threads = 8;
+        int perThread = 10_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int j = 0; j < perThread; j++) {
+                    counter.record(T0, 3);
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertThat(counter.count(T0)).isEqualTo((long) threads * perThread);
+        assertThat(counter.amount(T0)).isEqualTo(3L * threads * perThread);
+    }
+}